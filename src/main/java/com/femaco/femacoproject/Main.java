@@ -1,8 +1,11 @@
 package com.femaco.femacoproject;
 
 import com.femaco.femacoproject.dao.DatabaseConnection;
+import com.femaco.femacoproject.dao.MigradorEsquema;
+import com.femaco.femacoproject.dao.ResumenDiarioDAOImpl;
 import com.femaco.femacoproject.ui.MainFrame;
 import com.femaco.femacoproject.util.Configuracion;
+import com.femaco.femacoproject.util.CronometroArranque;
 import com.femaco.femacoproject.util.Logger;
 
 import javax.swing.*;
@@ -19,10 +22,22 @@ import java.awt.*;
 public class Main {
     private static final Logger logger = Logger.getInstance();
     private static final Configuracion configuracion = Configuracion.getInstance();
+    private static final String ARG_RECONSTRUIR_RESUMEN = "--reconstruir-resumen";
     
     public static void main(String[] args) {
+        // Comando de mantenimiento: recalcular el resumen diario y salir sin abrir la interfaz
+        if (java.util.Arrays.asList(args).contains(ARG_RECONSTRUIR_RESUMEN)) {
+            inicializarBaseDatos();
+            int filas = new ResumenDiarioDAOImpl().reconstruir();
+            DatabaseConnection.getInstance().closeConnection();
+            System.exit(filas >= 0 ? 0 : 1);
+        }
+        
+        CronometroArranque.iniciar();
+        
         // Configurar el Look and Feel del sistema
         configurarLookAndFeel();
+        CronometroArranque.marcar("look and feel");
         
         // Mostrar información de inicio
         mostrarInformacionInicio();
@@ -113,6 +128,14 @@ public class Main {
             
             // Verificar que la base de datos esté accesible
             dbConnection.getConnection().close();
+            CronometroArranque.marcar("conexión a la base de datos");
+            
+            // Aplicar migraciones de esquema pendientes
+            int migracionesAplicadas = new MigradorEsquema(dbConnection).migrar();
+            if (migracionesAplicadas > 0) {
+                logger.info("Migraciones de esquema aplicadas: " + migracionesAplicadas);
+            }
+            CronometroArranque.marcar("migraciones de esquema");
             
             logger.info("Base de datos inicializada correctamente");
             
@@ -143,15 +166,21 @@ public class Main {
     private static void configurarCierreSeguro(MainFrame mainFrame) {
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             logger.info("Cerrando aplicación...");
-            realizarLimpieza();
+            realizarLimpieza(mainFrame);
         }));
     }
     
     // Realiza tareas de limpieza antes de cerrar la aplicación
-    private static void realizarLimpieza() {
+    private static void realizarLimpieza(MainFrame mainFrame) {
         try {
             logger.info("Realizando tareas de limpieza...");
             
+            // Guardar el catálogo en memoria antes de cerrar las conexiones
+            mainFrame.guardarSnapshotCatalogo();
+            
+            // Enviar los resúmenes de alertas pendientes mientras el logger sigue abierto
+            mainFrame.detenerNotificaciones();
+            
             // Cerrar logger
             logger.close();
             
@@ -160,6 +189,9 @@ public class Main {
                 realizarBackupAutomatico();
             }
             
+            // Cerrar las conexiones físicas del pool
+            DatabaseConnection.getInstance().closeConnection();
+            
             logger.info("Aplicación cerrada correctamente");
             
         } catch (Exception e) {
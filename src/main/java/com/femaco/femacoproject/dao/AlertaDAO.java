@@ -0,0 +1,14 @@
+package com.femaco.femacoproject.dao;
+
+import com.femaco.femacoproject.model.Alerta;
+import java.util.Date;
+import java.util.List;
+
+public interface AlertaDAO {
+    // Inserta la alerta o, si ya existe con ese id, actualiza su mensaje y la reabre si estaba resuelta
+    boolean guardar(Alerta alerta);
+    boolean resolver(String id, Date fechaResolucion);
+    List<Alerta> obtenerActivas();
+    // Borra las alertas resueltas antes de la fecha; devuelve las filas borradas o -1
+    int eliminarResueltasAntesDe(Date fecha);
+}
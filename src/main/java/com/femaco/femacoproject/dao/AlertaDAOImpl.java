@@ -0,0 +1,126 @@
+package com.femaco.femacoproject.dao;
+
+import com.femaco.femacoproject.model.Alerta;
+import com.femaco.femacoproject.model.enums.TipoAlerta;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class AlertaDAOImpl implements AlertaDAO {
+    private static final Logger logger = Logger.getLogger(AlertaDAOImpl.class.getName());
+    private final DatabaseConnection dbConnection;
+
+    public AlertaDAOImpl() {
+        this.dbConnection = DatabaseConnection.getInstance();
+    }
+
+    @Override
+    public boolean guardar(Alerta alerta) {
+        // Una alerta reabierta cuenta como nueva: se reinicia su fecha de creación
+        String sql = "INSERT INTO ALERTAS (id, tipo, entidad_id, mensaje, fecha_creacion, fecha_actualizacion) " +
+                    "VALUES (?, ?, ?, ?, ?, ?) " +
+                    "ON CONFLICT (id) DO UPDATE SET " +
+                    "mensaje = excluded.mensaje, " +
+                    "fecha_actualizacion = excluded.fecha_actualizacion, " +
+                    "fecha_creacion = CASE WHEN ALERTAS.fecha_resolucion IS NULL " +
+                    "THEN ALERTAS.fecha_creacion ELSE excluded.fecha_creacion END, " +
+                    "fecha_resolucion = NULL";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, alerta.getId());
+            pstmt.setString(2, alerta.getTipo().name());
+            pstmt.setString(3, alerta.getEntidadId());
+            pstmt.setString(4, alerta.getMensaje());
+            pstmt.setLong(5, alerta.getFechaCreacion().getTime());
+            pstmt.setLong(6, alerta.getFechaActualizacion().getTime());
+            
+            return pstmt.executeUpdate() > 0;
+            
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error al guardar alerta: " + alerta.getId(), e);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean resolver(String id, Date fechaResolucion) {
+        String sql = "UPDATE ALERTAS SET fecha_resolucion = ? WHERE id = ? AND fecha_resolucion IS NULL";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setLong(1, fechaResolucion.getTime());
+            pstmt.setString(2, id);
+            
+            return pstmt.executeUpdate() > 0;
+            
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error al resolver alerta: " + id, e);
+            return false;
+        }
+    }
+
+    @Override
+    public List<Alerta> obtenerActivas() {
+        List<Alerta> alertas = new ArrayList<>();
+        String sql = "SELECT * FROM ALERTAS WHERE fecha_resolucion IS NULL ORDER BY fecha_creacion";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                Alerta alerta = mapearAlerta(rs);
+                if (alerta != null) {
+                    alertas.add(alerta);
+                }
+            }
+            
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error al obtener alertas activas", e);
+        }
+        
+        return alertas;
+    }
+
+    @Override
+    public int eliminarResueltasAntesDe(Date fecha) {
+        String sql = "DELETE FROM ALERTAS WHERE fecha_resolucion IS NOT NULL AND fecha_resolucion < ?";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setLong(1, fecha.getTime());
+            return pstmt.executeUpdate();
+            
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error al depurar alertas resueltas", e);
+            return -1;
+        }
+    }
+
+    private Alerta mapearAlerta(ResultSet rs) throws SQLException {
+        TipoAlerta tipo;
+        try {
+            tipo = TipoAlerta.valueOf(rs.getString("tipo"));
+        } catch (IllegalArgumentException e) {
+            // Tipo de una versión anterior que ya no existe
+            logger.warning("Alerta con tipo desconocido ignorada: " + rs.getString("id"));
+            return null;
+        }
+        
+        Alerta alerta = new Alerta(tipo, rs.getString("entidad_id"), rs.getString("mensaje"));
+        alerta.setFechaCreacion(new Date(rs.getLong("fecha_creacion")));
+        alerta.setFechaActualizacion(new Date(rs.getLong("fecha_actualizacion")));
+        long fechaResolucion = rs.getLong("fecha_resolucion");
+        if (!rs.wasNull()) {
+            alerta.setFechaResolucion(new Date(fechaResolucion));
+        }
+        return alerta;
+    }
+}
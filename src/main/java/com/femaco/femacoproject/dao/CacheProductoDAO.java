@@ -0,0 +1,686 @@
+package com.femaco.femacoproject.dao;
+
+import com.femaco.femacoproject.model.Producto;
+import com.femaco.femacoproject.model.enums.CategoriaProducto;
+import com.femaco.femacoproject.model.enums.EstadoProducto;
+import com.femaco.femacoproject.util.ArbolRojoNegro;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Decorador de ProductoDAO que mantiene en memoria una copia completa de PRODUCTOS.
+ * Las lecturas se resuelven sin consultar la base de datos y devuelven listas
+ * inmodificables con copias de los productos, de modo que ningún llamador puede
+ * alterar el catálogo compartido. Cada escritura se delega y luego se vuelve a leer
+ * la fila afectada; si ocurre dentro de una UnidadDeTrabajo, la relectura se hace al
+ * terminar la transacción para no publicar cambios que puedan deshacerse.
+ * <p>
+ * Sobre el catálogo se mantienen índices secundarios (categoría, estado, proveedor y
+ * stock bajo) que se actualizan con cada fila publicada o eliminada, de modo que los
+ * filtros cuestan O(k log k) sobre los k productos que coinciden. Los productos vigentes
+ * se ordenan además por stock/mínimo en un árbol rojo-negro, de donde salen los k más
+ * críticos o los que están bajo un ratio dado en O(log n + k).
+ * <p>
+ * El catálogo no se carga solo: lo carga en segundo plano quien llama a
+ * {@link #cargar(ProgresoCarga)}. Hasta que termine bien, las lecturas van a la base de
+ * datos, y las filas escritas durante la carga se vuelven a leer al terminar, porque la
+ * carga pudo haber tomado su versión anterior. Con
+ * {@link #cargar(SnapshotCatalogo, ProgresoCarga)} se parte de una instantánea en disco
+ * y solo se releen los productos que cambiaron desde que se guardó.
+ */
+public class CacheProductoDAO implements ProductoDAO {
+    private static final Logger logger = Logger.getLogger(CacheProductoDAO.class.getName());
+    private static final int INTERVALO_PROGRESO = 500;
+    // Por encima de tantos cambios, releer fila a fila sale más caro que leer todo
+    private static final int MAX_CAMBIOS_SNAPSHOT = 5000;
+    private static final Comparator<Producto> POR_NOMBRE =
+        Comparator.comparing(Producto::getNombre).thenComparing(Producto::getId);
+    private static final Comparator<Producto> POR_STOCK =
+        Comparator.comparingInt(Producto::getStockActual).thenComparing(POR_NOMBRE);
+
+    private final ProductoDAO delegado;
+    private final Map<String, Producto> productos;
+    // Ids pendientes de releer al terminar la transacción del hilo
+    private final ThreadLocal<Set<String>> pendientes;
+
+    // Índices secundarios: solo se modifican bajo el monitor de la instancia
+    private final Map<CategoriaProducto, Set<String>> idsPorCategoria;
+    private final Map<EstadoProducto, Set<String>> idsPorEstado;
+    private final Map<String, Set<String>> idsPorProveedor;
+    private final Set<String> idsStockBajo;
+    private final ArbolRojoNegro<EntradaRatio> porRatio;
+
+    // Orden por nombre; se recalcula solo cuando cambian los nombres o el conjunto de productos
+    private volatile List<String> idsPorNombre;
+    // Hasta que cargar termine bien, las lecturas van a la base de datos; un lector nunca carga
+    private volatile boolean cargado;
+    private final AtomicBoolean cargando;
+    private final Set<String> escritosDuranteCarga;
+    // Versión del catálogo leída antes de la última carga; -1 si la base de datos no la ofrece
+    private volatile long versionCargada = -1;
+
+    private final AtomicLong aciertos;
+    private final AtomicLong fallos;
+    private final AtomicLong recargas;
+    private volatile long tiempoCargaMs;
+
+    public CacheProductoDAO(ProductoDAO delegado) {
+        this.delegado = delegado;
+        this.productos = new ConcurrentHashMap<>();
+        this.pendientes = new ThreadLocal<>();
+        this.cargando = new AtomicBoolean();
+        this.escritosDuranteCarga = ConcurrentHashMap.newKeySet();
+        this.idsPorCategoria = new EnumMap<>(CategoriaProducto.class);
+        for (CategoriaProducto categoria : CategoriaProducto.values()) {
+            idsPorCategoria.put(categoria, ConcurrentHashMap.newKeySet());
+        }
+        this.idsPorEstado = new EnumMap<>(EstadoProducto.class);
+        for (EstadoProducto estado : EstadoProducto.values()) {
+            idsPorEstado.put(estado, ConcurrentHashMap.newKeySet());
+        }
+        this.idsPorProveedor = new ConcurrentHashMap<>();
+        this.idsStockBajo = ConcurrentHashMap.newKeySet();
+        this.porRatio = new ArbolRojoNegro<>();
+        this.aciertos = new AtomicLong();
+        this.fallos = new AtomicLong();
+        this.recargas = new AtomicLong();
+    }
+
+    /** Avance de una carga: productos leídos y total esperado. */
+    public interface ProgresoCarga {
+        void actualizar(int cargados, int total);
+    }
+
+    /**
+     * Carga (o recarga) el catálogo completo en una sola lectura secuencial.
+     * @return true si el catálogo quedó en memoria
+     */
+    public boolean cargar() {
+        return cargar(null);
+    }
+
+    /**
+     * Igual que {@link #cargar()}, informando el avance cada {@value #INTERVALO_PROGRESO}
+     * productos. No bloquea a las lecturas ni a las escrituras concurrentes.
+     * @return true si el catálogo quedó en memoria; false si falló o ya había otra carga en curso
+     */
+    public boolean cargar(ProgresoCarga progreso) {
+        return cargar(null, progreso);
+    }
+
+    /**
+     * Carga el catálogo partiendo de una instantánea en disco: se leen sus productos y solo
+     * se vuelven a consultar los que cambiaron desde la versión con que se guardó. Si la
+     * instantánea no existe, está dañada o no es coherente con la base de datos, se hace
+     * la lectura completa.
+     * @param snapshot instantánea de la que partir; null para leer siempre de la base de datos
+     */
+    public boolean cargar(SnapshotCatalogo snapshot, ProgresoCarga progreso) {
+        if (!cargando.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            long inicio = System.currentTimeMillis();
+            // La versión se toma antes de leer: lo que cambie después se releerá en el próximo arranque
+            long version = delegado.obtenerVersionCatalogo();
+            Map<String, Producto> leidos = snapshot != null ? leerSnapshot(snapshot, version) : null;
+            if (leidos == null) {
+                leidos = leerBaseDatos(progreso);
+                if (leidos == null) {
+                    logger.warning("No se pudo cargar el catálogo en memoria; se consultará la base de datos");
+                    return false;
+                }
+            }
+
+            synchronized (this) {
+                productos.clear();
+                idsPorCategoria.values().forEach(Set::clear);
+                idsPorEstado.values().forEach(Set::clear);
+                idsPorProveedor.clear();
+                idsStockBajo.clear();
+                porRatio.limpiar();
+                for (Producto producto : leidos.values()) {
+                    productos.put(producto.getId(), producto);
+                    indexar(producto);
+                }
+                idsPorNombre = null;
+                versionCargada = version;
+                cargado = true;
+            }
+
+            // Filas escritas mientras se leía: la lectura pudo haber tomado su versión anterior
+            Iterator<String> escritos = escritosDuranteCarga.iterator();
+            while (escritos.hasNext()) {
+                String id = escritos.next();
+                escritos.remove();
+                releer(id);
+            }
+
+            tiempoCargaMs = System.currentTimeMillis() - inicio;
+            if (progreso != null) {
+                progreso.actualizar(leidos.size(), leidos.size());
+            }
+            logger.info("Catálogo en memoria cargado. " + obtenerResumenMetricas());
+            return true;
+        } finally {
+            cargando.set(false);
+        }
+    }
+
+    /**
+     * Guarda el catálogo en memoria como instantánea, con la versión con que se cargó.
+     * Las filas releídas después tienen versiones posteriores y se volverán a leer al
+     * restaurarla, así que la instantánea nunca queda por delante de la base de datos.
+     * @return false si el catálogo no está cargado o no se pudo escribir
+     */
+    public boolean guardarSnapshot(SnapshotCatalogo snapshot) {
+        List<Producto> copia;
+        long version;
+        synchronized (this) {
+            if (!cargado || versionCargada < 0) {
+                return false;
+            }
+            copia = new ArrayList<>(productos.values());
+            version = versionCargada;
+        }
+        return snapshot.guardar(version, copia);
+    }
+
+    private Map<String, Producto> leerBaseDatos(ProgresoCarga progreso) {
+        int total = progreso != null ? delegado.contarTotalProductos() : 0;
+        Map<String, Producto> leidos = new HashMap<>();
+        boolean exito = delegado.recorrerTodos(p -> {
+            leidos.put(p.getId(), p);
+            if (progreso != null && leidos.size() % INTERVALO_PROGRESO == 0) {
+                progreso.actualizar(leidos.size(), Math.max(total, leidos.size()));
+            }
+        });
+        return exito ? leidos : null;
+    }
+
+    // Productos de la instantánea con los cambios posteriores aplicados; null si no sirve
+    private Map<String, Producto> leerSnapshot(SnapshotCatalogo snapshot, long versionActual) {
+        if (versionActual < 0) {
+            return null;
+        }
+        SnapshotCatalogo.Contenido contenido = snapshot.leer();
+        if (contenido == null) {
+            return null;
+        }
+        if (contenido.getVersion() > versionActual) {
+            // La base de datos se restauró desde una copia anterior a la instantánea
+            logger.info("Instantánea del catálogo más nueva que la base de datos; se ignorará");
+            return null;
+        }
+
+        List<String> modificados = contenido.getVersion() == versionActual
+            ? Collections.emptyList()
+            : delegado.obtenerIdsModificadosDesde(contenido.getVersion());
+        if (modificados.size() > MAX_CAMBIOS_SNAPSHOT) {
+            logger.info("Demasiados cambios desde la instantánea (" + modificados.size() + "); se leerá todo el catálogo");
+            return null;
+        }
+
+        Map<String, Producto> leidos = new HashMap<>(contenido.getProductos().size() * 4 / 3 + 1);
+        for (Producto producto : contenido.getProductos()) {
+            leidos.put(producto.getId(), producto);
+        }
+        for (String id : modificados) {
+            Optional<Producto> actual = delegado.obtenerPorId(id);
+            if (actual.isPresent()) {
+                leidos.put(id, actual.get());
+            } else {
+                leidos.remove(id);
+            }
+        }
+
+        // Comprobación barata de que la instantánea corresponde a esta base de datos
+        int enBaseDatos = delegado.contarTotalProductos();
+        if (leidos.size() != enBaseDatos) {
+            logger.warning(String.format("La instantánea del catálogo no coincide con la base de datos " +
+                                         "(%d frente a %d productos); se leerá todo el catálogo",
+                                         leidos.size(), enBaseDatos));
+            return null;
+        }
+        logger.info(String.format("Catálogo restaurado desde la instantánea: %d productos, %d releídos",
+                                  leidos.size(), modificados.size()));
+        return leidos;
+    }
+
+    public boolean isCargado() {
+        return cargado;
+    }
+
+    // ===== LECTURAS =====
+
+    @Override
+    public Optional<Producto> obtenerPorId(String id) {
+        if (cargado && !esPendiente(id)) {
+            Producto producto = productos.get(id);
+            if (producto != null) {
+                aciertos.incrementAndGet();
+                return Optional.of(new Producto(producto));
+            }
+        }
+
+        // No se publica lo leído: sin bloqueo, una escritura concurrente pudo publicar ya una
+        // versión más nueva. Solo las escrituras y la carga llenan el catálogo
+        fallos.incrementAndGet();
+        return delegado.obtenerPorId(id);
+    }
+
+    @Override
+    public List<Producto> obtenerTodos() {
+        if (!cargado) {
+            return Collections.unmodifiableList(delegado.obtenerTodos());
+        }
+        aciertos.incrementAndGet();
+        List<Producto> resultado = new ArrayList<>(productos.size());
+        for (String id : obtenerIdsPorNombre()) {
+            Producto producto = productos.get(id);
+            if (producto != null) {
+                resultado.add(new Producto(producto));
+            }
+        }
+        return Collections.unmodifiableList(resultado);
+    }
+
+    @Override
+    public boolean recorrerTodos(Consumer<Producto> consumidor) {
+        if (!cargado) {
+            return delegado.recorrerTodos(consumidor);
+        }
+        aciertos.incrementAndGet();
+        for (String id : obtenerIdsPorNombre()) {
+            Producto producto = productos.get(id);
+            if (producto != null) {
+                consumidor.accept(new Producto(producto));
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public List<Producto> obtenerPorCategoria(CategoriaProducto categoria) {
+        if (!cargado) {
+            return Collections.unmodifiableList(delegado.obtenerPorCategoria(categoria));
+        }
+        return desdeIndice(idsPorCategoria.get(categoria), POR_NOMBRE);
+    }
+
+    @Override
+    public List<Producto> obtenerPorEstado(EstadoProducto estado) {
+        if (!cargado) {
+            return Collections.unmodifiableList(delegado.obtenerPorEstado(estado));
+        }
+        return desdeIndice(idsPorEstado.get(estado), POR_NOMBRE);
+    }
+
+    @Override
+    public List<Producto> obtenerPorProveedor(String proveedorId) {
+        if (!cargado) {
+            return Collections.unmodifiableList(delegado.obtenerPorProveedor(proveedorId));
+        }
+        return desdeIndice(idsPorProveedor.get(proveedorId), POR_NOMBRE);
+    }
+
+    @Override
+    public List<Producto> obtenerStockBajo() {
+        if (!cargado) {
+            return Collections.unmodifiableList(delegado.obtenerStockBajo());
+        }
+        // Mismo orden que la consulta SQL
+        return desdeIndice(idsStockBajo, POR_STOCK);
+    }
+
+    @Override
+    public int contarPorCategoria(CategoriaProducto categoria) {
+        if (cargado) {
+            aciertos.incrementAndGet();
+            return idsPorCategoria.get(categoria).size();
+        }
+        fallos.incrementAndGet();
+        return delegado.contarPorCategoria(categoria);
+    }
+
+    @Override
+    public List<Producto> obtenerMasCriticos(int limite) {
+        if (!cargado) {
+            return Collections.unmodifiableList(delegado.obtenerMasCriticos(limite));
+        }
+        List<String> ids = new ArrayList<>();
+        synchronized (this) {
+            Iterator<EntradaRatio> it = porRatio.iterator();
+            while (ids.size() < limite && it.hasNext()) {
+                ids.add(it.next().id);
+            }
+        }
+        return desdeIds(ids);
+    }
+
+    @Override
+    public List<Producto> obtenerPorRatioStock(double ratioMaximo) {
+        if (!cargado) {
+            return Collections.unmodifiableList(delegado.obtenerPorRatioStock(ratioMaximo));
+        }
+        List<String> ids = new ArrayList<>();
+        synchronized (this) {
+            for (EntradaRatio entrada : porRatio) {
+                if (entrada.ratio > ratioMaximo) {
+                    break;
+                }
+                ids.add(entrada.id);
+            }
+        }
+        return desdeIds(ids);
+    }
+
+    @Override
+    public List<Producto> buscarPorNombre(String nombre) {
+        // La búsqueda de texto usa el índice FTS de la base de datos
+        return Collections.unmodifiableList(delegado.buscarPorNombre(nombre));
+    }
+
+    @Override
+    public boolean existeProducto(String id) {
+        if (cargado && !esPendiente(id)) {
+            aciertos.incrementAndGet();
+            return productos.containsKey(id);
+        }
+        fallos.incrementAndGet();
+        return delegado.existeProducto(id);
+    }
+
+    @Override
+    public int contarTotalProductos() {
+        if (cargado) {
+            aciertos.incrementAndGet();
+            return productos.size();
+        }
+        fallos.incrementAndGet();
+        return delegado.contarTotalProductos();
+    }
+
+    @Override
+    public long obtenerVersionCatalogo() {
+        return delegado.obtenerVersionCatalogo();
+    }
+
+    @Override
+    public List<String> obtenerIdsModificadosDesde(long version) {
+        return delegado.obtenerIdsModificadosDesde(version);
+    }
+
+    // ===== ESCRITURAS =====
+
+    @Override
+    public boolean agregar(Producto producto) {
+        boolean exito = delegado.agregar(producto);
+        if (exito) {
+            invalidar(producto.getId());
+        }
+        return exito;
+    }
+
+    @Override
+    public boolean actualizar(Producto producto) {
+        boolean exito = delegado.actualizar(producto);
+        if (exito) {
+            invalidar(producto.getId());
+        }
+        return exito;
+    }
+
+    @Override
+    public boolean eliminar(String id) {
+        boolean exito = delegado.eliminar(id);
+        if (exito) {
+            invalidar(id);
+        }
+        return exito;
+    }
+
+    @Override
+    public boolean actualizarStock(String productoId, int nuevaCantidad) {
+        boolean exito = delegado.actualizarStock(productoId, nuevaCantidad);
+        if (exito) {
+            invalidar(productoId);
+        }
+        return exito;
+    }
+
+    @Override
+    public int ajustarStock(String productoId, int cantidad) {
+        int nuevoStock = delegado.ajustarStock(productoId, cantidad);
+        if (nuevoStock >= 0) {
+            invalidar(productoId);
+        }
+        return nuevoStock;
+    }
+
+    // ===== MÉTRICAS =====
+
+    public int getTamaño() {
+        return productos.size();
+    }
+
+    public long getAciertos() {
+        return aciertos.get();
+    }
+
+    public long getFallos() {
+        return fallos.get();
+    }
+
+    public long getRecargas() {
+        return recargas.get();
+    }
+
+    public double getTasaAciertos() {
+        long total = aciertos.get() + fallos.get();
+        return total == 0 ? 0.0 : (double) aciertos.get() / total;
+    }
+
+    public long getTiempoCargaMs() {
+        return tiempoCargaMs;
+    }
+
+    public String obtenerResumenMetricas() {
+        return String.format("CacheProductos[productos=%d, aciertos=%d, fallos=%d, tasa=%.1f%%, " +
+                           "recargas de fila=%d, carga=%d ms]",
+                           getTamaño(), getAciertos(), getFallos(), getTasaAciertos() * 100,
+                           getRecargas(), tiempoCargaMs);
+    }
+
+    // ===== OPERACIONES INTERNAS =====
+
+    private List<Producto> desdeIndice(Set<String> ids, Comparator<Producto> orden) {
+        aciertos.incrementAndGet();
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Producto> resultado = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Producto producto = productos.get(id);
+            if (producto != null) {
+                resultado.add(new Producto(producto));
+            }
+        }
+        resultado.sort(orden);
+        return Collections.unmodifiableList(resultado);
+    }
+
+    // Copia los productos en el orden de los ids recibidos
+    private List<Producto> desdeIds(List<String> ids) {
+        aciertos.incrementAndGet();
+        List<Producto> resultado = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Producto producto = productos.get(id);
+            if (producto != null) {
+                resultado.add(new Producto(producto));
+            }
+        }
+        return Collections.unmodifiableList(resultado);
+    }
+
+    private List<String> obtenerIdsPorNombre() {
+        List<String> ids = idsPorNombre;
+        if (ids == null) {
+            synchronized (this) {
+                ids = idsPorNombre;
+                if (ids == null) {
+                    List<Producto> ordenados = new ArrayList<>(productos.values());
+                    ordenados.sort(POR_NOMBRE);
+                    List<String> nuevos = new ArrayList<>(ordenados.size());
+                    for (Producto producto : ordenados) {
+                        nuevos.add(producto.getId());
+                    }
+                    ids = Collections.unmodifiableList(nuevos);
+                    idsPorNombre = ids;
+                }
+            }
+        }
+        return ids;
+    }
+
+    private boolean esPendiente(String id) {
+        Set<String> ids = pendientes.get();
+        return ids != null && ids.contains(id);
+    }
+
+    // Vuelve a leer la fila escrita, ahora o al terminar la transacción en curso
+    private void invalidar(String id) {
+        if (!UnidadDeTrabajo.hayTransaccionActiva()) {
+            recargar(id);
+            return;
+        }
+
+        Set<String> ids = pendientes.get();
+        if (ids == null) {
+            Set<String> nuevos = new HashSet<>();
+            pendientes.set(nuevos);
+            UnidadDeTrabajo.alFinalizar(() -> {
+                pendientes.remove();
+                for (String pendiente : nuevos) {
+                    recargar(pendiente);
+                }
+            });
+            ids = nuevos;
+        }
+        ids.add(id);
+    }
+
+    private void recargar(String id) {
+        if (cargando.get()) {
+            escritosDuranteCarga.add(id);
+        }
+        // Se comprueba después de anotar el id: si la carga termina entre medias, lo relee ella o este hilo
+        if (cargado) {
+            releer(id);
+        }
+    }
+
+    private void releer(String id) {
+        recargas.incrementAndGet();
+        Optional<Producto> actual = delegado.obtenerPorId(id);
+        if (actual.isPresent()) {
+            publicar(actual.get());
+        } else {
+            quitar(id);
+        }
+    }
+
+    private synchronized void publicar(Producto producto) {
+        Producto anterior = productos.put(producto.getId(), producto);
+        if (anterior != null) {
+            desindexar(anterior);
+        }
+        indexar(producto);
+        // Un cambio de stock no altera el orden por nombre
+        if (anterior == null || !Objects.equals(anterior.getNombre(), producto.getNombre())) {
+            idsPorNombre = null;
+        }
+    }
+
+    private synchronized void quitar(String id) {
+        Producto anterior = productos.remove(id);
+        if (anterior != null) {
+            desindexar(anterior);
+            idsPorNombre = null;
+        }
+    }
+
+    private void indexar(Producto producto) {
+        String id = producto.getId();
+        if (producto.getCategoria() != null) {
+            idsPorCategoria.get(producto.getCategoria()).add(id);
+        }
+        if (producto.getEstado() != null) {
+            idsPorEstado.get(producto.getEstado()).add(id);
+        }
+        if (producto.getProveedorId() != null) {
+            idsPorProveedor.computeIfAbsent(producto.getProveedorId(), k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+        if (esStockBajo(producto)) {
+            idsStockBajo.add(id);
+        }
+        if (esVigente(producto)) {
+            porRatio.insertar(new EntradaRatio(producto));
+        }
+    }
+
+    private void desindexar(Producto producto) {
+        String id = producto.getId();
+        if (producto.getCategoria() != null) {
+            idsPorCategoria.get(producto.getCategoria()).remove(id);
+        }
+        if (producto.getEstado() != null) {
+            idsPorEstado.get(producto.getEstado()).remove(id);
+        }
+        if (producto.getProveedorId() != null) {
+            Set<String> ids = idsPorProveedor.get(producto.getProveedorId());
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    idsPorProveedor.remove(producto.getProveedorId());
+                }
+            }
+        }
+        idsStockBajo.remove(id);
+        if (esVigente(producto)) {
+            porRatio.eliminar(new EntradaRatio(producto));
+        }
+    }
+
+    // Mismo criterio que ProductoDAOImpl.obtenerStockBajo
+    private static boolean esStockBajo(Producto producto) {
+        return producto.getStockActual() <= producto.getStockMinimo() &&
+               producto.getEstado() != EstadoProducto.DESCONTINUADO;
+    }
+
+    private static boolean esVigente(Producto producto) {
+        return producto.getEstado() != EstadoProducto.INACTIVO &&
+               producto.getEstado() != EstadoProducto.DESCONTINUADO;
+    }
+
+    // Clave del índice por ratio; el id desempata para que cada producto tenga una entrada única
+    private static final class EntradaRatio implements Comparable<EntradaRatio> {
+        private final double ratio;
+        private final String id;
+
+        EntradaRatio(Producto producto) {
+            this.ratio = producto.calcularRatioStock();
+            this.id = producto.getId();
+        }
+
+        @Override
+        public int compareTo(EntradaRatio otra) {
+            int comparacion = Double.compare(ratio, otra.ratio);
+            return comparacion != 0 ? comparacion : id.compareTo(otra.id);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.femaco.femacoproject.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Caché LRU de PreparedStatement asociada a una conexión física del pool.
+ * Al cerrar la sentencia en el DAO se limpia y queda disponible para el siguiente
+ * uso del mismo SQL, evitando que SQLite vuelva a analizar y planificar la consulta.
+ * Solo la usa el hilo que tiene prestada la conexión, por lo que no se sincroniza.
+ */
+class CacheSentencias {
+    private static final Logger logger = Logger.getLogger(CacheSentencias.class.getName());
+
+    private final Connection conexion;
+    private final int capacidad;
+    private final LinkedHashMap<String, SentenciaCacheada> sentencias;
+
+    private final AtomicLong aciertos;
+    private final AtomicLong fallos;
+    private final AtomicLong expulsiones;
+
+    CacheSentencias(Connection conexion, int capacidad) {
+        this.conexion = conexion;
+        this.capacidad = capacidad;
+        this.aciertos = new AtomicLong();
+        this.fallos = new AtomicLong();
+        this.expulsiones = new AtomicLong();
+        // accessOrder = true para mantener el orden LRU
+        this.sentencias = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SentenciaCacheada> mayor) {
+                if (size() > CacheSentencias.this.capacidad) {
+                    expulsiones.incrementAndGet();
+                    mayor.getValue().expulsar();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    PreparedStatement preparar(String sql) throws SQLException {
+        if (capacidad <= 0) {
+            fallos.incrementAndGet();
+            return conexion.prepareStatement(sql);
+        }
+
+        SentenciaCacheada cacheada = sentencias.get(sql);
+        if (cacheada != null) {
+            if (!cacheada.enUso) {
+                aciertos.incrementAndGet();
+                return cacheada.prestar();
+            }
+            // El mismo SQL ya está abierto en este hilo: se entrega una sentencia sin caché
+            fallos.incrementAndGet();
+            return conexion.prepareStatement(sql);
+        }
+
+        fallos.incrementAndGet();
+        cacheada = new SentenciaCacheada(conexion.prepareStatement(sql));
+        sentencias.put(sql, cacheada);
+        return cacheada.prestar();
+    }
+
+    // Libera las sentencias que el DAO no haya cerrado antes de devolver la conexión
+    void liberarTodas() {
+        for (SentenciaCacheada cacheada : sentencias.values()) {
+            if (cacheada.enUso) {
+                cacheada.liberar();
+            }
+        }
+    }
+
+    void cerrar() {
+        for (SentenciaCacheada cacheada : sentencias.values()) {
+            cacheada.expulsar();
+        }
+        sentencias.clear();
+    }
+
+    int tamaño() {
+        return sentencias.size();
+    }
+
+    long getAciertos() {
+        return aciertos.get();
+    }
+
+    long getFallos() {
+        return fallos.get();
+    }
+
+    long getExpulsiones() {
+        return expulsiones.get();
+    }
+
+    // Sentencia física reutilizable; el close() del proxy la devuelve a la caché
+    private static class SentenciaCacheada implements InvocationHandler {
+        private final PreparedStatement sentencia;
+        private final List<ResultSet> resultadosAbiertos;
+        private PreparedStatement proxy;
+        private boolean enUso;
+        private boolean expulsada;
+
+        SentenciaCacheada(PreparedStatement sentencia) {
+            this.sentencia = sentencia;
+            this.resultadosAbiertos = new ArrayList<>(1);
+            this.enUso = false;
+            this.expulsada = false;
+        }
+
+        PreparedStatement prestar() {
+            enUso = true;
+            // Un proxy nuevo por préstamo para que un close() tardío no afecte al siguiente uso
+            proxy = (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(), new Class<?>[] { PreparedStatement.class }, this);
+            return proxy;
+        }
+
+        @Override
+        public Object invoke(Object llamado, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (llamado == proxy) {
+                        liberar();
+                    }
+                    return null;
+                case "isClosed":
+                    return llamado != proxy || !enUso;
+                case "equals":
+                    return llamado == args[0];
+                case "hashCode":
+                    return System.identityHashCode(llamado);
+                case "toString":
+                    return "SentenciaCacheada[" + sentencia + "]";
+                default:
+                    break;
+            }
+
+            if (llamado != proxy || !enUso) {
+                throw new SQLException("La sentencia ya fue cerrada");
+            }
+
+            try {
+                Object resultado = method.invoke(sentencia, args);
+                if (resultado instanceof ResultSet) {
+                    resultadosAbiertos.add((ResultSet) resultado);
+                }
+                return resultado;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        void liberar() {
+            enUso = false;
+            proxy = null;
+            try {
+                for (ResultSet rs : resultadosAbiertos) {
+                    rs.close();
+                }
+                resultadosAbiertos.clear();
+                sentencia.clearParameters();
+            } catch (SQLException e) {
+                logger.log(Level.FINE, "Error al limpiar sentencia en caché", e);
+            }
+            if (expulsada) {
+                cerrarFisica();
+            }
+        }
+
+        void expulsar() {
+            expulsada = true;
+            // Si está en uso se cerrará cuando el DAO la libere
+            if (!enUso) {
+                cerrarFisica();
+            }
+        }
+
+        private void cerrarFisica() {
+            try {
+                sentencia.close();
+            } catch (SQLException e) {
+                logger.log(Level.FINE, "Error al cerrar sentencia expulsada de la caché", e);
+            }
+        }
+    }
+}
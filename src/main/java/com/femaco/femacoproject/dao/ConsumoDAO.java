@@ -0,0 +1,19 @@
+package com.femaco.femacoproject.dao;
+
+import com.femaco.femacoproject.exception.DatabaseException;
+import com.femaco.femacoproject.model.ConsumoProducto;
+import java.util.List;
+import java.util.Optional;
+
+public interface ConsumoDAO {
+    // Si falla la lectura lanza la excepción: una salida no debe tomarla como un producto sin historial
+    Optional<ConsumoProducto> obtenerPorProducto(String productoId) throws DatabaseException;
+    List<ConsumoProducto> obtenerTodos();
+    boolean guardar(ConsumoProducto consumo);
+
+    // Factor de suavizado con que se reconstruyeron las tasas; -1 si nunca se hizo o no se pudo leer
+    double obtenerAlfa();
+
+    // Vuelve a calcular las tasas a partir de MOVIMIENTOS_DIARIOS; devuelve los productos generados o -1
+    int reconstruir(double alfa);
+}
@@ -0,0 +1,180 @@
+package com.femaco.femacoproject.dao;
+
+import com.femaco.femacoproject.exception.DatabaseException;
+import com.femaco.femacoproject.model.ConsumoProducto;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class ConsumoDAOImpl implements ConsumoDAO {
+    private static final Logger logger = Logger.getLogger(ConsumoDAOImpl.class.getName());
+    private final DatabaseConnection dbConnection;
+
+    public ConsumoDAOImpl() {
+        this.dbConnection = DatabaseConnection.getInstance();
+    }
+
+    @Override
+    public Optional<ConsumoProducto> obtenerPorProducto(String productoId) throws DatabaseException {
+        String sql = "SELECT * FROM CONSUMO_PRODUCTOS WHERE producto_id = ?";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, productoId);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                return Optional.of(mapearConsumo(rs));
+            }
+
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error al obtener el consumo del producto: " + productoId, e);
+            throw new DatabaseException(e, sql);
+        }
+
+        return Optional.empty();
+    }
+
+    @Override
+    public List<ConsumoProducto> obtenerTodos() {
+        List<ConsumoProducto> consumos = new ArrayList<>();
+        String sql = "SELECT * FROM CONSUMO_PRODUCTOS";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                consumos.add(mapearConsumo(rs));
+            }
+
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error al obtener los consumos de productos", e);
+        }
+
+        return consumos;
+    }
+
+    @Override
+    public boolean guardar(ConsumoProducto consumo) {
+        String sql = "INSERT OR REPLACE INTO CONSUMO_PRODUCTOS " +
+                    "(producto_id, alfa, tasa, consumo_dia, dia, primer_dia, version) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            asignarParametros(pstmt, consumo);
+            return pstmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error al guardar el consumo del producto: " + consumo.getProductoId(), e);
+            return false;
+        }
+    }
+
+    @Override
+    public double obtenerAlfa() {
+        String sql = "SELECT alfa FROM CONSUMO_SUAVIZADO WHERE id = 1";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                return rs.getDouble("alfa");
+            }
+
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error al obtener el suavizado del consumo", e);
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int reconstruir(double alfa) {
+        // Ordenado por producto y día, se aplica cada día de salidas como una salida
+        String sql = "SELECT producto_id, dia, cantidad_total FROM MOVIMIENTOS_DIARIOS " +
+                    "WHERE tipo = 'SALIDA' ORDER BY producto_id, dia";
+        String insert = "INSERT INTO CONSUMO_PRODUCTOS " +
+                       "(producto_id, alfa, tasa, consumo_dia, dia, primer_dia, version) " +
+                       "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+        try (Connection conn = dbConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement();
+                 PreparedStatement pstmt = conn.prepareStatement(insert)) {
+                stmt.executeUpdate("DELETE FROM CONSUMO_PRODUCTOS");
+
+                int productos = 0;
+                ConsumoProducto actual = null;
+                ResultSet rs = stmt.executeQuery(sql);
+                while (rs.next()) {
+                    String productoId = rs.getString("producto_id");
+                    long dia = LocalDate.parse(rs.getString("dia")).toEpochDay();
+                    int cantidad = rs.getInt("cantidad_total");
+                    if (actual != null && actual.getProductoId().equals(productoId)) {
+                        actual = actual.registrarSalida(cantidad, dia);
+                        continue;
+                    }
+                    if (actual != null) {
+                        asignarParametros(pstmt, actual);
+                        pstmt.addBatch();
+                        productos++;
+                    }
+                    actual = ConsumoProducto.primeraSalida(productoId, alfa, cantidad, dia);
+                }
+                if (actual != null) {
+                    asignarParametros(pstmt, actual);
+                    pstmt.addBatch();
+                    productos++;
+                }
+                pstmt.executeBatch();
+                // Aunque no haya salidas queda registrado, así la tabla vacía cuenta como al día
+                try (PreparedStatement suavizado = conn.prepareStatement(
+                        "INSERT OR REPLACE INTO CONSUMO_SUAVIZADO (id, alfa) VALUES (1, ?)")) {
+                    suavizado.setDouble(1, alfa);
+                    suavizado.executeUpdate();
+                }
+                conn.commit();
+                logger.info("Consumo de productos reconstruido: " + productos + " productos");
+                return productos;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error al reconstruir el consumo de productos", e);
+            return -1;
+        }
+    }
+
+    private void asignarParametros(PreparedStatement pstmt, ConsumoProducto consumo) throws SQLException {
+        pstmt.setString(1, consumo.getProductoId());
+        pstmt.setDouble(2, consumo.getAlfa());
+        pstmt.setDouble(3, consumo.getTasa());
+        pstmt.setInt(4, consumo.getConsumoDia());
+        pstmt.setLong(5, consumo.getDia());
+        pstmt.setLong(6, consumo.getPrimerDia());
+        pstmt.setLong(7, consumo.getVersion());
+    }
+
+    private ConsumoProducto mapearConsumo(ResultSet rs) throws SQLException {
+        return new ConsumoProducto(
+            rs.getString("producto_id"),
+            rs.getDouble("alfa"),
+            rs.getDouble("tasa"),
+            rs.getInt("consumo_dia"),
+            rs.getLong("dia"),
+            rs.getLong("primer_dia"),
+            rs.getLong("version")
+        );
+    }
+}
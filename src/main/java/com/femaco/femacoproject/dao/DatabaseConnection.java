@@ -1,5 +1,6 @@
 package com.femaco.femacoproject.dao;
 
+import com.femaco.femacoproject.util.Configuracion;
 import java.sql.*;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -7,7 +8,8 @@ import java.util.logging.Logger;
 public class DatabaseConnection {
     private static final Logger logger = Logger.getLogger(DatabaseConnection.class.getName());
     private static DatabaseConnection instance;
-    private Connection connection;
+    private PoolConexiones pool;
+    private final int fetchSize;
     private static final String DATABASE_URL = "jdbc:sqlite:inventario_femaco.db";
     
     private static final String INSERT_DEFAULT_DATA = """
@@ -31,6 +33,16 @@ public class DatabaseConnection {
 
     private DatabaseConnection() {
         // Constructor privado para patrón Singleton
+        this.pool = crearPool();
+        this.fetchSize = Configuracion.getInstance().getDatabaseFetchSize();
+    }
+
+    private static PoolConexiones crearPool() {
+        Configuracion configuracion = Configuracion.getInstance();
+        return new PoolConexiones(DATABASE_URL,
+                                  configuracion.getDatabasePoolSize(),
+                                  configuracion.getDatabasePoolTimeout(),
+                                  configuracion.getStatementCacheSize());
     }
 
     public static synchronized DatabaseConnection getInstance() {
@@ -40,20 +52,26 @@ public class DatabaseConnection {
         return instance;
     }
 
+    // Presta una conexión del pool; al cerrarla vuelve al pool en lugar de cerrarse
     public Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            try {
-                connection = DriverManager.getConnection(DATABASE_URL);
-                // Activar claves foráneas en SQLite
-                try (Statement stmt = connection.createStatement()) {
-                    stmt.execute("PRAGMA foreign_keys = ON");
-                }
-            } catch (SQLException e) {
-                logger.log(Level.SEVERE, "Error al conectar con la base de datos", e);
-                throw e;
-            }
+        try {
+            return obtenerPool().obtenerConexion();
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error al conectar con la base de datos", e);
+            throw e;
         }
-        return connection;
+    }
+
+    // Filas por lote que se piden al driver en los recorridos de resultados grandes
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public synchronized PoolConexiones obtenerPool() {
+        if (pool.isCerrado()) {
+            pool = crearPool();
+        }
+        return pool;
     }
 
     public void inicializarBaseDatos() {
@@ -70,15 +88,8 @@ public class DatabaseConnection {
         }
     }
 
-    public void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-                connection = null;
-            } catch (SQLException e) {
-                logger.log(Level.SEVERE, "Error al cerrar la conexión", e);
-            }
-        }
+    public synchronized void closeConnection() {
+        pool.cerrar();
     }
 
     public void backupDatabase(String backupPath) {
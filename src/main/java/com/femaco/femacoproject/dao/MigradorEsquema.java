@@ -0,0 +1,394 @@
+package com.femaco.femacoproject.dao;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Aplica al iniciar la aplicación las migraciones de esquema pendientes.
+ * La versión aplicada se registra en SCHEMA_VERSION y cada migración se ejecuta
+ * en su propia transacción, en orden de versión.
+ */
+public class MigradorEsquema {
+    private static final Logger logger = Logger.getLogger(MigradorEsquema.class.getName());
+
+    private static final String CREAR_TABLA_VERSION = """
+            CREATE TABLE IF NOT EXISTS SCHEMA_VERSION (
+                version INTEGER PRIMARY KEY,
+                descripcion VARCHAR(200) NOT NULL,
+                fecha_aplicacion DATETIME DEFAULT CURRENT_TIMESTAMP
+            )
+            """;
+
+    // Migraciones en orden de versión. No modificar una migración ya publicada: agregar una nueva.
+    private static final List<Migracion> MIGRACIONES = List.of(
+        new Migracion(1, "Esquema inicial",
+            """
+            CREATE TABLE IF NOT EXISTS PRODUCTOS (
+                id VARCHAR(20) PRIMARY KEY,
+                nombre VARCHAR(100) NOT NULL,
+                categoria VARCHAR(50) NOT NULL,
+                stock_actual INTEGER NOT NULL CHECK (stock_actual >= 0),
+                stock_minimo INTEGER NOT NULL CHECK (stock_minimo >= 0),
+                precio DECIMAL(10,2) NOT NULL CHECK (precio >= 0),
+                ubicacion VARCHAR(20) NOT NULL,
+                estado VARCHAR(20) DEFAULT 'ACTIVO',
+                proveedor_id VARCHAR(20),
+                fecha_creacion DATETIME DEFAULT CURRENT_TIMESTAMP,
+                fecha_actualizacion DATETIME DEFAULT CURRENT_TIMESTAMP
+            )
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS MOVIMIENTOS (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                producto_id VARCHAR(20) NOT NULL,
+                tipo VARCHAR(10) NOT NULL CHECK (tipo IN ('ENTRADA', 'SALIDA', 'AJUSTE')),
+                cantidad INTEGER NOT NULL CHECK (cantidad > 0),
+                motivo TEXT,
+                fecha DATETIME DEFAULT CURRENT_TIMESTAMP,
+                usuario_id VARCHAR(20) NOT NULL,
+                referencia VARCHAR(50),
+                FOREIGN KEY (producto_id) REFERENCES PRODUCTOS(id) ON DELETE CASCADE
+            )
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS PROVEEDORES (
+                id VARCHAR(20) PRIMARY KEY,
+                nombre VARCHAR(100) NOT NULL,
+                contacto VARCHAR(100),
+                telefono VARCHAR(15),
+                email VARCHAR(100),
+                direccion TEXT,
+                activo BOOLEAN DEFAULT TRUE,
+                fecha_registro DATETIME DEFAULT CURRENT_TIMESTAMP
+            )
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS USUARIOS (
+                id VARCHAR(20) PRIMARY KEY,
+                username VARCHAR(50) UNIQUE NOT NULL,
+                password VARCHAR(100) NOT NULL,
+                nombre_completo VARCHAR(100) NOT NULL,
+                email VARCHAR(100),
+                rol VARCHAR(15) NOT NULL CHECK (rol IN ('ADMINISTRADOR', 'ALMACENERO', 'SUPERVISOR')),
+                activo BOOLEAN DEFAULT TRUE,
+                fecha_creacion DATETIME DEFAULT CURRENT_TIMESTAMP,
+                ultimo_acceso DATETIME
+            )
+            """,
+            "CREATE INDEX IF NOT EXISTS idx_productos_stock ON PRODUCTOS(stock_actual)",
+            "CREATE INDEX IF NOT EXISTS idx_movimientos_fecha ON MOVIMIENTOS(fecha)",
+            "CREATE INDEX IF NOT EXISTS idx_usuarios_username ON USUARIOS(username)"
+        ),
+        new Migracion(2, "Índices compuestos para consultas frecuentes",
+            // obtenerPorProducto / obtenerPorTipo / obtenerPorUsuario filtran y ordenan por fecha
+            "CREATE INDEX IF NOT EXISTS idx_movimientos_producto_fecha ON MOVIMIENTOS(producto_id, fecha)",
+            "CREATE INDEX IF NOT EXISTS idx_movimientos_tipo_fecha ON MOVIMIENTOS(tipo, fecha)",
+            "CREATE INDEX IF NOT EXISTS idx_movimientos_usuario_fecha ON MOVIMIENTOS(usuario_id, fecha)",
+            // obtenerPorCategoria / obtenerPorEstado / obtenerPorProveedor filtran y ordenan por nombre
+            "CREATE INDEX IF NOT EXISTS idx_productos_categoria_nombre ON PRODUCTOS(categoria, nombre)",
+            "CREATE INDEX IF NOT EXISTS idx_productos_estado_nombre ON PRODUCTOS(estado, nombre)",
+            "CREATE INDEX IF NOT EXISTS idx_productos_proveedor_nombre ON PRODUCTOS(proveedor_id, nombre)",
+            // Índices de una columna que quedan cubiertos por los compuestos
+            "DROP INDEX IF EXISTS idx_movimientos_producto_id",
+            "DROP INDEX IF EXISTS idx_movimientos_tipo",
+            "DROP INDEX IF EXISTS idx_productos_categoria",
+            "DROP INDEX IF EXISTS idx_productos_estado",
+            "ANALYZE"
+        ),
+        new Migracion(3, "Resumen diario de movimientos",
+            // Una fila por día, tipo y producto; el día se toma en hora local
+            """
+            CREATE TABLE IF NOT EXISTS MOVIMIENTOS_DIARIOS (
+                dia DATE NOT NULL,
+                tipo VARCHAR(10) NOT NULL,
+                producto_id VARCHAR(20) NOT NULL,
+                cantidad_total INTEGER NOT NULL,
+                num_movimientos INTEGER NOT NULL,
+                PRIMARY KEY (dia, tipo, producto_id)
+            ) WITHOUT ROWID
+            """,
+            // Los triggers mantienen el resumen dentro de la misma transacción que el movimiento
+            """
+            CREATE TRIGGER IF NOT EXISTS trg_movimientos_diarios_insert AFTER INSERT ON MOVIMIENTOS
+            BEGIN
+                INSERT INTO MOVIMIENTOS_DIARIOS (dia, tipo, producto_id, cantidad_total, num_movimientos)
+                VALUES (date(NEW.fecha / 1000, 'unixepoch', 'localtime'), NEW.tipo, NEW.producto_id, NEW.cantidad, 1)
+                ON CONFLICT (dia, tipo, producto_id) DO UPDATE SET
+                    cantidad_total = cantidad_total + excluded.cantidad_total,
+                    num_movimientos = num_movimientos + 1;
+            END
+            """,
+            """
+            CREATE TRIGGER IF NOT EXISTS trg_movimientos_diarios_delete AFTER DELETE ON MOVIMIENTOS
+            BEGIN
+                UPDATE MOVIMIENTOS_DIARIOS
+                SET cantidad_total = cantidad_total - OLD.cantidad,
+                    num_movimientos = num_movimientos - 1
+                WHERE dia = date(OLD.fecha / 1000, 'unixepoch', 'localtime')
+                  AND tipo = OLD.tipo AND producto_id = OLD.producto_id;
+                DELETE FROM MOVIMIENTOS_DIARIOS
+                WHERE dia = date(OLD.fecha / 1000, 'unixepoch', 'localtime')
+                  AND tipo = OLD.tipo AND producto_id = OLD.producto_id
+                  AND num_movimientos <= 0;
+            END
+            """,
+            // Carga inicial con los movimientos existentes
+            """
+            INSERT OR REPLACE INTO MOVIMIENTOS_DIARIOS (dia, tipo, producto_id, cantidad_total, num_movimientos)
+            SELECT date(fecha / 1000, 'unixepoch', 'localtime'), tipo, producto_id, SUM(cantidad), COUNT(*)
+            FROM MOVIMIENTOS
+            GROUP BY 1, 2, 3
+            """
+        ),
+        new Migracion(4, "Índice de texto completo de productos",
+            // Tabla FTS5 de contenido externo: el texto se lee de PRODUCTOS por rowid.
+            // remove_diacritics hace que "tuberia" encuentre "tubería"; prefix acelera las búsquedas cortas
+            """
+            CREATE VIRTUAL TABLE IF NOT EXISTS PRODUCTOS_FTS USING fts5(
+                id, nombre, ubicacion,
+                content = 'PRODUCTOS', content_rowid = 'rowid',
+                tokenize = 'unicode61 remove_diacritics 2',
+                prefix = '2 3'
+            )
+            """,
+            """
+            CREATE TRIGGER IF NOT EXISTS trg_productos_fts_insert AFTER INSERT ON PRODUCTOS
+            BEGIN
+                INSERT INTO PRODUCTOS_FTS (rowid, id, nombre, ubicacion)
+                VALUES (NEW.rowid, NEW.id, NEW.nombre, NEW.ubicacion);
+            END
+            """,
+            """
+            CREATE TRIGGER IF NOT EXISTS trg_productos_fts_delete AFTER DELETE ON PRODUCTOS
+            BEGIN
+                INSERT INTO PRODUCTOS_FTS (PRODUCTOS_FTS, rowid, id, nombre, ubicacion)
+                VALUES ('delete', OLD.rowid, OLD.id, OLD.nombre, OLD.ubicacion);
+            END
+            """,
+            // Solo los cambios de texto tocan el índice; las actualizaciones de stock no lo disparan
+            """
+            CREATE TRIGGER IF NOT EXISTS trg_productos_fts_update AFTER UPDATE OF id, nombre, ubicacion ON PRODUCTOS
+            BEGIN
+                INSERT INTO PRODUCTOS_FTS (PRODUCTOS_FTS, rowid, id, nombre, ubicacion)
+                VALUES ('delete', OLD.rowid, OLD.id, OLD.nombre, OLD.ubicacion);
+                INSERT INTO PRODUCTOS_FTS (rowid, id, nombre, ubicacion)
+                VALUES (NEW.rowid, NEW.id, NEW.nombre, NEW.ubicacion);
+            END
+            """,
+            "INSERT INTO PRODUCTOS_FTS (PRODUCTOS_FTS) VALUES ('rebuild')"
+        ),
+        new Migracion(5, "Registro de cambios de productos",
+            // Última versión en que cambió cada producto; MAX(version) es la versión del catálogo
+            // y permite saber qué filas releer desde una instantánea guardada
+            """
+            CREATE TABLE IF NOT EXISTS PRODUCTOS_CAMBIOS (
+                producto_id VARCHAR(20) PRIMARY KEY,
+                version INTEGER NOT NULL
+            ) WITHOUT ROWID
+            """,
+            "CREATE INDEX IF NOT EXISTS idx_productos_cambios_version ON PRODUCTOS_CAMBIOS(version)",
+            """
+            CREATE TRIGGER IF NOT EXISTS trg_productos_cambios_insert AFTER INSERT ON PRODUCTOS
+            BEGIN
+                INSERT OR REPLACE INTO PRODUCTOS_CAMBIOS (producto_id, version)
+                VALUES (NEW.id, (SELECT COALESCE(MAX(version), 0) + 1 FROM PRODUCTOS_CAMBIOS));
+            END
+            """,
+            // Si cambia el id, el id anterior cuenta como baja
+            """
+            CREATE TRIGGER IF NOT EXISTS trg_productos_cambios_update AFTER UPDATE ON PRODUCTOS
+            BEGIN
+                INSERT OR REPLACE INTO PRODUCTOS_CAMBIOS (producto_id, version)
+                SELECT OLD.id, (SELECT COALESCE(MAX(version), 0) + 1 FROM PRODUCTOS_CAMBIOS)
+                WHERE OLD.id <> NEW.id;
+                INSERT OR REPLACE INTO PRODUCTOS_CAMBIOS (producto_id, version)
+                VALUES (NEW.id, (SELECT COALESCE(MAX(version), 0) + 1 FROM PRODUCTOS_CAMBIOS));
+            END
+            """,
+            """
+            CREATE TRIGGER IF NOT EXISTS trg_productos_cambios_delete AFTER DELETE ON PRODUCTOS
+            BEGIN
+                INSERT OR REPLACE INTO PRODUCTOS_CAMBIOS (producto_id, version)
+                VALUES (OLD.id, (SELECT COALESCE(MAX(version), 0) + 1 FROM PRODUCTOS_CAMBIOS));
+            END
+            """
+        ),
+        new Migracion(6, "Alertas",
+            // Una fila por tipo y entidad: el id es "TIPO:entidad", así que no puede haber duplicados
+            """
+            CREATE TABLE IF NOT EXISTS ALERTAS (
+                id VARCHAR(60) PRIMARY KEY,
+                tipo VARCHAR(30) NOT NULL,
+                entidad_id VARCHAR(20) NOT NULL,
+                mensaje TEXT NOT NULL,
+                fecha_creacion INTEGER NOT NULL,
+                fecha_actualizacion INTEGER NOT NULL,
+                fecha_resolucion INTEGER
+            )
+            """,
+            "CREATE INDEX IF NOT EXISTS idx_alertas_activas ON ALERTAS(tipo) WHERE fecha_resolucion IS NULL",
+            "CREATE INDEX IF NOT EXISTS idx_alertas_resolucion ON ALERTAS(fecha_resolucion)"
+        ),
+        new Migracion(7, "Consumo de productos",
+            // Media móvil de las salidas por día (días epoch locales); la carga inicial desde
+            // MOVIMIENTOS_DIARIOS la hace la aplicación, que es la que conoce el suavizado
+            """
+            CREATE TABLE IF NOT EXISTS CONSUMO_PRODUCTOS (
+                producto_id VARCHAR(20) PRIMARY KEY,
+                alfa REAL NOT NULL,
+                tasa REAL NOT NULL,
+                consumo_dia INTEGER NOT NULL,
+                dia INTEGER NOT NULL,
+                primer_dia INTEGER NOT NULL,
+                version INTEGER NOT NULL
+            ) WITHOUT ROWID
+            """,
+            """
+            CREATE TRIGGER IF NOT EXISTS trg_consumo_productos_delete AFTER DELETE ON PRODUCTOS
+            BEGIN
+                DELETE FROM CONSUMO_PRODUCTOS WHERE producto_id = OLD.id;
+            END
+            """,
+            // Factor con que se calculó CONSUMO_PRODUCTOS; sin fila, las tasas nunca se calcularon
+            """
+            CREATE TABLE IF NOT EXISTS CONSUMO_SUAVIZADO (
+                id INTEGER PRIMARY KEY CHECK (id = 1),
+                alfa REAL NOT NULL
+            )
+            """
+        ),
+        new Migracion(8, "Índice de texto completo con contenido propio",
+            // El índice de la migración 4 se unía a PRODUCTOS por su rowid implícito, que un VACUUM
+            // puede renumerar; este guarda su propio texto y se une por id
+            "DROP TRIGGER IF EXISTS trg_productos_fts_insert",
+            "DROP TRIGGER IF EXISTS trg_productos_fts_delete",
+            "DROP TRIGGER IF EXISTS trg_productos_fts_update",
+            "DROP TABLE IF EXISTS PRODUCTOS_FTS",
+            // codigo repite el id para buscarlo por prefijo; la columna id solo sirve para unir
+            """
+            CREATE VIRTUAL TABLE IF NOT EXISTS PRODUCTOS_FTS USING fts5(
+                id UNINDEXED, codigo, nombre, ubicacion,
+                tokenize = 'unicode61 remove_diacritics 2',
+                prefix = '2 3'
+            )
+            """,
+            """
+            CREATE TRIGGER IF NOT EXISTS trg_productos_fts_insert AFTER INSERT ON PRODUCTOS
+            BEGIN
+                INSERT INTO PRODUCTOS_FTS (id, codigo, nombre, ubicacion)
+                VALUES (NEW.id, NEW.id, NEW.nombre, NEW.ubicacion);
+            END
+            """,
+            """
+            CREATE TRIGGER IF NOT EXISTS trg_productos_fts_delete AFTER DELETE ON PRODUCTOS
+            BEGIN
+                DELETE FROM PRODUCTOS_FTS WHERE id = OLD.id;
+            END
+            """,
+            // Buscar por id recorre el índice, así que solo se hace si cambió el texto
+            """
+            CREATE TRIGGER IF NOT EXISTS trg_productos_fts_update AFTER UPDATE OF id, nombre, ubicacion ON PRODUCTOS
+            WHEN OLD.id IS NOT NEW.id OR OLD.nombre IS NOT NEW.nombre OR OLD.ubicacion IS NOT NEW.ubicacion
+            BEGIN
+                UPDATE PRODUCTOS_FTS
+                SET id = NEW.id, codigo = NEW.id, nombre = NEW.nombre, ubicacion = NEW.ubicacion
+                WHERE id = OLD.id;
+            END
+            """,
+            """
+            INSERT INTO PRODUCTOS_FTS (id, codigo, nombre, ubicacion)
+            SELECT id, id, nombre, ubicacion FROM PRODUCTOS
+            """
+        )
+    );
+
+    private final DatabaseConnection dbConnection;
+
+    public MigradorEsquema(DatabaseConnection dbConnection) {
+        this.dbConnection = dbConnection;
+    }
+
+    /**
+     * Aplica las migraciones con versión mayor a la registrada.
+     * @return cantidad de migraciones aplicadas
+     */
+    public int migrar() throws SQLException {
+        try (Connection conn = dbConnection.getConnection()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(CREAR_TABLA_VERSION);
+            }
+
+            int versionActual = obtenerVersionActual(conn);
+            List<Migracion> pendientes = new ArrayList<>();
+            for (Migracion migracion : MIGRACIONES) {
+                if (migracion.version > versionActual) {
+                    pendientes.add(migracion);
+                }
+            }
+
+            for (Migracion migracion : pendientes) {
+                aplicar(conn, migracion);
+            }
+
+            if (pendientes.isEmpty()) {
+                logger.info("Esquema de base de datos actualizado (versión " + versionActual + ")");
+            }
+            return pendientes.size();
+        }
+    }
+
+    public int obtenerVersionActual() throws SQLException {
+        try (Connection conn = dbConnection.getConnection()) {
+            return obtenerVersionActual(conn);
+        }
+    }
+
+    private int obtenerVersionActual(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) AS version FROM SCHEMA_VERSION")) {
+            return rs.next() ? rs.getInt("version") : 0;
+        }
+    }
+
+    private void aplicar(Connection conn, Migracion migracion) throws SQLException {
+        long inicio = System.currentTimeMillis();
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement();
+             PreparedStatement pstmt = conn.prepareStatement(
+                 "INSERT INTO SCHEMA_VERSION (version, descripcion) VALUES (?, ?)")) {
+
+            for (String sentencia : migracion.sentencias) {
+                stmt.execute(sentencia);
+            }
+
+            pstmt.setInt(1, migracion.version);
+            pstmt.setString(2, migracion.descripcion);
+            pstmt.executeUpdate();
+
+            conn.commit();
+            logger.info(String.format("Migración %d aplicada: %s (%d ms)", migracion.version,
+                                      migracion.descripcion, System.currentTimeMillis() - inicio));
+        } catch (SQLException e) {
+            conn.rollback();
+            logger.log(Level.SEVERE, "Error al aplicar la migración " + migracion.version, e);
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private static class Migracion {
+        private final int version;
+        private final String descripcion;
+        private final String[] sentencias;
+
+        Migracion(int version, String descripcion, String... sentencias) {
+            this.version = version;
+            this.descripcion = descripcion;
+            this.sentencias = sentencias;
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.femaco.femacoproject.dao;
 
 import com.femaco.femacoproject.model.MovimientoInventario;
+import com.femaco.femacoproject.model.Producto;
 import com.femaco.femacoproject.model.enums.TipoMovimiento;
+import com.femaco.femacoproject.util.Pagina;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface MovimientoDAO {
     boolean registrar(MovimientoInventario movimiento);
@@ -15,5 +19,23 @@ public interface MovimientoDAO {
     List<MovimientoInventario> obtenerTodos();
     List<MovimientoInventario> obtenerPorUsuario(String usuarioId);
     int obtenerTotalMovimientosPorProducto(String productoId, TipoMovimiento tipo);
+    // Total de unidades por producto para un tipo de movimiento, en una sola consulta
+    Map<String, Integer> obtenerTotalesPorProducto(TipoMovimiento tipo);
     List<MovimientoInventario> obtenerUltimosMovimientos(int limite);
+    
+    // Agregados por producto resueltos en SQL; el mapa conserva el orden del ranking
+    Map<Producto, Integer> obtenerProductosMasMovidos(TipoMovimiento tipo, Date fechaInicio, Date fechaFin, int limite);
+    Map<Producto, Integer> obtenerProductosMenosMovidos(Date fechaInicio, Date fechaFin, int limite);
+    
+    // Paginación por cursor (fecha, id) descendente; token null para la primera página
+    Pagina<MovimientoInventario> obtenerPagina(String token, int tamaño);
+    Pagina<MovimientoInventario> obtenerPaginaPorTipo(TipoMovimiento tipo, String token, int tamaño);
+    Pagina<MovimientoInventario> obtenerPaginaPorFecha(Date fechaInicio, Date fechaFin, String token, int tamaño);
+    
+    // Recorridos sin materializar la lista: cada fila se entrega al consumidor al leerla del ResultSet
+    boolean recorrerPorFecha(Date fechaInicio, Date fechaFin, Consumer<MovimientoInventario> consumidor);
+    boolean recorrerPorTipo(TipoMovimiento tipo, Date fechaInicio, Date fechaFin, 
+                            Consumer<MovimientoInventario> consumidor);
+    boolean recorrerPorProducto(String productoId, Date fechaInicio, Date fechaFin, 
+                                Consumer<MovimientoInventario> consumidor);
 }
@@ -1,10 +1,13 @@
 package com.femaco.femacoproject.dao;
 
 import com.femaco.femacoproject.model.MovimientoInventario;
+import com.femaco.femacoproject.model.Producto;
 import com.femaco.femacoproject.model.enums.TipoMovimiento;
+import com.femaco.femacoproject.util.Pagina;
 import java.sql.*;
 import java.util.*;
 import java.util.Date;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -193,6 +196,28 @@ public class MovimientoDAOImpl implements MovimientoDAO {
         return 0;
     }
 
+    @Override
+    public Map<String, Integer> obtenerTotalesPorProducto(TipoMovimiento tipo) {
+        Map<String, Integer> totales = new HashMap<>();
+        String sql = "SELECT producto_id, SUM(cantidad) AS total FROM MOVIMIENTOS WHERE tipo = ? GROUP BY producto_id";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, tipo.name());
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                totales.put(rs.getString("producto_id"), rs.getInt("total"));
+            }
+            
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error al obtener totales por producto: " + tipo, e);
+        }
+        
+        return totales;
+    }
+
     @Override
     public List<MovimientoInventario> obtenerUltimosMovimientos(int limite) {
         List<MovimientoInventario> movimientos = new ArrayList<>();
@@ -215,6 +240,203 @@ public class MovimientoDAOImpl implements MovimientoDAO {
         return movimientos;
     }
 
+    @Override
+    public Map<Producto, Integer> obtenerProductosMasMovidos(TipoMovimiento tipo, Date fechaInicio, 
+                                                            Date fechaFin, int limite) {
+        // Se agrupa primero y luego se une con PRODUCTOS, así solo se leen los productos del ranking
+        String sql = "SELECT p.*, t.total FROM (" +
+                    "SELECT producto_id, SUM(cantidad) AS total FROM MOVIMIENTOS " +
+                    "WHERE tipo = ? AND fecha BETWEEN ? AND ? GROUP BY producto_id" +
+                    ") t JOIN PRODUCTOS p ON p.id = t.producto_id " +
+                    "ORDER BY t.total DESC, p.nombre LIMIT ?";
+        
+        return consultarTotalesPorProducto(sql, List.of(tipo.name(), new Timestamp(fechaInicio.getTime()),
+                                                        new Timestamp(fechaFin.getTime()), limite));
+    }
+
+    @Override
+    public Map<Producto, Integer> obtenerProductosMenosMovidos(Date fechaInicio, Date fechaFin, int limite) {
+        // LEFT JOIN para incluir los productos sin movimientos en el período (total 0)
+        String sql = "SELECT p.*, COALESCE(t.total, 0) AS total FROM PRODUCTOS p LEFT JOIN (" +
+                    "SELECT producto_id, SUM(cantidad) AS total FROM MOVIMIENTOS " +
+                    "WHERE fecha BETWEEN ? AND ? GROUP BY producto_id" +
+                    ") t ON t.producto_id = p.id " +
+                    "ORDER BY total ASC, p.nombre LIMIT ?";
+        
+        return consultarTotalesPorProducto(sql, List.of(new Timestamp(fechaInicio.getTime()),
+                                                        new Timestamp(fechaFin.getTime()), limite));
+    }
+
+    private Map<Producto, Integer> consultarTotalesPorProducto(String sql, List<Object> parametros) {
+        Map<Producto, Integer> totales = new LinkedHashMap<>();
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            for (int i = 0; i < parametros.size(); i++) {
+                asignarParametro(pstmt, i + 1, parametros.get(i));
+            }
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                totales.put(ProductoDAOImpl.mapearProducto(rs), rs.getInt("total"));
+            }
+            
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error al obtener totales de movimientos por producto", e);
+        }
+        
+        return totales;
+    }
+
+    @Override
+    public Pagina<MovimientoInventario> obtenerPagina(String token, int tamaño) {
+        return consultarPagina(null, List.of(), token, tamaño);
+    }
+
+    @Override
+    public Pagina<MovimientoInventario> obtenerPaginaPorTipo(TipoMovimiento tipo, String token, int tamaño) {
+        return consultarPagina("tipo = ?", List.of(tipo.name()), token, tamaño);
+    }
+
+    @Override
+    public Pagina<MovimientoInventario> obtenerPaginaPorFecha(Date fechaInicio, Date fechaFin, String token, int tamaño) {
+        return consultarPagina("fecha BETWEEN ? AND ?",
+                               List.of(new Timestamp(fechaInicio.getTime()), new Timestamp(fechaFin.getTime())),
+                               token, tamaño);
+    }
+
+    @Override
+    public boolean recorrerPorFecha(Date fechaInicio, Date fechaFin, Consumer<MovimientoInventario> consumidor) {
+        String sql = "SELECT * FROM MOVIMIENTOS WHERE fecha BETWEEN ? AND ? ORDER BY fecha DESC";
+        return recorrer(sql, List.of(new Timestamp(fechaInicio.getTime()), new Timestamp(fechaFin.getTime())),
+                        consumidor);
+    }
+
+    @Override
+    public boolean recorrerPorTipo(TipoMovimiento tipo, Date fechaInicio, Date fechaFin, 
+                                   Consumer<MovimientoInventario> consumidor) {
+        String sql = "SELECT * FROM MOVIMIENTOS WHERE tipo = ? AND fecha BETWEEN ? AND ? ORDER BY fecha DESC";
+        return recorrer(sql, List.of(tipo.name(), new Timestamp(fechaInicio.getTime()), 
+                                     new Timestamp(fechaFin.getTime())), 
+                        consumidor);
+    }
+
+    @Override
+    public boolean recorrerPorProducto(String productoId, Date fechaInicio, Date fechaFin, 
+                                       Consumer<MovimientoInventario> consumidor) {
+        String sql = "SELECT * FROM MOVIMIENTOS WHERE producto_id = ? AND fecha BETWEEN ? AND ? ORDER BY fecha DESC";
+        return recorrer(sql, List.of(productoId, new Timestamp(fechaInicio.getTime()), 
+                                     new Timestamp(fechaFin.getTime())), 
+                        consumidor);
+    }
+
+    // Entrega cada fila al consumidor mientras se lee, sin acumularlas en memoria
+    private boolean recorrer(String sql, List<Object> parametros, Consumer<MovimientoInventario> consumidor) {
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setFetchSize(dbConnection.getFetchSize());
+            for (int i = 0; i < parametros.size(); i++) {
+                asignarParametro(pstmt, i + 1, parametros.get(i));
+            }
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                consumidor.accept(mapearMovimiento(rs));
+            }
+            return true;
+            
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error al recorrer movimientos", e);
+            return false;
+        }
+    }
+
+    // Paginación por clave (fecha, id): cada página continúa donde terminó la anterior
+    // usando el índice, sin el costo creciente de OFFSET
+    private Pagina<MovimientoInventario> consultarPagina(String filtro, List<Object> parametros, 
+                                                         String token, int tamaño) {
+        if (tamaño <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser mayor a cero: " + tamaño);
+        }
+        
+        List<String> condiciones = new ArrayList<>();
+        List<Object> valores = new ArrayList<>(parametros);
+        if (filtro != null) {
+            condiciones.add(filtro);
+        }
+        if (token != null) {
+            long[] cursor = decodificarToken(token);
+            condiciones.add("(fecha, id) < (?, ?)");
+            valores.add(new Timestamp(cursor[0]));
+            valores.add(cursor[1]);
+        }
+        
+        StringBuilder sql = new StringBuilder("SELECT * FROM MOVIMIENTOS");
+        if (!condiciones.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", condiciones));
+        }
+        sql.append(" ORDER BY fecha DESC, id DESC LIMIT ?");
+        // Se pide un registro extra para saber si hay otra página
+        valores.add(tamaño + 1);
+        
+        List<MovimientoInventario> movimientos = new ArrayList<>(tamaño);
+        String siguienteToken = null;
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            
+            for (int i = 0; i < valores.size(); i++) {
+                asignarParametro(pstmt, i + 1, valores.get(i));
+            }
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                if (movimientos.size() == tamaño) {
+                    MovimientoInventario ultimo = movimientos.get(tamaño - 1);
+                    siguienteToken = codificarToken(ultimo);
+                    break;
+                }
+                movimientos.add(mapearMovimiento(rs));
+            }
+            
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error al obtener página de movimientos", e);
+            return Pagina.vacia();
+        }
+        
+        return new Pagina<>(movimientos, siguienteToken);
+    }
+
+    private void asignarParametro(PreparedStatement pstmt, int indice, Object valor) throws SQLException {
+        if (valor instanceof Timestamp) {
+            pstmt.setTimestamp(indice, (Timestamp) valor);
+        } else if (valor instanceof Long) {
+            pstmt.setLong(indice, (Long) valor);
+        } else if (valor instanceof Integer) {
+            pstmt.setInt(indice, (Integer) valor);
+        } else {
+            pstmt.setString(indice, String.valueOf(valor));
+        }
+    }
+
+    private String codificarToken(MovimientoInventario movimiento) {
+        return movimiento.getFecha().getTime() + "_" + movimiento.getId();
+    }
+
+    private long[] decodificarToken(String token) {
+        try {
+            int separador = token.indexOf('_');
+            return new long[] {
+                Long.parseLong(token.substring(0, separador)),
+                Long.parseLong(token.substring(separador + 1))
+            };
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Token de paginación inválido: " + token, e);
+        }
+    }
+
     private MovimientoInventario mapearMovimiento(ResultSet rs) throws SQLException {
         MovimientoInventario movimiento = new MovimientoInventario(
             rs.getString("producto_id"),
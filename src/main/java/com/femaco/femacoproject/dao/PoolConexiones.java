@@ -0,0 +1,384 @@
+package com.femaco.femacoproject.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pool de conexiones JDBC para SQLite.
+ * Las conexiones entregadas a los DAOs se devuelven al pool al cerrarlas,
+ * y un mismo hilo reutiliza su conexión mientras la tenga prestada.
+ * Cada conexión física mantiene su propia caché de sentencias preparadas.
+ */
+public class PoolConexiones {
+    private static final Logger logger = Logger.getLogger(PoolConexiones.class.getName());
+    private static final long INTERVALO_VALIDACION_MS = 30_000;
+    private static final int TIMEOUT_VALIDACION_SEGUNDOS = 2;
+    private static final int BUSY_TIMEOUT_MS = 5000;
+
+    private final String url;
+    private final int tamañoMaximo;
+    private final long tiempoEsperaMaximoMs;
+    private final int capacidadCacheSentencias;
+    private final LinkedBlockingDeque<ConexionFisica> inactivas;
+    private final Set<ConexionFisica> todas;
+    private final ThreadLocal<ConexionPrestada> prestamoActual;
+
+    // Métricas
+    private final AtomicInteger conexionesCreadas;
+    private final AtomicInteger conexionesActivas;
+    private final AtomicLong totalPrestamos;
+    private final AtomicLong totalEsperas;
+    private final AtomicLong esperasAgotadas;
+    private final AtomicLong tiempoEsperaTotalNanos;
+    private final AtomicLong tiempoEsperaMaximoNanos;
+
+    private volatile boolean cerrado;
+
+    public PoolConexiones(String url, int tamañoMaximo, long tiempoEsperaMaximoMs, int capacidadCacheSentencias) {
+        if (tamañoMaximo <= 0) {
+            throw new IllegalArgumentException("El tamaño del pool debe ser mayor a cero: " + tamañoMaximo);
+        }
+        this.url = url;
+        this.tamañoMaximo = tamañoMaximo;
+        this.tiempoEsperaMaximoMs = tiempoEsperaMaximoMs;
+        this.capacidadCacheSentencias = capacidadCacheSentencias;
+        this.inactivas = new LinkedBlockingDeque<>();
+        this.todas = ConcurrentHashMap.newKeySet();
+        this.prestamoActual = new ThreadLocal<>();
+        this.conexionesCreadas = new AtomicInteger();
+        this.conexionesActivas = new AtomicInteger();
+        this.totalPrestamos = new AtomicLong();
+        this.totalEsperas = new AtomicLong();
+        this.esperasAgotadas = new AtomicLong();
+        this.tiempoEsperaTotalNanos = new AtomicLong();
+        this.tiempoEsperaMaximoNanos = new AtomicLong();
+        this.cerrado = false;
+    }
+
+    /**
+     * Presta una conexión del pool. Si el hilo ya tiene una conexión prestada
+     * se devuelve la misma, y solo vuelve al pool cuando se cierran todos los préstamos.
+     */
+    public Connection obtenerConexion() throws SQLException {
+        if (cerrado) {
+            throw new SQLException("El pool de conexiones está cerrado");
+        }
+
+        ConexionPrestada actual = prestamoActual.get();
+        if (actual != null && !actual.devuelta) {
+            actual.retenciones++;
+            return actual.proxy;
+        }
+
+        ConexionFisica fisica = tomarConexion();
+        ConexionPrestada prestamo = new ConexionPrestada(fisica);
+        prestamoActual.set(prestamo);
+        conexionesActivas.incrementAndGet();
+        totalPrestamos.incrementAndGet();
+        return prestamo.proxy;
+    }
+
+    private ConexionFisica tomarConexion() throws SQLException {
+        long inicio = System.nanoTime();
+        long limite = inicio + TimeUnit.MILLISECONDS.toNanos(tiempoEsperaMaximoMs);
+        boolean huboEspera = false;
+
+        while (true) {
+            // LIFO: la conexión usada más recientemente tiene su caché más caliente
+            ConexionFisica fisica = inactivas.pollFirst();
+
+            if (fisica == null) {
+                if (reservarCreacion()) {
+                    try {
+                        fisica = crearConexion();
+                    } catch (SQLException e) {
+                        conexionesCreadas.decrementAndGet();
+                        throw e;
+                    }
+                } else {
+                    huboEspera = true;
+                    long restante = limite - System.nanoTime();
+                    try {
+                        fisica = restante > 0 ? inactivas.pollFirst(restante, TimeUnit.NANOSECONDS) : null;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrumpido mientras se esperaba una conexión", e);
+                    }
+                    if (fisica == null) {
+                        esperasAgotadas.incrementAndGet();
+                        throw new SQLException("Tiempo de espera agotado (" + tiempoEsperaMaximoMs +
+                                             " ms) para obtener una conexión. " + obtenerResumenMetricas());
+                    }
+                }
+            }
+
+            if (esValida(fisica)) {
+                if (huboEspera) {
+                    registrarEspera(System.nanoTime() - inicio);
+                }
+                return fisica;
+            }
+            descartar(fisica);
+        }
+    }
+
+    private boolean reservarCreacion() {
+        while (true) {
+            int creadas = conexionesCreadas.get();
+            if (creadas >= tamañoMaximo) {
+                return false;
+            }
+            if (conexionesCreadas.compareAndSet(creadas, creadas + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private ConexionFisica crearConexion() throws SQLException {
+        Connection conexion = DriverManager.getConnection(url);
+        try (Statement stmt = conexion.createStatement()) {
+            // Los pragmas se aplican una sola vez por conexión física
+            stmt.execute("PRAGMA foreign_keys = ON");
+            stmt.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MS);
+            stmt.execute("PRAGMA journal_mode = WAL");
+        } catch (SQLException e) {
+            conexion.close();
+            throw e;
+        }
+        logger.fine("Nueva conexión física creada (" + conexionesCreadas.get() + "/" + tamañoMaximo + ")");
+        ConexionFisica fisica = new ConexionFisica(conexion, new CacheSentencias(conexion, capacidadCacheSentencias));
+        todas.add(fisica);
+        return fisica;
+    }
+
+    private boolean esValida(ConexionFisica fisica) {
+        try {
+            if (fisica.conexion.isClosed()) {
+                return false;
+            }
+            // Solo se valida contra el motor si la conexión estuvo inactiva un tiempo
+            if (System.currentTimeMillis() - fisica.ultimoUso > INTERVALO_VALIDACION_MS) {
+                return fisica.conexion.isValid(TIMEOUT_VALIDACION_SEGUNDOS);
+            }
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void devolver(ConexionFisica fisica) {
+        fisica.cache.liberarTodas();
+        try {
+            // Deshacer cualquier transacción que haya quedado abierta
+            if (!fisica.conexion.getAutoCommit()) {
+                fisica.conexion.rollback();
+                fisica.conexion.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Conexión descartada al devolverla al pool", e);
+            descartar(fisica);
+            return;
+        }
+
+        fisica.ultimoUso = System.currentTimeMillis();
+        if (cerrado) {
+            descartar(fisica);
+        } else {
+            inactivas.offerFirst(fisica);
+        }
+    }
+
+    private void descartar(ConexionFisica fisica) {
+        conexionesCreadas.decrementAndGet();
+        todas.remove(fisica);
+        try {
+            fisica.cache.cerrar();
+            fisica.conexion.close();
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Error al cerrar conexión física", e);
+        }
+    }
+
+    private void registrarEspera(long nanos) {
+        totalEsperas.incrementAndGet();
+        tiempoEsperaTotalNanos.addAndGet(nanos);
+        tiempoEsperaMaximoNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Cierra las conexiones inactivas. Las que estén prestadas se cierran al devolverse.
+     */
+    public void cerrar() {
+        cerrado = true;
+        ConexionFisica fisica;
+        while ((fisica = inactivas.pollFirst()) != null) {
+            descartar(fisica);
+        }
+        logger.info("Pool de conexiones cerrado. " + obtenerResumenMetricas());
+    }
+
+    public boolean isCerrado() {
+        return cerrado;
+    }
+
+    // ===== MÉTRICAS =====
+
+    public int getTamañoMaximo() {
+        return tamañoMaximo;
+    }
+
+    public int getConexionesCreadas() {
+        return conexionesCreadas.get();
+    }
+
+    public int getConexionesActivas() {
+        return conexionesActivas.get();
+    }
+
+    public int getConexionesInactivas() {
+        return inactivas.size();
+    }
+
+    public long getTotalPrestamos() {
+        return totalPrestamos.get();
+    }
+
+    public long getTotalEsperas() {
+        return totalEsperas.get();
+    }
+
+    public long getEsperasAgotadas() {
+        return esperasAgotadas.get();
+    }
+
+    public double getTiempoEsperaPromedioMs() {
+        long esperas = totalEsperas.get();
+        return esperas == 0 ? 0 : tiempoEsperaTotalNanos.get() / (esperas * 1_000_000.0);
+    }
+
+    public double getTiempoEsperaMaximoMs() {
+        return tiempoEsperaMaximoNanos.get() / 1_000_000.0;
+    }
+
+    public long getAciertosCacheSentencias() {
+        return todas.stream().mapToLong(f -> f.cache.getAciertos()).sum();
+    }
+
+    public long getFallosCacheSentencias() {
+        return todas.stream().mapToLong(f -> f.cache.getFallos()).sum();
+    }
+
+    public long getExpulsionesCacheSentencias() {
+        return todas.stream().mapToLong(f -> f.cache.getExpulsiones()).sum();
+    }
+
+    public int getSentenciasEnCache() {
+        return todas.stream().mapToInt(f -> f.cache.tamaño()).sum();
+    }
+
+    public double getTasaAciertosCacheSentencias() {
+        long aciertos = getAciertosCacheSentencias();
+        long total = aciertos + getFallosCacheSentencias();
+        return total == 0 ? 0 : (double) aciertos / total;
+    }
+
+    public String obtenerResumenMetricas() {
+        return String.format("Pool[creadas=%d/%d, activas=%d, inactivas=%d, préstamos=%d, " +
+                           "esperas=%d, agotadas=%d, espera promedio=%.2f ms, espera máxima=%.2f ms, " +
+                           "sentencias en caché=%d, aciertos=%d, fallos=%d, expulsiones=%d]",
+                           getConexionesCreadas(), tamañoMaximo, getConexionesActivas(),
+                           getConexionesInactivas(), getTotalPrestamos(), getTotalEsperas(),
+                           getEsperasAgotadas(), getTiempoEsperaPromedioMs(), getTiempoEsperaMaximoMs(),
+                           getSentenciasEnCache(), getAciertosCacheSentencias(),
+                           getFallosCacheSentencias(), getExpulsionesCacheSentencias());
+    }
+
+    // Conexión física administrada por el pool
+    private static class ConexionFisica {
+        private final Connection conexion;
+        private final CacheSentencias cache;
+        private volatile long ultimoUso;
+
+        ConexionFisica(Connection conexion, CacheSentencias cache) {
+            this.conexion = conexion;
+            this.cache = cache;
+            this.ultimoUso = System.currentTimeMillis();
+        }
+    }
+
+    // Préstamo de una conexión: el close() del proxy la devuelve al pool
+    private class ConexionPrestada implements InvocationHandler {
+        private final ConexionFisica fisica;
+        private final Connection proxy;
+        private int retenciones;
+        private boolean devuelta;
+
+        ConexionPrestada(ConexionFisica fisica) {
+            this.fisica = fisica;
+            this.retenciones = 1;
+            this.devuelta = false;
+            this.proxy = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    liberar();
+                    return null;
+                case "isClosed":
+                    return devuelta;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ConexionPrestada[" + fisica.conexion + "]";
+                default:
+                    break;
+            }
+
+            if (devuelta) {
+                throw new SQLException("La conexión ya fue devuelta al pool");
+            }
+
+            // Solo la forma prepareStatement(String) pasa por la caché
+            if ("prepareStatement".equals(method.getName()) && args.length == 1) {
+                return fisica.cache.preparar((String) args[0]);
+            }
+
+            try {
+                return method.invoke(fisica.conexion, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private void liberar() {
+            if (devuelta || --retenciones > 0) {
+                return;
+            }
+            devuelta = true;
+            if (prestamoActual.get() == this) {
+                prestamoActual.remove();
+            }
+            conexionesActivas.decrementAndGet();
+            devolver(fisica);
+        }
+    }
+}
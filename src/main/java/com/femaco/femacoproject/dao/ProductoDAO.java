@@ -5,6 +5,7 @@ import com.femaco.femacoproject.model.enums.CategoriaProducto;
 import com.femaco.femacoproject.model.enums.EstadoProducto;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface ProductoDAO {
     // Operaciones CRUD básicas
@@ -13,6 +14,8 @@ public interface ProductoDAO {
     boolean eliminar(String id);
     Optional<Producto> obtenerPorId(String id);
     List<Producto> obtenerTodos();
+    // Entrega cada producto al consumidor al leerlo, sin materializar la lista
+    boolean recorrerTodos(Consumer<Producto> consumidor);
     
     // Operaciones específicas de negocio
     List<Producto> obtenerPorCategoria(CategoriaProducto categoria);
@@ -20,7 +23,19 @@ public interface ProductoDAO {
     List<Producto> obtenerStockBajo();
     List<Producto> buscarPorNombre(String nombre);
     boolean actualizarStock(String productoId, int nuevaCantidad);
+    // Suma (o resta) la cantidad al stock en SQL sin dejarlo negativo; devuelve el nuevo stock o -1
+    int ajustarStock(String productoId, int cantidad);
     boolean existeProducto(String id);
     List<Producto> obtenerPorProveedor(String proveedorId);
     int contarTotalProductos();
+    int contarPorCategoria(CategoriaProducto categoria);
+    
+    // Productos vigentes (ni inactivos ni descontinuados) ordenados por stock/mínimo ascendente
+    List<Producto> obtenerMasCriticos(int limite);
+    List<Producto> obtenerPorRatioStock(double ratioMaximo);
+    
+    // Versión del catálogo: crece con cada alta, modificación o baja de un producto; -1 si no se pudo leer
+    long obtenerVersionCatalogo();
+    // Ids de los productos agregados, modificados o eliminados después de la versión indicada
+    List<String> obtenerIdsModificadosDesde(long version);
 }
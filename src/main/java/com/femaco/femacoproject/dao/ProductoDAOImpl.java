@@ -6,11 +6,18 @@ import com.femaco.femacoproject.model.enums.EstadoProducto;
 import java.sql.*;
 import java.util.*;
 import java.util.Date;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class ProductoDAOImpl implements ProductoDAO {
     private static final Logger logger = Logger.getLogger(ProductoDAOImpl.class.getName());
+    // Misma definición que Producto.calcularRatioStock; 9e999 es +infinito en SQLite
+    private static final String RATIO_STOCK =
+        "CASE WHEN stock_minimo > 0 THEN CAST(stock_actual AS REAL) / stock_minimo " +
+        "WHEN stock_actual <= 0 THEN 0.0 ELSE 9e999 END";
+    private static final String PRODUCTOS_VIGENTES =
+        "SELECT * FROM PRODUCTOS WHERE estado NOT IN ('INACTIVO', 'DESCONTINUADO')";
     private final DatabaseConnection dbConnection;
 
     public ProductoDAOImpl() {
@@ -134,6 +141,27 @@ public class ProductoDAOImpl implements ProductoDAO {
         return productos;
     }
 
+    @Override
+    public boolean recorrerTodos(Consumer<Producto> consumidor) {
+        String sql = "SELECT * FROM PRODUCTOS ORDER BY nombre";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setFetchSize(dbConnection.getFetchSize());
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                consumidor.accept(mapearProducto(rs));
+            }
+            return true;
+            
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error al recorrer productos", e);
+            return false;
+        }
+    }
+
     @Override
     public List<Producto> obtenerPorCategoria(CategoriaProducto categoria) {
         List<Producto> productos = new ArrayList<>();
@@ -178,13 +206,22 @@ public class ProductoDAOImpl implements ProductoDAO {
 
     @Override
     public List<Producto> buscarPorNombre(String nombre) {
+        String consulta = construirConsultaTextoCompleto(nombre);
+        if (consulta.isEmpty()) {
+            // Sin términos de búsqueda se devuelve todo, como hacía LIKE '%%'
+            return obtenerTodos();
+        }
+        
         List<Producto> productos = new ArrayList<>();
-        String sql = "SELECT * FROM PRODUCTOS WHERE nombre LIKE ? ORDER BY nombre";
+        // Coincidencias en id y nombre pesan más que en ubicación
+        String sql = "SELECT p.* FROM PRODUCTOS_FTS f JOIN PRODUCTOS p ON p.id = f.id " +
+                    "WHERE PRODUCTOS_FTS MATCH ? " +
+                    "ORDER BY bm25(PRODUCTOS_FTS, 0.0, 5.0, 10.0, 1.0), p.nombre";
         
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
-            pstmt.setString(1, "%" + nombre + "%");
+            pstmt.setString(1, consulta);
             ResultSet rs = pstmt.executeQuery();
             
             while (rs.next()) {
@@ -198,6 +235,24 @@ public class ProductoDAOImpl implements ProductoDAO {
         return productos;
     }
 
+    // Convierte el texto del usuario en una consulta FTS5: cada palabra como prefijo, todas requeridas
+    private static String construirConsultaTextoCompleto(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        
+        StringBuilder consulta = new StringBuilder();
+        for (String termino : texto.split("[^\\p{L}\\p{N}]+")) {
+            if (!termino.isEmpty()) {
+                if (consulta.length() > 0) {
+                    consulta.append(' ');
+                }
+                consulta.append('"').append(termino).append("\"*");
+            }
+        }
+        return consulta.toString();
+    }
+
     @Override
     public boolean actualizarStock(String productoId, int nuevaCantidad) {
         String sql = "UPDATE PRODUCTOS SET stock_actual = ?, fecha_actualizacion = ? WHERE id = ?";
@@ -218,6 +273,39 @@ public class ProductoDAOImpl implements ProductoDAO {
         }
     }
 
+    @Override
+    public int ajustarStock(String productoId, int cantidad) {
+        // La guarda y el nuevo estado se evalúan sobre la fila actual dentro del mismo UPDATE,
+        // así dos salidas concurrentes del mismo producto se serializan en la base de datos
+        String sql = "UPDATE PRODUCTOS SET stock_actual = stock_actual + ?, " +
+                    "estado = CASE WHEN stock_actual + ? <= 0 THEN 'STOCK_CRITICO' " +
+                    "WHEN stock_actual + ? <= stock_minimo THEN 'STOCK_BAJO' ELSE 'ACTIVO' END, " +
+                    "fecha_actualizacion = ? " +
+                    "WHERE id = ? AND stock_actual + ? >= 0 " +
+                    "RETURNING stock_actual";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, cantidad);
+            pstmt.setInt(2, cantidad);
+            pstmt.setInt(3, cantidad);
+            pstmt.setTimestamp(4, new Timestamp(new Date().getTime()));
+            pstmt.setString(5, productoId);
+            pstmt.setInt(6, cantidad);
+            ResultSet rs = pstmt.executeQuery();
+            
+            if (rs.next()) {
+                return rs.getInt("stock_actual");
+            }
+            
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error al ajustar stock del producto: " + productoId, e);
+        }
+        
+        return -1;
+    }
+
     @Override
     public boolean existeProducto(String id) {
         String sql = "SELECT 1 FROM PRODUCTOS WHERE id = ?";
@@ -298,7 +386,117 @@ public class ProductoDAOImpl implements ProductoDAO {
         return 0;
     }
 
-    private Producto mapearProducto(ResultSet rs) throws SQLException {
+    @Override
+    public int contarPorCategoria(CategoriaProducto categoria) {
+        String sql = "SELECT COUNT(*) as total FROM PRODUCTOS WHERE categoria = ?";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, categoria.name());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt("total");
+                }
+            }
+            
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error al contar productos por categoría", e);
+        }
+        
+        return 0;
+    }
+
+    @Override
+    public List<Producto> obtenerMasCriticos(int limite) {
+        List<Producto> productos = new ArrayList<>();
+        if (limite <= 0) {
+            return productos;
+        }
+        String sql = PRODUCTOS_VIGENTES + " ORDER BY " + RATIO_STOCK + ", id LIMIT ?";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, limite);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    productos.add(mapearProducto(rs));
+                }
+            }
+            
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error al obtener productos más críticos", e);
+        }
+        
+        return productos;
+    }
+
+    @Override
+    public List<Producto> obtenerPorRatioStock(double ratioMaximo) {
+        List<Producto> productos = new ArrayList<>();
+        String sql = PRODUCTOS_VIGENTES + " AND " + RATIO_STOCK + " <= ? ORDER BY " + RATIO_STOCK + ", id";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setDouble(1, ratioMaximo);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    productos.add(mapearProducto(rs));
+                }
+            }
+            
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error al obtener productos por ratio de stock: " + ratioMaximo, e);
+        }
+        
+        return productos;
+    }
+
+    @Override
+    public long obtenerVersionCatalogo() {
+        String sql = "SELECT COALESCE(MAX(version), 0) AS version FROM PRODUCTOS_CAMBIOS";
+        
+        try (Connection conn = dbConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            
+            if (rs.next()) {
+                return rs.getLong("version");
+            }
+            
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error al obtener la versión del catálogo", e);
+        }
+        
+        return -1;
+    }
+
+    @Override
+    public List<String> obtenerIdsModificadosDesde(long version) {
+        List<String> ids = new ArrayList<>();
+        String sql = "SELECT producto_id FROM PRODUCTOS_CAMBIOS WHERE version > ? ORDER BY version";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setLong(1, version);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getString("producto_id"));
+                }
+            }
+            
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error al obtener productos modificados desde la versión " + version, e);
+        }
+        
+        return ids;
+    }
+
+    // También lo usan las consultas de MovimientoDAOImpl que unen con PRODUCTOS
+    static Producto mapearProducto(ResultSet rs) throws SQLException {
         Producto producto = new Producto(
             rs.getString("id"),
             rs.getString("nombre"),
@@ -0,0 +1,14 @@
+package com.femaco.femacoproject.dao;
+
+import com.femaco.femacoproject.model.enums.TipoMovimiento;
+import java.util.Date;
+import java.util.Map;
+
+public interface ResumenDiarioDAO {
+    // Consultas sobre días completos: se toman los días de diaInicio a diaFin, ambos incluidos
+    Map<TipoMovimiento, Long> contarPorTipo(Date diaInicio, Date diaFin);
+    double sumarImporte(TipoMovimiento tipo, Date diaInicio, Date diaFin);
+    
+    // Vuelve a calcular el resumen a partir de MOVIMIENTOS; devuelve las filas generadas o -1
+    int reconstruir();
+}
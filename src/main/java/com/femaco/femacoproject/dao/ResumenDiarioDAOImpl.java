@@ -0,0 +1,99 @@
+package com.femaco.femacoproject.dao;
+
+import com.femaco.femacoproject.model.enums.TipoMovimiento;
+import java.sql.*;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Acceso a MOVIMIENTOS_DIARIOS, el resumen por día, tipo y producto.
+ * La tabla la mantienen los triggers de MOVIMIENTOS; aquí solo se consulta y se reconstruye.
+ * El día se calcula en SQLite con la hora local, igual que en los triggers.
+ */
+public class ResumenDiarioDAOImpl implements ResumenDiarioDAO {
+    private static final Logger logger = Logger.getLogger(ResumenDiarioDAOImpl.class.getName());
+    private static final String DIA = "date(? / 1000, 'unixepoch', 'localtime')";
+    private final DatabaseConnection dbConnection;
+
+    public ResumenDiarioDAOImpl() {
+        this.dbConnection = DatabaseConnection.getInstance();
+    }
+
+    @Override
+    public Map<TipoMovimiento, Long> contarPorTipo(Date diaInicio, Date diaFin) {
+        Map<TipoMovimiento, Long> conteo = new EnumMap<>(TipoMovimiento.class);
+        String sql = "SELECT tipo, SUM(num_movimientos) AS total FROM MOVIMIENTOS_DIARIOS " +
+                    "WHERE dia BETWEEN " + DIA + " AND " + DIA + " GROUP BY tipo";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setLong(1, diaInicio.getTime());
+            pstmt.setLong(2, diaFin.getTime());
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                conteo.put(TipoMovimiento.valueOf(rs.getString("tipo")), rs.getLong("total"));
+            }
+            
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error al contar movimientos del resumen diario", e);
+        }
+        
+        return conteo;
+    }
+
+    @Override
+    public double sumarImporte(TipoMovimiento tipo, Date diaInicio, Date diaFin) {
+        String sql = "SELECT COALESCE(SUM(d.cantidad_total * p.precio), 0) AS importe " +
+                    "FROM MOVIMIENTOS_DIARIOS d JOIN PRODUCTOS p ON p.id = d.producto_id " +
+                    "WHERE d.dia BETWEEN " + DIA + " AND " + DIA + " AND d.tipo = ?";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setLong(1, diaInicio.getTime());
+            pstmt.setLong(2, diaFin.getTime());
+            pstmt.setString(3, tipo.name());
+            ResultSet rs = pstmt.executeQuery();
+            
+            if (rs.next()) {
+                return rs.getDouble("importe");
+            }
+            
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error al sumar importe del resumen diario: " + tipo, e);
+        }
+        
+        return 0;
+    }
+
+    @Override
+    public int reconstruir() {
+        String sql = "INSERT INTO MOVIMIENTOS_DIARIOS (dia, tipo, producto_id, cantidad_total, num_movimientos) " +
+                    "SELECT date(fecha / 1000, 'unixepoch', 'localtime'), tipo, producto_id, SUM(cantidad), COUNT(*) " +
+                    "FROM MOVIMIENTOS GROUP BY 1, 2, 3";
+        
+        try (Connection conn = dbConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("DELETE FROM MOVIMIENTOS_DIARIOS");
+                int filas = stmt.executeUpdate(sql);
+                conn.commit();
+                logger.info("Resumen diario reconstruido: " + filas + " filas");
+                return filas;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error al reconstruir el resumen diario", e);
+            return -1;
+        }
+    }
+}
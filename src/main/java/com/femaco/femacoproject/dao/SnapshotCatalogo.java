@@ -0,0 +1,249 @@
+package com.femaco.femacoproject.dao;
+
+import com.femaco.femacoproject.model.Producto;
+import com.femaco.femacoproject.model.enums.CategoriaProducto;
+import com.femaco.femacoproject.model.enums.EstadoProducto;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Instantánea binaria del catálogo de productos en disco. Se escribe al cerrar la
+ * aplicación y se lee con un archivo mapeado en memoria al arrancar, evitando leer y
+ * mapear cada fila de PRODUCTOS. Guarda la versión del catálogo con la que se tomó
+ * (ver migración 5), para que quien la lea relea solo los productos que cambiaron después.
+ * <p>
+ * Formato: cabecera (marca, formato, versión, cantidad y los nombres de las categorías y
+ * estados, que luego se referencian por posición), un registro por producto y un CRC32
+ * de todo lo anterior al final.
+ */
+public class SnapshotCatalogo {
+    private static final Logger logger = Logger.getLogger(SnapshotCatalogo.class.getName());
+    private static final int MARCA = 0x464D4353; // "FMCS"
+    private static final int FORMATO = 1;
+    private static final long SIN_FECHA = Long.MIN_VALUE;
+
+    private final Path archivo;
+
+    public SnapshotCatalogo(Path archivo) {
+        this.archivo = archivo;
+    }
+
+    public Path getArchivo() {
+        return archivo;
+    }
+
+    /** Productos y versión del catálogo leídos de una instantánea válida. */
+    public static class Contenido {
+        private final long version;
+        private final List<Producto> productos;
+
+        Contenido(long version, List<Producto> productos) {
+            this.version = version;
+            this.productos = productos;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public List<Producto> getProductos() {
+            return productos;
+        }
+    }
+
+    /**
+     * Escribe la instantánea en un archivo temporal y lo mueve sobre el anterior, de modo
+     * que un cierre a medias nunca deja un archivo corrupto en su lugar.
+     */
+    public boolean guardar(long version, Collection<Producto> productos) {
+        long inicio = System.currentTimeMillis();
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        try {
+            if (archivo.getParent() != null) {
+                Files.createDirectories(archivo.getParent());
+            }
+
+            CRC32 crc = new CRC32();
+            try (OutputStream salidaArchivo = Files.newOutputStream(temporal)) {
+                DataOutputStream salida = new DataOutputStream(
+                    new BufferedOutputStream(new CheckedOutputStream(salidaArchivo, crc), 1 << 16));
+                escribirCabecera(salida, version, productos.size());
+                for (Producto producto : productos) {
+                    escribirProducto(salida, producto);
+                }
+                salida.flush();
+                // El CRC va fuera del flujo verificado
+                new DataOutputStream(salidaArchivo).writeLong(crc.getValue());
+            }
+
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info(String.format("Instantánea del catálogo guardada: %d productos, versión %d, %d KB en %d ms",
+                                      productos.size(), version, Files.size(archivo) / 1024,
+                                      System.currentTimeMillis() - inicio));
+            return true;
+
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "No se pudo guardar la instantánea del catálogo: " + archivo, e);
+            try {
+                Files.deleteIfExists(temporal);
+            } catch (IOException ignorada) {
+                // El temporal se sobrescribe en el próximo guardado
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Lee la instantánea mapeando el archivo en memoria.
+     * @return el contenido, o null si no existe, está dañada o es de otro formato
+     */
+    public Contenido leer() {
+        if (!Files.isRegularFile(archivo)) {
+            return null;
+        }
+
+        long inicio = System.currentTimeMillis();
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamaño = canal.size();
+            if (tamaño < Long.BYTES + 3 * Integer.BYTES || tamaño > Integer.MAX_VALUE) {
+                logger.warning("Instantánea del catálogo con tamaño inválido: " + tamaño + " bytes");
+                return null;
+            }
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamaño);
+
+            // Verificar el CRC antes de interpretar nada
+            int limiteDatos = (int) tamaño - Long.BYTES;
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().limit(limiteDatos));
+            if (crc.getValue() != buffer.getLong(limiteDatos)) {
+                logger.warning("Instantánea del catálogo dañada (CRC no coincide); se ignorará");
+                return null;
+            }
+            buffer.limit(limiteDatos);
+
+            if (buffer.getInt() != MARCA || buffer.getInt() != FORMATO) {
+                logger.warning("Instantánea del catálogo de un formato desconocido; se ignorará");
+                return null;
+            }
+            long version = buffer.getLong();
+            int cantidad = buffer.getInt();
+            CategoriaProducto[] categorias = leerTablaEnum(buffer, CategoriaProducto.class);
+            EstadoProducto[] estados = leerTablaEnum(buffer, EstadoProducto.class);
+
+            List<Producto> productos = new ArrayList<>(cantidad);
+            for (int i = 0; i < cantidad; i++) {
+                productos.add(leerProducto(buffer, categorias, estados));
+            }
+
+            logger.info(String.format("Instantánea del catálogo leída: %d productos, versión %d, en %d ms",
+                                      cantidad, version, System.currentTimeMillis() - inicio));
+            return new Contenido(version, productos);
+
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            logger.log(Level.WARNING, "No se pudo leer la instantánea del catálogo: " + archivo, e);
+            return null;
+        }
+    }
+
+    // ===== ESCRITURA =====
+
+    private static void escribirCabecera(DataOutputStream salida, long version, int cantidad) throws IOException {
+        salida.writeInt(MARCA);
+        salida.writeInt(FORMATO);
+        salida.writeLong(version);
+        salida.writeInt(cantidad);
+        escribirTablaEnum(salida, CategoriaProducto.values());
+        escribirTablaEnum(salida, EstadoProducto.values());
+    }
+
+    private static void escribirTablaEnum(DataOutputStream salida, Enum<?>[] valores) throws IOException {
+        salida.writeByte(valores.length);
+        for (Enum<?> valor : valores) {
+            escribirTexto(salida, valor.name());
+        }
+    }
+
+    private static void escribirProducto(DataOutputStream salida, Producto producto) throws IOException {
+        escribirTexto(salida, producto.getId());
+        escribirTexto(salida, producto.getNombre());
+        salida.writeByte(producto.getCategoria().ordinal());
+        salida.writeInt(producto.getStockActual());
+        salida.writeInt(producto.getStockMinimo());
+        salida.writeDouble(producto.getPrecio());
+        escribirTexto(salida, producto.getUbicacion());
+        salida.writeByte(producto.getEstado().ordinal());
+        escribirTexto(salida, producto.getProveedorId());
+        salida.writeLong(producto.getFechaCreacion() != null ? producto.getFechaCreacion().getTime() : SIN_FECHA);
+        salida.writeLong(producto.getFechaActualizacion() != null
+                         ? producto.getFechaActualizacion().getTime() : SIN_FECHA);
+    }
+
+    // Longitud en bytes UTF-8 seguida del texto; -1 para null
+    private static void escribirTexto(DataOutputStream salida, String texto) throws IOException {
+        if (texto == null) {
+            salida.writeInt(-1);
+            return;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        salida.writeInt(bytes.length);
+        salida.write(bytes);
+    }
+
+    // ===== LECTURA =====
+
+    // Traduce las posiciones guardadas a los valores actuales, aunque el enum se haya reordenado
+    private static <E extends Enum<E>> E[] leerTablaEnum(ByteBuffer buffer, Class<E> tipo) {
+        int cantidad = buffer.get() & 0xFF;
+        @SuppressWarnings("unchecked")
+        E[] valores = (E[]) java.lang.reflect.Array.newInstance(tipo, cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            valores[i] = Enum.valueOf(tipo, leerTexto(buffer));
+        }
+        return valores;
+    }
+
+    private static Producto leerProducto(ByteBuffer buffer, CategoriaProducto[] categorias, EstadoProducto[] estados) {
+        String id = leerTexto(buffer);
+        String nombre = leerTexto(buffer);
+        CategoriaProducto categoria = categorias[buffer.get() & 0xFF];
+        int stockActual = buffer.getInt();
+        int stockMinimo = buffer.getInt();
+        double precio = buffer.getDouble();
+        String ubicacion = leerTexto(buffer);
+        EstadoProducto estado = estados[buffer.get() & 0xFF];
+        String proveedorId = leerTexto(buffer);
+        long fechaCreacion = buffer.getLong();
+        long fechaActualizacion = buffer.getLong();
+
+        Producto producto = new Producto(id, nombre, categoria, stockActual, stockMinimo,
+                                         precio, ubicacion, proveedorId);
+        // Mismo orden que mapearProducto: los setters tocan la fecha de actualización
+        producto.setEstado(estado);
+        producto.setFechaCreacion(fechaCreacion != SIN_FECHA ? new Date(fechaCreacion) : null);
+        producto.setFechaActualizacion(fechaActualizacion != SIN_FECHA ? new Date(fechaActualizacion) : null);
+        return producto;
+    }
+
+    private static String leerTexto(ByteBuffer buffer) {
+        int longitud = buffer.getInt();
+        if (longitud < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[longitud];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,101 @@
+package com.femaco.femacoproject.dao;
+
+import com.femaco.femacoproject.exception.DatabaseException;
+import com.femaco.femacoproject.exception.InventarioException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Unidad de trabajo transaccional.
+ * Mientras se ejecuta la operación, todos los DAOs llamados desde el mismo hilo
+ * reciben la misma conexión del pool, así que sus escrituras se confirman o se
+ * deshacen juntas en un único commit.
+ */
+public class UnidadDeTrabajo {
+    private static final Logger logger = Logger.getLogger(UnidadDeTrabajo.class.getName());
+    // Acciones pendientes de la transacción abierta en el hilo; null si no hay transacción
+    private static final ThreadLocal<List<Runnable>> accionesAlFinalizar = new ThreadLocal<>();
+    private final DatabaseConnection dbConnection;
+
+    @FunctionalInterface
+    public interface Operacion<T> {
+        T ejecutar() throws InventarioException;
+    }
+
+    public UnidadDeTrabajo() {
+        this.dbConnection = DatabaseConnection.getInstance();
+    }
+
+    public <T> T ejecutar(Operacion<T> operacion) throws InventarioException {
+        try (Connection conn = dbConnection.getConnection()) {
+            if (!conn.getAutoCommit()) {
+                // Ya hay una transacción abierta en este hilo: se participa en ella
+                return operacion.ejecutar();
+            }
+
+            conn.setAutoCommit(false);
+            accionesAlFinalizar.set(new ArrayList<>());
+            boolean confirmada = false;
+            try {
+                T resultado = operacion.ejecutar();
+                conn.commit();
+                confirmada = true;
+                return resultado;
+            } finally {
+                try {
+                    if (!confirmada) {
+                        deshacer(conn);
+                    }
+                    conn.setAutoCommit(true);
+                } finally {
+                    ejecutarAccionesAlFinalizar();
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error al ejecutar la transacción", e);
+            throw new DatabaseException(e, "TRANSACCION");
+        }
+    }
+
+    public static boolean hayTransaccionActiva() {
+        return accionesAlFinalizar.get() != null;
+    }
+
+    /**
+     * Programa una acción para cuando termine la transacción del hilo actual,
+     * tanto si se confirma como si se deshace.
+     * @return false si no hay transacción abierta (la acción no se registra)
+     */
+    public static boolean alFinalizar(Runnable accion) {
+        List<Runnable> acciones = accionesAlFinalizar.get();
+        if (acciones == null) {
+            return false;
+        }
+        acciones.add(accion);
+        return true;
+    }
+
+    private static void ejecutarAccionesAlFinalizar() {
+        List<Runnable> acciones = accionesAlFinalizar.get();
+        accionesAlFinalizar.remove();
+        for (Runnable accion : acciones) {
+            try {
+                accion.run();
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Error en acción posterior a la transacción", e);
+            }
+        }
+    }
+
+    private void deshacer(Connection conn) {
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error al deshacer la transacción", e);
+        }
+    }
+}
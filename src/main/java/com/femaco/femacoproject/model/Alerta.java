@@ -0,0 +1,89 @@
+package com.femaco.femacoproject.model;
+
+import com.femaco.femacoproject.model.enums.TipoAlerta;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Alerta sobre una entidad (producto o proveedor). El id se forma con el tipo y el id
+ * de la entidad, así que una misma situación nunca genera dos alertas activas.
+ */
+public class Alerta {
+    private TipoAlerta tipo;
+    private String entidadId;
+    private String mensaje;
+    private Date fechaCreacion;
+    private Date fechaActualizacion;
+    private Date fechaResolucion;
+    
+    public Alerta(TipoAlerta tipo, String entidadId, String mensaje) {
+        this.tipo = tipo;
+        this.entidadId = entidadId;
+        this.mensaje = mensaje;
+        this.fechaCreacion = new Date();
+        this.fechaActualizacion = this.fechaCreacion;
+    }
+    
+    public Alerta(Alerta otra) {
+        this.tipo = otra.tipo;
+        this.entidadId = otra.entidadId;
+        this.mensaje = otra.mensaje;
+        this.fechaCreacion = otra.fechaCreacion;
+        this.fechaActualizacion = otra.fechaActualizacion;
+        this.fechaResolucion = otra.fechaResolucion;
+    }
+    
+    public static String generarId(TipoAlerta tipo, String entidadId) {
+        return tipo.name() + ":" + entidadId;
+    }
+    
+    public String getId() {
+        return generarId(tipo, entidadId);
+    }
+    
+    public boolean estaResuelta() {
+        return fechaResolucion != null;
+    }
+    
+    public void resolver() {
+        this.fechaResolucion = new Date();
+    }
+    
+    // Getters y Setters
+    public TipoAlerta getTipo() { return tipo; }
+    
+    public String getEntidadId() { return entidadId; }
+    
+    public String getMensaje() { return mensaje; }
+    public void setMensaje(String mensaje) {
+        this.mensaje = mensaje;
+        this.fechaActualizacion = new Date();
+    }
+    
+    public Date getFechaCreacion() { return fechaCreacion; }
+    public void setFechaCreacion(Date fechaCreacion) { this.fechaCreacion = fechaCreacion; }
+    
+    public Date getFechaActualizacion() { return fechaActualizacion; }
+    public void setFechaActualizacion(Date fechaActualizacion) { this.fechaActualizacion = fechaActualizacion; }
+    
+    public Date getFechaResolucion() { return fechaResolucion; }
+    public void setFechaResolucion(Date fechaResolucion) { this.fechaResolucion = fechaResolucion; }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Alerta alerta = (Alerta) o;
+        return tipo == alerta.tipo && Objects.equals(entidadId, alerta.entidadId);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(tipo, entidadId);
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("[%s] %s", tipo.getDescripcion(), mensaje);
+    }
+}
@@ -0,0 +1,89 @@
+package com.femaco.femacoproject.model;
+
+/**
+ * Tasa de consumo diario de un producto, como media móvil exponencial de las salidas
+ * por día. Los días se cuentan como días epoch locales ({@code LocalDate.toEpochDay()}).
+ * <p>
+ * Solo entran en la media los días completos: las salidas del día en curso se acumulan
+ * en {@code consumoDia} y se incorporan cuando llega una salida de un día posterior, o
+ * al consultar la tasa otro día. Los días sin salidas cuentan como consumo cero. Como la
+ * media arranca en cero, al consultarla se corrige ese sesgo según los días observados.
+ * <p>
+ * Es inmutable: cada salida devuelve un estado nuevo con la versión incrementada.
+ */
+public class ConsumoProducto {
+    private final String productoId;
+    private final double alfa;
+    private final double tasa;
+    private final int consumoDia;
+    private final long dia;
+    private final long primerDia;
+    private final long version;
+
+    public ConsumoProducto(String productoId, double alfa, double tasa, int consumoDia,
+                           long dia, long primerDia, long version) {
+        if (alfa <= 0 || alfa > 1) {
+            throw new IllegalArgumentException("Factor de suavizado inválido: " + alfa);
+        }
+        this.productoId = productoId;
+        this.alfa = alfa;
+        this.tasa = tasa;
+        this.consumoDia = consumoDia;
+        this.dia = dia;
+        this.primerDia = primerDia;
+        this.version = version;
+    }
+
+    /** Estado de un producto a partir de su primera salida. */
+    public static ConsumoProducto primeraSalida(String productoId, double alfa, int cantidad, long dia) {
+        return new ConsumoProducto(productoId, alfa, 0, cantidad, dia, dia, 1);
+    }
+
+    /** Suma una salida del día indicado; una fecha anterior a la última se toma como del mismo día. */
+    public ConsumoProducto registrarSalida(int cantidad, long diaSalida) {
+        if (diaSalida <= dia) {
+            return new ConsumoProducto(productoId, alfa, tasa, consumoDia + cantidad, dia, primerDia, version + 1);
+        }
+        return new ConsumoProducto(productoId, alfa, tasaAl(diaSalida), cantidad, diaSalida, primerDia, version + 1);
+    }
+
+    /**
+     * Unidades por día estimadas al día indicado. Con un solo día observado, y todavía
+     * en curso, devuelve lo consumido ese día.
+     */
+    public double getTasaDiaria(long hoy) {
+        long diasCompletos = Math.max(hoy, dia) - primerDia;
+        if (diasCompletos <= 0) {
+            return consumoDia;
+        }
+        double sinSesgo = 1 - Math.pow(1 - alfa, diasCompletos);
+        return (hoy > dia ? tasaAl(hoy) : tasa) / sinSesgo;
+    }
+
+    // Media sin corregir al comienzo del día indicado (posterior a dia): se incorpora el
+    // consumo de dia y cada día intermedio sin salidas la reduce
+    private double tasaAl(long diaPosterior) {
+        double conDia = alfa * consumoDia + (1 - alfa) * tasa;
+        return conDia * Math.pow(1 - alfa, diaPosterior - dia - 1);
+    }
+
+    // Getters
+    public String getProductoId() { return productoId; }
+    public double getAlfa() { return alfa; }
+    public double getTasa() { return tasa; }
+    public int getConsumoDia() { return consumoDia; }
+    public long getDia() { return dia; }
+    public long getPrimerDia() { return primerDia; }
+    public long getVersion() { return version; }
+
+    @Override
+    public String toString() {
+        return "ConsumoProducto{" +
+                "productoId='" + productoId + '\'' +
+                ", tasa=" + tasa +
+                ", consumoDia=" + consumoDia +
+                ", dia=" + dia +
+                ", version=" + version +
+                '}';
+    }
+}
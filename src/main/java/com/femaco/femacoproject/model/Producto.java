@@ -42,6 +42,21 @@ public class Producto implements Comparable<Producto> {
         this(id, nombre, categoria, 0, stockMinimo, precio, ubicacion, null);
     }
     
+    // Constructor de copia
+    public Producto(Producto otro) {
+        this.id = otro.id;
+        this.nombre = otro.nombre;
+        this.categoria = otro.categoria;
+        this.stockActual = otro.stockActual;
+        this.stockMinimo = otro.stockMinimo;
+        this.precio = otro.precio;
+        this.ubicacion = otro.ubicacion;
+        this.proveedorId = otro.proveedorId;
+        this.estado = otro.estado;
+        this.fechaCreacion = otro.fechaCreacion != null ? new Date(otro.fechaCreacion.getTime()) : null;
+        this.fechaActualizacion = otro.fechaActualizacion != null ? new Date(otro.fechaActualizacion.getTime()) : null;
+    }
+    
     public void actualizarEstado() {
         if (stockActual <= 0) {
             this.estado = EstadoProducto.STOCK_CRITICO;
@@ -75,6 +90,14 @@ public class Producto implements Comparable<Producto> {
         return stockActual * precio;
     }
     
+    // Stock relativo al mínimo: 1.0 es justo el mínimo. Sin mínimo definido solo es crítico si no hay stock
+    public double calcularRatioStock() {
+        if (stockMinimo > 0) {
+            return (double) stockActual / stockMinimo;
+        }
+        return stockActual <= 0 ? 0.0 : Double.POSITIVE_INFINITY;
+    }
+    
     public int getDiasCreacion() {
         if (fechaCreacion == null) return 0;
         long diff = new Date().getTime() - fechaCreacion.getTime();
@@ -0,0 +1,51 @@
+package com.femaco.femacoproject.model;
+
+/**
+ * Proyección del stock de un producto con su tasa de consumo diario, tomada con el stock
+ * del momento en que se arma. Sin consumo, los días proyectados son infinitos.
+ */
+public class PronosticoStock {
+    private final Producto producto;
+    private final int stockActual;
+    private final int stockMinimo;
+    private final double tasaDiaria;
+
+    public PronosticoStock(Producto producto, double tasaDiaria) {
+        this.producto = producto;
+        this.stockActual = producto.getStockActual();
+        this.stockMinimo = producto.getStockMinimo();
+        this.tasaDiaria = tasaDiaria;
+    }
+
+    /** Días hasta llegar al stock mínimo; 0 si ya está en el mínimo o por debajo. */
+    public double getDiasHastaMinimo() {
+        return diasHasta(stockMinimo);
+    }
+
+    /** Días hasta quedarse sin stock; 0 si ya no hay. */
+    public double getDiasHastaAgotar() {
+        return diasHasta(0);
+    }
+
+    public boolean tieneConsumo() {
+        return tasaDiaria > 0;
+    }
+
+    /** Días con un decimal, o "Sin consumo" si no se llega nunca. */
+    public static String formatearDias(double dias) {
+        return Double.isInfinite(dias) ? "Sin consumo" : String.format("%.1f", dias);
+    }
+
+    private double diasHasta(int nivel) {
+        if (stockActual <= nivel) {
+            return 0;
+        }
+        return tasaDiaria > 0 ? (stockActual - nivel) / tasaDiaria : Double.POSITIVE_INFINITY;
+    }
+
+    // Getters
+    public Producto getProducto() { return producto; }
+    public int getStockActual() { return stockActual; }
+    public int getStockMinimo() { return stockMinimo; }
+    public double getTasaDiaria() { return tasaDiaria; }
+}
@@ -0,0 +1,20 @@
+package com.femaco.femacoproject.model.enums;
+
+public enum TipoAlerta {
+    STOCK_BAJO("Stock bajo"),
+    STOCK_CRITICO("Stock crítico"),
+    STOCK_PROXIMO_MINIMO("Stock próximo al mínimo"),
+    STOCK_MINIMO_PROYECTADO("Stock mínimo proyectado"),
+    PROVEEDOR_SIN_PRODUCTOS("Proveedor sin productos"),
+    PRODUCTO_SIN_PROVEEDOR("Producto sin proveedor");
+    
+    private final String descripcion;
+    
+    TipoAlerta(String descripcion) {
+        this.descripcion = descripcion;
+    }
+    
+    public String getDescripcion() {
+        return descripcion;
+    }
+}
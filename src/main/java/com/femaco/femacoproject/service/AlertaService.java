@@ -1,6 +1,8 @@
 package com.femaco.femacoproject.service;
 
+import com.femaco.femacoproject.model.Alerta;
 import com.femaco.femacoproject.model.Producto;
+import com.femaco.femacoproject.model.enums.TipoAlerta;
 import java.util.List;
 import java.util.Map;
 
@@ -29,16 +31,21 @@ public interface AlertaService {
     
     // ===== GESTIÓN DE ALERTAS =====
     
-    // Obtener todas las alertas activas
-    List<String> obtenerAlertasActivas();
+    // Obtener todas las alertas activas, en orden de creación
+    List<Alerta> obtenerAlertasActivas();
     
-    // Marcar alerta como resuelta
+    // Cantidad de alertas activas sin copiar la lista
+    int contarAlertasActivas();
+    
+    // Marcar alerta como resuelta; el id es el de Alerta.getId()
     boolean resolverAlerta(String idAlerta);
     
     // Obtener estadísticas de alertas
     Map<String, Integer> obtenerEstadisticasAlertas();
     
-    // Configurar umbrales para alertas
+    // Configurar umbrales para alertas; la clave es TIPO, TIPO.categoria.CATEGORIA o
+    // TIPO.producto.ID (% del mínimo para STOCK_BAJO y STOCK_PROXIMO_MINIMO, unidades para STOCK_CRITICO,
+    // días hasta el mínimo para STOCK_MINIMO_PROYECTADO)
     boolean configurarUmbralAlerta(String tipoAlerta, int umbral);
     
     // ===== NOTIFICACIONES =====
@@ -50,5 +57,5 @@ public interface AlertaService {
     boolean hayAlertasPendientes();
     
     // Obtener cantidad de alertas por tipo
-    int contarAlertasPorTipo(String tipoAlerta);
+    int contarAlertasPorTipo(TipoAlerta tipoAlerta);
 }
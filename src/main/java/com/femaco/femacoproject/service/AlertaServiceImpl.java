@@ -1,34 +1,102 @@
 package com.femaco.femacoproject.service;
 
 
+import com.femaco.femacoproject.dao.AlertaDAO;
 import com.femaco.femacoproject.dao.ProductoDAO;
 import com.femaco.femacoproject.dao.ProveedorDAO;
+import com.femaco.femacoproject.model.Alerta;
 import com.femaco.femacoproject.model.Producto;
-import com.femaco.femacoproject.model.enums.EstadoProducto;
-import com.femaco.femacoproject.util.ListaEnlazada;
+import com.femaco.femacoproject.model.Proveedor;
+import com.femaco.femacoproject.model.enums.TipoAlerta;
+import com.femaco.femacoproject.service.notificacion.DespachadorNotificaciones;
+import com.femaco.femacoproject.util.Configuracion;
 import com.femaco.femacoproject.util.Logger;
+import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
 
-public class AlertaServiceImpl implements AlertaService {
+/**
+ * Alertas de inventario. Se evalúan completas una sola vez, la primera vez que se
+ * consultan; desde entonces el servicio escucha los cambios de inventario y solo
+ * reevalúa el producto afectado (y sus proveedores anterior y nuevo), así que las
+ * consultas y estadísticas leen los contadores del registro sin recorrer el catálogo.
+ * Los métodos verificar* siguen haciendo la revisión completa bajo pedido.
+ * <p>
+ * Con un {@link PronosticoConsumo} se alerta también de los productos que, al ritmo de
+ * consumo actual, llegan al mínimo dentro de unos días. Como el consumo pronosticado
+ * cambia con el paso de los días aunque no haya movimientos, en ese caso la revisión
+ * completa se repite una vez por día, en la primera consulta.
+ * <p>
+ * Las condiciones de stock salen de los umbrales de {@code umbralesAlertas}, que pueden
+ * declararse para todo el catálogo, por categoría o por producto (ver
+ * {@link MotorReglasAlertas}); se compilan al iniciar y cada vez que se cambia uno.
+ */
+public class AlertaServiceImpl implements AlertaService, InventarioObserver {
     private final ProductoDAO productoDAO;
     private final ProveedorDAO proveedorDAO;
     private final Logger logger;
     private final Map<String, Integer> umbralesAlertas;
-    private final ListaEnlazada<String> alertasActivas;
+    private final RegistroAlertas registroAlertas;
+    private volatile MotorReglasAlertas motorReglas;
+    private DespachadorNotificaciones despachador;
+    private PronosticoConsumo pronosticoConsumo;
     
-    public AlertaServiceImpl(ProductoDAO productoDAO, ProveedorDAO proveedorDAO) {
+    // Proveedor de cada producto y cantidad de productos por proveedor, para saber
+    // qué proveedores se quedan sin productos sin consultar la base de datos
+    private final Map<String, String> proveedorPorProducto;
+    private final Map<String, Integer> productosPorProveedor;
+    private boolean evaluado;
+    private long diaEvaluado;
+    
+    public AlertaServiceImpl(ProductoDAO productoDAO, ProveedorDAO proveedorDAO, AlertaDAO alertaDAO) {
         this.productoDAO = productoDAO;
         this.proveedorDAO = proveedorDAO;
         this.logger = Logger.getInstance();
         this.umbralesAlertas = new HashMap<>();
-        this.alertasActivas = new ListaEnlazada<>();
+        this.registroAlertas = new RegistroAlertas(alertaDAO, Configuracion.getInstance().getAlertasRetencionDias());
+        this.proveedorPorProducto = new HashMap<>();
+        this.productosPorProveedor = new HashMap<>();
         inicializarUmbrales();
     }
     
+    // Las alertas nuevas se encolan en el despachador, que las agrupa y envía en segundo plano
+    public void setDespachador(DespachadorNotificaciones despachador) {
+        this.despachador = despachador;
+        registroAlertas.setOyenteNuevas(despachador != null ? despachador::notificar : null);
+    }
+    
+    // Habilita las alertas de mínimo proyectado con el consumo de cada producto
+    public synchronized void setPronosticoConsumo(PronosticoConsumo pronosticoConsumo) {
+        this.pronosticoConsumo = pronosticoConsumo;
+        compilarReglas();
+        if (evaluado) {
+            evaluarCatalogo();
+        }
+    }
+    
     private void inicializarUmbrales() {
-        umbralesAlertas.put("STOCK_BAJO", 3); // Días para alerta stock próximo a mínimo
         umbralesAlertas.put("INACTIVIDAD", 90); // Días sin movimientos
+        umbralesAlertas.put(TipoAlerta.STOCK_BAJO.name(), MotorReglasAlertas.UMBRAL_STOCK_BAJO); // % del mínimo
+        umbralesAlertas.put(TipoAlerta.STOCK_CRITICO.name(), MotorReglasAlertas.UMBRAL_STOCK_CRITICO); // Unidades
+        umbralesAlertas.put(TipoAlerta.STOCK_PROXIMO_MINIMO.name(), MotorReglasAlertas.UMBRAL_STOCK_PROXIMO_MINIMO); // % del mínimo
+        umbralesAlertas.put(TipoAlerta.STOCK_MINIMO_PROYECTADO.name(), Configuracion.getInstance().getStockAlertaDias()); // Días
+        
+        // Reglas declaradas en la configuración; las mal formadas se descartan
+        for (Map.Entry<String, Integer> umbral : Configuracion.getInstance().getUmbralesAlertas().entrySet()) {
+            if (esUmbralValido(umbral.getKey(), umbral.getValue())) {
+                umbralesAlertas.put(umbral.getKey(), umbral.getValue());
+            } else {
+                logger.warning("Regla de alerta ignorada: " + umbral.getKey() + " = " + umbral.getValue());
+            }
+        }
+        compilarReglas();
+        logger.info("Reglas de alerta compiladas: " + motorReglas.getCantidadReglas());
+    }
+    
+    private void compilarReglas() {
+        PronosticoConsumo pronostico = pronosticoConsumo;
+        motorReglas = pronostico != null
+            ? MotorReglasAlertas.compilar(umbralesAlertas, pronostico::diasHastaMinimo)
+            : MotorReglasAlertas.compilar(umbralesAlertas);
     }
     
     // ===== IMPLEMENTACIÓN ALERTAS DE STOCK =====
@@ -36,33 +104,26 @@ public class AlertaServiceImpl implements AlertaService {
     @Override
     public List<Producto> verificarAlertasStockBajo() {
         logger.info("Verificando alertas de stock bajo");
-        return productoDAO.obtenerStockBajo();
+        List<Producto> productos = productosQueCumplen(TipoAlerta.STOCK_BAJO);
+        productos.sort(Comparator.comparingInt(Producto::getStockActual));
+        sincronizar(TipoAlerta.STOCK_BAJO, productos);
+        return productos;
     }
     
     @Override
     public List<Producto> verificarAlertasStockCritico() {
         logger.info("Verificando alertas de stock crítico");
-        return productoDAO.obtenerPorEstado(EstadoProducto.STOCK_CRITICO);
+        List<Producto> productos = productosQueCumplen(TipoAlerta.STOCK_CRITICO);
+        sincronizar(TipoAlerta.STOCK_CRITICO, productos);
+        return productos;
     }
     
     @Override
     public List<Producto> verificarAlertasStockProximoMinimo() {
         logger.info("Verificando alertas de stock próximo a mínimo");
-        List<Producto> productos = productoDAO.obtenerTodos().stream()
-                .filter(p -> p.getEstado() != EstadoProducto.INACTIVO)
-                .filter(p -> p.getStockActual() > p.getStockMinimo()) // Aún no está bajo mínimo
-                .filter(p -> p.getStockActual() <= p.getStockMinimo() * 1.5) // Está cerca del mínimo
-                .collect(Collectors.toList());
-        
-        // Registrar alertas
-        for (Producto producto : productos) {
-            String alerta = String.format(
-                "ALERTA_STOCK_PROXIMO: Producto %s está próximo a stock mínimo. Stock actual: %d, Mínimo: %d",
-                producto.getNombre(), producto.getStockActual(), producto.getStockMinimo()
-            );
-            registrarAlerta(alerta);
-        }
-        
+        List<Producto> productos = productosQueCumplen(TipoAlerta.STOCK_PROXIMO_MINIMO);
+        productos.sort(Comparator.comparingDouble(Producto::calcularRatioStock).thenComparing(Producto::getId));
+        sincronizar(TipoAlerta.STOCK_PROXIMO_MINIMO, productos);
         return productos;
     }
     
@@ -75,74 +136,117 @@ public class AlertaServiceImpl implements AlertaService {
     // ===== IMPLEMENTACIÓN ALERTAS DE PROVEEDORES =====
     
     @Override
-    public List<String> verificarProveedoresSinProductos() {
+    public synchronized List<String> verificarProveedoresSinProductos() {
         logger.info("Verificando proveedores sin productos");
-        List<String> proveedoresSinProductos = new ArrayList<>();
+        // Un solo recorrido del catálogo en lugar de una consulta por proveedor
+        proveedorPorProducto.clear();
+        productosPorProveedor.clear();
+        productoDAO.recorrerTodos(p -> asignarProveedor(p.getId(), p.getProveedorId()));
+        return sincronizarProveedores();
+    }
+    
+    @Override
+    public List<Producto> verificarProductosSinProveedor() {
+        logger.info("Verificando productos sin proveedor");
+        List<Producto> productosSinProveedor = productosQueCumplen(TipoAlerta.PRODUCTO_SIN_PROVEEDOR);
+        sincronizar(TipoAlerta.PRODUCTO_SIN_PROVEEDOR, productosSinProveedor);
         
-        List<com.femaco.femacoproject.model.Proveedor> proveedores = proveedorDAO.obtenerActivos();
-        for (com.femaco.femacoproject.model.Proveedor proveedor : proveedores) {
-            List<Producto> productosProveedor = productoDAO.obtenerPorProveedor(proveedor.getId());
-            if (productosProveedor.isEmpty()) {
+        return productosSinProveedor;
+    }
+    
+    // Alertas de proveedores a partir del conteo de productos ya cargado
+    private List<String> sincronizarProveedores() {
+        List<String> proveedoresSinProductos = new ArrayList<>();
+        Map<String, String> vigentes = new LinkedHashMap<>();
+        for (Proveedor proveedor : proveedorDAO.obtenerActivos()) {
+            if (!productosPorProveedor.containsKey(proveedor.getId())) {
                 proveedoresSinProductos.add(proveedor.getNombre());
-                registrarAlerta("PROVEEDOR_SIN_PRODUCTOS: " + proveedor.getNombre());
+                vigentes.put(proveedor.getId(), mensajeProveedorSinProductos(proveedor));
             }
         }
+        registroAlertas.sincronizar(TipoAlerta.PROVEEDOR_SIN_PRODUCTOS, vigentes);
         
         return proveedoresSinProductos;
     }
     
+    // ===== EVENTOS DE INVENTARIO =====
+    
     @Override
-    public List<Producto> verificarProductosSinProveedor() {
-        logger.info("Verificando productos sin proveedor");
-        List<Producto> productosSinProveedor = productoDAO.obtenerTodos().stream()
-                .filter(p -> p.getEstado() != EstadoProducto.INACTIVO)
-                .filter(p -> p.getProveedorId() == null || p.getProveedorId().trim().isEmpty())
-                .collect(Collectors.toList());
-        
-        for (Producto producto : productosSinProveedor) {
-            registrarAlerta("PRODUCTO_SIN_PROVEEDOR: " + producto.getNombre());
+    public synchronized void onInventarioCambiado(Producto producto, String tipoEvento) {
+        if (!evaluado) {
+            // La evaluación inicial todavía no se hizo y ya verá este cambio
+            return;
+        }
+        // El producto del evento puede ser la copia del servicio; la fila del DAO es la referencia
+        producto = productoDAO.obtenerPorId(producto.getId()).orElse(producto);
+        EnumSet<TipoAlerta> cumplidas = motorReglas.evaluar(producto);
+        for (TipoAlerta tipo : MotorReglasAlertas.TIPOS_PRODUCTO) {
+            if (cumplidas.contains(tipo)) {
+                registroAlertas.registrar(tipo, producto.getId(), mensaje(tipo, producto));
+            } else {
+                registroAlertas.resolver(Alerta.generarId(tipo, producto.getId()));
+            }
         }
         
-        return productosSinProveedor;
+        String anterior = asignarProveedor(producto.getId(), producto.getProveedorId());
+        String nuevo = proveedorPorProducto.get(producto.getId());
+        if (!Objects.equals(anterior, nuevo)) {
+            evaluarProveedor(anterior);
+            evaluarProveedor(nuevo);
+        }
     }
     
     // ===== IMPLEMENTACIÓN GESTIÓN DE ALERTAS =====
     
     @Override
-    public List<String> obtenerAlertasActivas() {
-        List<String> alertas = new ArrayList<>();
-        for (String alerta : alertasActivas) {
-            alertas.add(alerta);
-        }
-        return alertas;
+    public List<Alerta> obtenerAlertasActivas() {
+        asegurarEvaluado();
+        return registroAlertas.obtenerActivas();
+    }
+    
+    @Override
+    public int contarAlertasActivas() {
+        asegurarEvaluado();
+        return registroAlertas.contarActivas();
     }
     
     @Override
     public boolean resolverAlerta(String idAlerta) {
         logger.info("Resolviendo alerta: " + idAlerta);
-        return alertasActivas.eliminar(idAlerta);
+        return registroAlertas.resolver(idAlerta);
     }
     
     @Override
     public Map<String, Integer> obtenerEstadisticasAlertas() {
+        asegurarEvaluado();
         Map<String, Integer> estadisticas = new HashMap<>();
         
-        estadisticas.put("STOCK_BAJO", verificarAlertasStockBajo().size());
-        estadisticas.put("STOCK_CRITICO", verificarAlertasStockCritico().size());
-        estadisticas.put("STOCK_PROXIMO_MINIMO", verificarAlertasStockProximoMinimo().size());
-        estadisticas.put("PROVEEDORES_SIN_PRODUCTOS", verificarProveedoresSinProductos().size());
-        estadisticas.put("PRODUCTOS_SIN_PROVEEDOR", verificarProductosSinProveedor().size());
-        estadisticas.put("TOTAL_ALERTAS_ACTIVAS", alertasActivas.tamaño());
+        estadisticas.put("STOCK_BAJO", registroAlertas.contar(TipoAlerta.STOCK_BAJO));
+        estadisticas.put("STOCK_CRITICO", registroAlertas.contar(TipoAlerta.STOCK_CRITICO));
+        estadisticas.put("STOCK_PROXIMO_MINIMO", registroAlertas.contar(TipoAlerta.STOCK_PROXIMO_MINIMO));
+        estadisticas.put("STOCK_MINIMO_PROYECTADO", registroAlertas.contar(TipoAlerta.STOCK_MINIMO_PROYECTADO));
+        estadisticas.put("PROVEEDORES_SIN_PRODUCTOS", registroAlertas.contar(TipoAlerta.PROVEEDOR_SIN_PRODUCTOS));
+        estadisticas.put("PRODUCTOS_SIN_PROVEEDOR", registroAlertas.contar(TipoAlerta.PRODUCTO_SIN_PROVEEDOR));
+        estadisticas.put("TOTAL_ALERTAS_ACTIVAS", registroAlertas.contarActivas());
         
         return estadisticas;
     }
     
     @Override
-    public boolean configurarUmbralAlerta(String tipoAlerta, int umbral) {
-        if (umbral < 0) return false;
+    public synchronized boolean configurarUmbralAlerta(String tipoAlerta, int umbral) {
+        if (umbral < 0 || !esUmbralValido(tipoAlerta, umbral)) return false;
         
         umbralesAlertas.put(tipoAlerta, umbral);
+        Configuracion.getInstance().setUmbralAlerta(tipoAlerta, umbral);
         logger.info("Umbral de alerta configurado: " + tipoAlerta + " = " + umbral);
+        
+        if (MotorReglasAlertas.esClaveDeRegla(tipoAlerta)) {
+            compilarReglas();
+            // Con otro umbral cambian las alertas vigentes de todo el catálogo
+            if (evaluado) {
+                evaluarCatalogo();
+            }
+        }
         return true;
     }
     
@@ -152,45 +256,173 @@ public class AlertaServiceImpl implements AlertaService {
     public void enviarNotificacionesAlertas() {
         logger.info("Enviando notificaciones de alertas");
         
-        // Verificar todas las alertas
-        verificarAlertasStockBajo();
-        verificarAlertasStockCritico();
-        verificarAlertasStockProximoMinimo();
-        verificarProveedoresSinProductos();
-        verificarProductosSinProveedor();
+        // Las alertas se mantienen al día con cada cambio; solo hace falta la evaluación inicial
+        asegurarEvaluado();
         
-        // En futuro, aquí se enviarían notificaciones por email, etc.
         if (hayAlertasPendientes()) {
-            logger.warning("Hay " + alertasActivas.tamaño() + " alertas pendientes que requieren atención");
+            logger.warning("Hay " + registroAlertas.contarActivas() + " alertas pendientes que requieren atención");
+            // Resumen de todas las activas; se copian, arman y envían en el hilo del despachador
+            if (despachador != null) {
+                despachador.enviarResumen(registroAlertas::obtenerActivas);
+            }
         }
     }
     
     @Override
     public boolean hayAlertasPendientes() {
-        return !alertasActivas.estaVacia();
+        asegurarEvaluado();
+        return registroAlertas.contarActivas() > 0;
     }
     
     @Override
-    public int contarAlertasPorTipo(String tipoAlerta) {
-        int count = 0;
-        for (String alerta : alertasActivas) {
-            if (alerta.contains(tipoAlerta)) {
-                count++;
-            }
-        }
-        return count;
+    public int contarAlertasPorTipo(TipoAlerta tipoAlerta) {
+        asegurarEvaluado();
+        return registroAlertas.contar(tipoAlerta);
     }
     
     // ===== MÉTODOS PRIVADOS =====
     
-    private void registrarAlerta(String mensajeAlerta) {
-        String alertaId = "ALERTA_" + System.currentTimeMillis() + "_" + 
-                         mensajeAlerta.hashCode();
-        String alertaCompleta = alertaId + "|" + mensajeAlerta;
+    // Revisión completa, una vez (o una por día con pronóstico de consumo); a partir de
+    // ahí mandan los eventos de inventario
+    private synchronized void asegurarEvaluado() {
+        long hoy = LocalDate.now().toEpochDay();
+        if (evaluado && (pronosticoConsumo == null || diaEvaluado == hoy)) {
+            return;
+        }
+        evaluarCatalogo();
+        evaluado = true;
+        diaEvaluado = hoy;
+    }
+    
+    // Todas las reglas sobre todo el catálogo en un solo recorrido, que además cuenta
+    // los productos de cada proveedor
+    private synchronized void evaluarCatalogo() {
+        long inicio = System.currentTimeMillis();
+        MotorReglasAlertas motor = motorReglas;
+        Map<TipoAlerta, Map<String, String>> vigentes = new EnumMap<>(TipoAlerta.class);
+        for (TipoAlerta tipo : MotorReglasAlertas.TIPOS_PRODUCTO) {
+            vigentes.put(tipo, new LinkedHashMap<>());
+        }
+        proveedorPorProducto.clear();
+        productosPorProveedor.clear();
         
-        if (!alertasActivas.contiene(alertaCompleta)) {
-            alertasActivas.agregar(alertaCompleta);
-            logger.warning("Alerta registrada: " + mensajeAlerta);
+        productoDAO.recorrerTodos(p -> {
+            for (TipoAlerta tipo : motor.evaluar(p)) {
+                vigentes.get(tipo).put(p.getId(), mensaje(tipo, p));
+            }
+            asignarProveedor(p.getId(), p.getProveedorId());
+        });
+        
+        for (Map.Entry<TipoAlerta, Map<String, String>> entrada : vigentes.entrySet()) {
+            registroAlertas.sincronizar(entrada.getKey(), entrada.getValue());
+        }
+        sincronizarProveedores();
+        logger.info(String.format("Evaluación de alertas: %d activas en %d ms",
+                                  registroAlertas.contarActivas(), System.currentTimeMillis() - inicio));
+    }
+    
+    // Productos que cumplen la regla del tipo, en el orden del catálogo (por nombre)
+    private List<Producto> productosQueCumplen(TipoAlerta tipo) {
+        MotorReglasAlertas motor = motorReglas;
+        List<Producto> productos = new ArrayList<>();
+        productoDAO.recorrerTodos(p -> {
+            if (motor.cumple(tipo, p)) {
+                productos.add(p);
+            }
+        });
+        return productos;
+    }
+    
+    // Solo se validan las claves de reglas; el resto (INACTIVIDAD) se acepta
+    private static boolean esUmbralValido(String clave, int umbral) {
+        if (clave == null || umbral < 0) {
+            return false;
+        }
+        if (!MotorReglasAlertas.esClaveDeRegla(clave)) {
+            return true;
+        }
+        try {
+            MotorReglasAlertas.compilar(Collections.singletonMap(clave, umbral));
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+    
+    private String mensaje(TipoAlerta tipo, Producto producto) {
+        switch (tipo) {
+            case STOCK_BAJO:
+                return String.format("Producto %s con stock bajo. Stock actual: %d, Mínimo: %d",
+                    producto.getNombre(), producto.getStockActual(), producto.getStockMinimo());
+            case STOCK_CRITICO:
+                return String.format("Producto %s sin stock. Mínimo: %d",
+                    producto.getNombre(), producto.getStockMinimo());
+            case STOCK_PROXIMO_MINIMO:
+                return String.format("Producto %s está próximo a stock mínimo. Stock actual: %d, Mínimo: %d",
+                    producto.getNombre(), producto.getStockActual(), producto.getStockMinimo());
+            case STOCK_MINIMO_PROYECTADO:
+                return String.format("Producto %s llegará al stock mínimo en %s. Stock actual: %d, Mínimo: %d",
+                    producto.getNombre(), textoDias(pronosticoConsumo.diasHastaMinimo(producto)),
+                    producto.getStockActual(), producto.getStockMinimo());
+            case PRODUCTO_SIN_PROVEEDOR:
+                return "Producto " + producto.getNombre() + " no tiene proveedor asignado";
+            default:
+                return producto.getNombre();
+        }
+    }
+    
+    // Días enteros, para que el mensaje no cambie con cada décima del pronóstico
+    private static String textoDias(double dias) {
+        long enteros = (long) Math.floor(dias);
+        if (enteros < 1) {
+            return "menos de 1 día";
+        }
+        return enteros == 1 ? "1 día" : enteros + " días";
+    }
+    
+    private static String mensajeProveedorSinProductos(Proveedor proveedor) {
+        return "Proveedor " + proveedor.getNombre() + " no tiene productos asociados";
+    }
+    
+    private void sincronizar(TipoAlerta tipo, List<Producto> productos) {
+        Map<String, String> vigentes = new LinkedHashMap<>();
+        for (Producto producto : productos) {
+            vigentes.put(producto.getId(), mensaje(tipo, producto));
+        }
+        registroAlertas.sincronizar(tipo, vigentes);
+    }
+    
+    // Registra el proveedor actual del producto y devuelve el anterior
+    private String asignarProveedor(String productoId, String proveedorId) {
+        String nuevo = proveedorId == null || proveedorId.trim().isEmpty() ? null : proveedorId;
+        String anterior = nuevo != null
+            ? proveedorPorProducto.put(productoId, nuevo)
+            : proveedorPorProducto.remove(productoId);
+        if (!Objects.equals(anterior, nuevo)) {
+            if (anterior != null) {
+                productosPorProveedor.computeIfPresent(anterior, (id, cantidad) -> cantidad > 1 ? cantidad - 1 : null);
+            }
+            if (nuevo != null) {
+                productosPorProveedor.merge(nuevo, 1, Integer::sum);
+            }
+        }
+        return anterior;
+    }
+    
+    // Solo consulta la base de datos cuando un proveedor se queda sin productos
+    private void evaluarProveedor(String proveedorId) {
+        if (proveedorId == null) {
+            return;
+        }
+        String idAlerta = Alerta.generarId(TipoAlerta.PROVEEDOR_SIN_PRODUCTOS, proveedorId);
+        if (productosPorProveedor.containsKey(proveedorId)) {
+            registroAlertas.resolver(idAlerta);
+            return;
+        }
+        Optional<Proveedor> proveedor = proveedorDAO.obtenerPorId(proveedorId);
+        if (proveedor.isPresent() && proveedor.get().isActivo()) {
+            registroAlertas.registrar(TipoAlerta.PROVEEDOR_SIN_PRODUCTOS, proveedorId,
+                                      mensajeProveedorSinProductos(proveedor.get()));
         }
     }
 }
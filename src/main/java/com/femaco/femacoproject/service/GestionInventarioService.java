@@ -8,6 +8,8 @@ import com.femaco.femacoproject.model.Producto;
 import com.femaco.femacoproject.model.Proveedor;
 import com.femaco.femacoproject.model.enums.CategoriaProducto;
 import com.femaco.femacoproject.model.enums.EstadoProducto;
+import com.femaco.femacoproject.model.enums.TipoMovimiento;
+import com.femaco.femacoproject.util.Pagina;
 
 import java.util.List;
 import java.util.Date;
@@ -45,6 +47,9 @@ public interface GestionInventarioService {
     // Obtener productos con stock crítico (stock = 0)
     List<Producto> obtenerProductosStockCritico();
     
+    // Obtener los productos vigentes con menor relación stock/mínimo, del más crítico al menos
+    List<Producto> obtenerProductosMasCriticos(int limite);
+    
     // ===== MOVIMIENTOS DE INVENTARIO =====
     
     // Registrar entrada de stock (compra, devolución, etc.)
@@ -78,6 +83,16 @@ public interface GestionInventarioService {
     // Obtener movimientos recientes (últimos 30 días)
     List<MovimientoInventario> obtenerMovimientosRecientes();
     
+    // Recorrer el historial completo por páginas (token null para la primera)
+    Pagina<MovimientoInventario> obtenerPaginaMovimientos(String token, int tamaño);
+    
+    // Recorrer por páginas los movimientos de un tipo
+    Pagina<MovimientoInventario> obtenerPaginaMovimientosPorTipo(TipoMovimiento tipo, String token, int tamaño);
+    
+    // Recorrer por páginas los movimientos de un rango de fechas
+    Pagina<MovimientoInventario> obtenerPaginaMovimientosPorFecha(Date fechaInicio, Date fechaFin, 
+                                                                 String token, int tamaño);
+    
     // ===== GESTIÓN DE PROVEEDORES =====
     
     // Registrar nuevo proveedor
@@ -3,49 +3,54 @@ package com.femaco.femacoproject.service;
 import com.femaco.femacoproject.dao.MovimientoDAO;
 import com.femaco.femacoproject.dao.ProductoDAO;
 import com.femaco.femacoproject.dao.ProveedorDAO;
+import com.femaco.femacoproject.dao.UnidadDeTrabajo;
+import com.femaco.femacoproject.exception.DatabaseException;
+import com.femaco.femacoproject.exception.InventarioException;
 import com.femaco.femacoproject.exception.ProductoNoEncontradoException;
 import com.femaco.femacoproject.exception.ProveedorNoEncontradoException;
 import com.femaco.femacoproject.exception.StockInsuficienteException;
+import com.femaco.femacoproject.exception.ValidacionException;
 import com.femaco.femacoproject.model.MovimientoInventario;
 import com.femaco.femacoproject.model.Producto;
 import com.femaco.femacoproject.model.Proveedor;
 import com.femaco.femacoproject.model.enums.CategoriaProducto;
 import com.femaco.femacoproject.model.enums.EstadoProducto;
 import com.femaco.femacoproject.model.enums.TipoMovimiento;
-import com.femaco.femacoproject.util.ArbolBinarioBusqueda;
 import com.femaco.femacoproject.util.Logger;
+import com.femaco.femacoproject.util.Pagina;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class GestionInventarioServiceImpl implements GestionInventarioService {
     private final ProductoDAO productoDAO;
     private final MovimientoDAO movimientoDAO;
     private final ProveedorDAO proveedorDAO;
-    private final ArbolBinarioBusqueda<Producto> arbolProductos;
+    private final UnidadDeTrabajo unidadDeTrabajo;
+    private final RankingMovimientos rankingSalidas;
     private final List<InventarioObserver> observadores;
     private final Logger logger;
+    private PronosticoConsumo pronosticoConsumo;
     
     public GestionInventarioServiceImpl(ProductoDAO productoDAO, MovimientoDAO movimientoDAO, ProveedorDAO proveedorDAO) {
+        this(productoDAO, movimientoDAO, proveedorDAO, new UnidadDeTrabajo());
+    }
+    
+    public GestionInventarioServiceImpl(ProductoDAO productoDAO, MovimientoDAO movimientoDAO, 
+                                        ProveedorDAO proveedorDAO, UnidadDeTrabajo unidadDeTrabajo) {
         this.productoDAO = productoDAO;
         this.movimientoDAO = movimientoDAO;
         this.proveedorDAO = proveedorDAO;
-        this.arbolProductos = new ArbolBinarioBusqueda<>();
+        this.unidadDeTrabajo = unidadDeTrabajo;
+        this.rankingSalidas = new RankingMovimientos(movimientoDAO, TipoMovimiento.SALIDA);
         this.observadores = new ArrayList<>();
         this.logger = Logger.getInstance();
-        cargarProductosEnArbol();
+        // Las lecturas de productos van a productoDAO, que en la aplicación es el catálogo
+        // compartido de CacheProductoDAO y devuelve copias
     }
     
-    private void cargarProductosEnArbol() {
-        try {
-            List<Producto> productos = productoDAO.obtenerTodos();
-            for (Producto producto : productos) {
-                arbolProductos.insertar(producto);
-            }
-            logger.info("Cargados " + productos.size() + " productos en árbol binario");
-        } catch (Exception e) {
-            logger.error("Error al cargar productos en árbol", e);
-        }
+    // Cada salida actualiza la tasa de consumo de su producto en la misma transacción
+    public void setPronosticoConsumo(PronosticoConsumo pronosticoConsumo) {
+        this.pronosticoConsumo = pronosticoConsumo;
     }
     
     // ===== IMPLEMENTACIÓN GESTIÓN DE PRODUCTOS =====
@@ -60,7 +65,6 @@ public class GestionInventarioServiceImpl implements GestionInventarioService {
             
             boolean exito = productoDAO.agregar(producto);
             if (exito) {
-                arbolProductos.insertar(producto);
                 notificarObservadores(producto, "PRODUCTO_CREADO");
                 logger.info("Producto registrado: " + producto.getId() + " - " + producto.getNombre());
             }
@@ -80,7 +84,6 @@ public class GestionInventarioServiceImpl implements GestionInventarioService {
             
             boolean exito = productoDAO.actualizar(producto);
             if (exito) {
-                arbolProductos.actualizar(producto);
                 notificarObservadores(producto, "PRODUCTO_ACTUALIZADO");
                 logger.info("Producto actualizado: " + producto.getId());
             }
@@ -104,7 +107,6 @@ public class GestionInventarioServiceImpl implements GestionInventarioService {
             boolean exito = productoDAO.actualizar(producto);
             
             if (exito) {
-                arbolProductos.eliminar(producto);
                 notificarObservadores(producto, "PRODUCTO_ELIMINADO");
                 logger.info("Producto eliminado (lógico): " + id);
             }
@@ -120,17 +122,9 @@ public class GestionInventarioServiceImpl implements GestionInventarioService {
     @Override
     public Producto buscarProducto(String id) throws ProductoNoEncontradoException {
         try {
-            // Búsqueda en árbol binario
-            Producto producto = arbolProductos.buscar(new Producto(id, "", CategoriaProducto.HERRAMIENTAS_MANUALES, 0, 0, null));
-            
-            if (producto == null) {
-                // Volver al DAO si no está en el árbol
-                producto = productoDAO.obtenerPorId(id)
-                    .orElseThrow(() -> new ProductoNoEncontradoException("Producto no encontrado: " + id));
-                arbolProductos.insertar(producto); // Agregar al árbol para futuras búsquedas
-            }
-            
-            return producto;
+            // Copia del catálogo compartido: quien la modifique no altera a los demás
+            return productoDAO.obtenerPorId(id)
+                .orElseThrow(() -> new ProductoNoEncontradoException("Producto no encontrado: " + id));
         } catch (ProductoNoEncontradoException e) {
             throw e;
         } catch (Exception e) {
@@ -169,30 +163,29 @@ public class GestionInventarioServiceImpl implements GestionInventarioService {
         return productoDAO.obtenerPorEstado(EstadoProducto.STOCK_CRITICO);
     }
     
+    @Override
+    public List<Producto> obtenerProductosMasCriticos(int limite) {
+        return productoDAO.obtenerMasCriticos(limite);
+    }
+    
     // ===== IMPLEMENTACIÓN MOVIMIENTOS DE INVENTARIO =====
     
     @Override
     public boolean registrarEntrada(String productoId, int cantidad, String motivo, 
                                   String usuarioId, String referencia) throws ProductoNoEncontradoException {
         try {
-            Producto producto = buscarProducto(productoId);
-            
+            validarCantidad(cantidad);
             MovimientoInventario movimiento = new MovimientoInventario(
                 productoId, TipoMovimiento.ENTRADA, cantidad, motivo, usuarioId, referencia
             );
             
-            boolean movimientoRegistrado = movimientoDAO.registrar(movimiento);
-            if (movimientoRegistrado) {
-                // Actualizar stock
-                producto.aumentarStock(cantidad);
-                productoDAO.actualizar(producto);
-                arbolProductos.actualizar(producto);
-                
-                notificarObservadores(producto, "ENTRADA_REGISTRADA");
-                logger.logMovimiento(usuarioId, productoId, "ENTRADA", cantidad);
-            }
+            aplicarMovimientoStock(movimiento, cantidad);
+            Producto producto = buscarProducto(productoId);
+            
+            notificarObservadores(producto, "ENTRADA_REGISTRADA");
+            logger.logMovimiento(usuarioId, productoId, "ENTRADA", cantidad);
             
-            return movimientoRegistrado;
+            return true;
         } catch (ProductoNoEncontradoException e) {
             throw e;
         } catch (Exception e) {
@@ -206,32 +199,20 @@ public class GestionInventarioServiceImpl implements GestionInventarioService {
                                  String usuarioId, String referencia) 
                                  throws StockInsuficienteException, ProductoNoEncontradoException {
         try {
-            Producto producto = buscarProducto(productoId);
-            
-            if (!producto.tieneStockSuficiente(cantidad)) {
-                throw new StockInsuficienteException(
-                    "Stock insuficiente para " + producto.getNombre() + 
-                    ". Stock actual: " + producto.getStockActual() + 
-                    ", solicitado: " + cantidad
-                );
-            }
-            
+            validarCantidad(cantidad);
             MovimientoInventario movimiento = new MovimientoInventario(
                 productoId, TipoMovimiento.SALIDA, cantidad, motivo, usuarioId, referencia
             );
             
-            boolean movimientoRegistrado = movimientoDAO.registrar(movimiento);
-            if (movimientoRegistrado) {
-                // Actualizar stock
-                producto.disminuirStock(cantidad);
-                productoDAO.actualizar(producto);
-                arbolProductos.actualizar(producto);
-                
-                notificarObservadores(producto, "SALIDA_REGISTRADA");
-                logger.logMovimiento(usuarioId, productoId, "SALIDA", cantidad);
-            }
+            // La verificación de stock la hace el UPDATE condicional, sin lectura previa
+            aplicarMovimientoStock(movimiento, -cantidad);
+            rankingSalidas.registrar(productoId, TipoMovimiento.SALIDA, cantidad);
+            Producto producto = buscarProducto(productoId);
+            
+            notificarObservadores(producto, "SALIDA_REGISTRADA");
+            logger.logMovimiento(usuarioId, productoId, "SALIDA", cantidad);
             
-            return movimientoRegistrado;
+            return true;
         } catch (StockInsuficienteException | ProductoNoEncontradoException e) {
             throw e;
         } catch (Exception e) {
@@ -244,26 +225,34 @@ public class GestionInventarioServiceImpl implements GestionInventarioService {
     public boolean registrarAjuste(String productoId, int nuevoStock, String motivo, 
                                  String usuarioId) throws ProductoNoEncontradoException {
         try {
+            int diferencia = unidadDeTrabajo.ejecutar(() -> {
+                // El UPDATE sin variación toma el bloqueo de escritura y devuelve el stock vigente,
+                // así la diferencia no parte de una copia desactualizada
+                int stockActual = productoDAO.ajustarStock(productoId, 0);
+                if (stockActual < 0) {
+                    throw new ProductoNoEncontradoException("Producto no encontrado: " + productoId);
+                }
+                int variacion = nuevoStock - stockActual;
+                if (productoDAO.ajustarStock(productoId, variacion) < 0) {
+                    throw new DatabaseException("No se pudo actualizar el stock del producto: " + productoId,
+                                              "UPDATE PRODUCTOS", null);
+                }
+                
+                MovimientoInventario movimiento = new MovimientoInventario(
+                    productoId, TipoMovimiento.AJUSTE, Math.abs(variacion), motivo, usuarioId, "AJUSTE"
+                );
+                if (!movimientoDAO.registrar(movimiento)) {
+                    throw new DatabaseException("No se pudo registrar el movimiento del producto: " + productoId,
+                                              "INSERT INTO MOVIMIENTOS", null);
+                }
+                return variacion;
+            });
             Producto producto = buscarProducto(productoId);
-            int diferencia = nuevoStock - producto.getStockActual();
-            TipoMovimiento tipo = diferencia > 0 ? TipoMovimiento.ENTRADA : TipoMovimiento.SALIDA;
-            
-            MovimientoInventario movimiento = new MovimientoInventario(
-                productoId, TipoMovimiento.AJUSTE, Math.abs(diferencia), motivo, usuarioId, "AJUSTE"
-            );
             
-            boolean movimientoRegistrado = movimientoDAO.registrar(movimiento);
-            if (movimientoRegistrado) {
-                producto.setStockActual(nuevoStock);
-                producto.actualizarEstado();
-                productoDAO.actualizar(producto);
-                arbolProductos.actualizar(producto);
-                
-                notificarObservadores(producto, "AJUSTE_REGISTRADO");
-                logger.logMovimiento(usuarioId, productoId, "AJUSTE", Math.abs(diferencia));
-            }
+            notificarObservadores(producto, "AJUSTE_REGISTRADO");
+            logger.logMovimiento(usuarioId, productoId, "AJUSTE", Math.abs(diferencia));
             
-            return movimientoRegistrado;
+            return true;
         } catch (ProductoNoEncontradoException e) {
             throw e;
         } catch (Exception e) {
@@ -272,6 +261,45 @@ public class GestionInventarioServiceImpl implements GestionInventarioService {
         }
     }
     
+    // ajustarStock suma la variación tal cual: una cantidad no positiva invertiría el movimiento
+    private void validarCantidad(int cantidad) throws ValidacionException {
+        if (cantidad <= 0) {
+            throw new ValidacionException("MovimientoInventario", "La cantidad debe ser mayor que cero: " + cantidad);
+        }
+    }
+    
+    // Aplica la variación de stock en SQL y registra el movimiento en la misma transacción
+    private int aplicarMovimientoStock(MovimientoInventario movimiento, int variacion) throws InventarioException {
+        String productoId = movimiento.getProductoId();
+        
+        return unidadDeTrabajo.ejecutar(() -> {
+            int nuevoStock = productoDAO.ajustarStock(productoId, variacion);
+            if (nuevoStock < 0) {
+                // El UPDATE no afectó filas: determinar el motivo
+                Producto actual = productoDAO.obtenerPorId(productoId)
+                    .orElseThrow(() -> new ProductoNoEncontradoException("Producto no encontrado: " + productoId));
+                if (actual.getStockActual() + variacion < 0) {
+                    throw new StockInsuficienteException(
+                        "Stock insuficiente para " + actual.getNombre() + 
+                        ". Stock actual: " + actual.getStockActual() + 
+                        ", solicitado: " + Math.abs(variacion)
+                    );
+                }
+                throw new DatabaseException("No se pudo actualizar el stock del producto: " + productoId,
+                                          "UPDATE PRODUCTOS", null);
+            }
+            
+            if (!movimientoDAO.registrar(movimiento)) {
+                throw new DatabaseException("No se pudo registrar el movimiento del producto: " + productoId,
+                                          "INSERT INTO MOVIMIENTOS", null);
+            }
+            if (movimiento.esSalida() && pronosticoConsumo != null) {
+                pronosticoConsumo.registrarSalida(productoId, movimiento.getCantidad());
+            }
+            return nuevoStock;
+        });
+    }
+    
     // ===== IMPLEMENTACIÓN CONSULTAS DE INVENTARIO =====
     
     @Override
@@ -307,6 +335,22 @@ public class GestionInventarioServiceImpl implements GestionInventarioService {
         return movimientoDAO.obtenerPorFecha(fechaInicio, fechaFin);
     }
     
+    @Override
+    public Pagina<MovimientoInventario> obtenerPaginaMovimientos(String token, int tamaño) {
+        return movimientoDAO.obtenerPagina(token, tamaño);
+    }
+    
+    @Override
+    public Pagina<MovimientoInventario> obtenerPaginaMovimientosPorTipo(TipoMovimiento tipo, String token, int tamaño) {
+        return movimientoDAO.obtenerPaginaPorTipo(tipo, token, tamaño);
+    }
+    
+    @Override
+    public Pagina<MovimientoInventario> obtenerPaginaMovimientosPorFecha(Date fechaInicio, Date fechaFin, 
+                                                                        String token, int tamaño) {
+        return movimientoDAO.obtenerPaginaPorFecha(fechaInicio, fechaFin, token, tamaño);
+    }
+    
     // ===== IMPLEMENTACIÓN GESTIÓN DE PROVEEDORES =====
     
     @Override
@@ -402,21 +446,21 @@ public class GestionInventarioServiceImpl implements GestionInventarioService {
     
     @Override
     public int contarProductosPorCategoria(CategoriaProducto categoria) {
-        return productoDAO.obtenerPorCategoria(categoria).size();
+        return productoDAO.contarPorCategoria(categoria);
     }
     
     @Override
     public List<Producto> obtenerProductosMasMovidos(int limite) {
-        List<Producto> todosProductos = listarProductos();
-        
-        return todosProductos.stream()
-                .sorted((p1, p2) -> {
-                    int movimientosP1 = movimientoDAO.obtenerTotalMovimientosPorProducto(p1.getId(), TipoMovimiento.SALIDA);
-                    int movimientosP2 = movimientoDAO.obtenerTotalMovimientosPorProducto(p2.getId(), TipoMovimiento.SALIDA);
-                    return Integer.compare(movimientosP2, movimientosP1);
-                })
-                .limit(limite)
-                .collect(Collectors.toList());
+        // El ranking ya tiene los totales de salida: solo se resuelven los productos del top
+        List<Producto> productos = new ArrayList<>();
+        for (String productoId : rankingSalidas.obtenerTop(limite)) {
+            try {
+                productos.add(buscarProducto(productoId));
+            } catch (ProductoNoEncontradoException e) {
+                logger.warning("Producto del ranking no encontrado: " + productoId);
+            }
+        }
+        return productos;
     }
     
     // ===== PATRÓN OBSERVER =====
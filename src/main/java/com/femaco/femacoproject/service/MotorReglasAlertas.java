@@ -0,0 +1,258 @@
+package com.femaco.femacoproject.service;
+
+import com.femaco.femacoproject.model.Producto;
+import com.femaco.femacoproject.model.enums.CategoriaProducto;
+import com.femaco.femacoproject.model.enums.EstadoProducto;
+import com.femaco.femacoproject.model.enums.TipoAlerta;
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Reglas de alerta por producto, compiladas a partir de los umbrales configurados.
+ * Cada umbral se declara con una clave:
+ * <ul>
+ *   <li>{@code TIPO}: para todo el catálogo, p. ej. {@code STOCK_PROXIMO_MINIMO = 150};</li>
+ *   <li>{@code TIPO.categoria.CATEGORIA}: para una categoría;</li>
+ *   <li>{@code TIPO.producto.ID}: para un producto concreto.</li>
+ * </ul>
+ * La regla más específica gana. STOCK_BAJO y STOCK_PROXIMO_MINIMO se expresan en
+ * porcentaje del stock mínimo, STOCK_CRITICO en unidades y STOCK_MINIMO_PROYECTADO en
+ * días hasta llegar al mínimo según el consumo pronosticado. Al compilar se resuelve la
+ * precedencia y se arma una tabla de predicados por tipo y categoría (más una fila por
+ * cada producto con reglas propias), así que evaluar un producto es buscar en la tabla
+ * y aplicar el predicado, sin interpretar las reglas.
+ */
+class MotorReglasAlertas {
+    private static final String PREFIJO_CATEGORIA = ".categoria.";
+    private static final String PREFIJO_PRODUCTO = ".producto.";
+
+    // Umbrales por defecto: reproducen las verificaciones originales
+    static final int UMBRAL_STOCK_BAJO = 100;
+    static final int UMBRAL_STOCK_CRITICO = 0;
+    static final int UMBRAL_STOCK_PROXIMO_MINIMO = 150;
+    static final int UMBRAL_STOCK_MINIMO_PROYECTADO = 3;
+
+    // Tipos cuyo umbral se puede configurar
+    private static final List<TipoAlerta> TIPOS_CONFIGURABLES = List.of(
+        TipoAlerta.STOCK_BAJO, TipoAlerta.STOCK_CRITICO,
+        TipoAlerta.STOCK_PROXIMO_MINIMO, TipoAlerta.STOCK_MINIMO_PROYECTADO);
+
+    // Tipos que se evalúan producto a producto, en orden de evaluación
+    static final List<TipoAlerta> TIPOS_PRODUCTO = List.of(
+        TipoAlerta.STOCK_BAJO, TipoAlerta.STOCK_CRITICO,
+        TipoAlerta.STOCK_PROXIMO_MINIMO, TipoAlerta.STOCK_MINIMO_PROYECTADO,
+        TipoAlerta.PRODUCTO_SIN_PROVEEDOR);
+
+    @FunctionalInterface
+    interface Regla {
+        boolean cumple(Producto producto);
+    }
+
+    // Días hasta el mínimo según el consumo; sin pronóstico, ningún producto llega
+    private static final ToDoubleFunction<Producto> SIN_PRONOSTICO = p -> Double.POSITIVE_INFINITY;
+
+    private static final Regla SIN_PROVEEDOR = p -> p.getEstado() != EstadoProducto.INACTIVO
+        && (p.getProveedorId() == null || p.getProveedorId().trim().isEmpty());
+
+    // [tipo][categoría] y, para los productos con reglas propias, [categoría * tipos + tipo]
+    private final Regla[][] porCategoria;
+    private final Map<String, Regla[]> porProducto;
+    private final int cantidadReglas;
+
+    private MotorReglasAlertas(Regla[][] porCategoria, Map<String, Regla[]> porProducto, int cantidadReglas) {
+        this.porCategoria = porCategoria;
+        this.porProducto = porProducto;
+        this.cantidadReglas = cantidadReglas;
+    }
+
+    /**
+     * Compila los umbrales; las claves que no corresponden a un tipo configurable
+     * (por ejemplo INACTIVIDAD) se ignoran.
+     * @throws IllegalArgumentException si una clave de regla está mal formada
+     */
+    static MotorReglasAlertas compilar(Map<String, Integer> umbrales) {
+        return compilar(umbrales, SIN_PRONOSTICO);
+    }
+
+    /**
+     * Compila los umbrales usando {@code diasHastaMinimo} para STOCK_MINIMO_PROYECTADO.
+     * @throws IllegalArgumentException si una clave de regla está mal formada
+     */
+    static MotorReglasAlertas compilar(Map<String, Integer> umbrales, ToDoubleFunction<Producto> diasHastaMinimo) {
+        int tipos = TipoAlerta.values().length;
+        // Una columna por categoría más una para los productos sin categoría
+        int categorias = CategoriaProducto.values().length + 1;
+
+        // Umbral efectivo por tipo y categoría, y los propios de cada producto
+        int[][] umbralPorCategoria = new int[tipos][categorias];
+        Map<String, Map<TipoAlerta, Integer>> umbralPorProducto = new HashMap<>();
+        for (TipoAlerta tipo : TipoAlerta.values()) {
+            Arrays.fill(umbralPorCategoria[tipo.ordinal()], umbralPorDefecto(tipo));
+        }
+
+        int cantidadReglas = 0;
+        Map<String, Integer> porCategoria = new HashMap<>();
+        for (Map.Entry<String, Integer> entrada : umbrales.entrySet()) {
+            String clave = entrada.getKey();
+            TipoAlerta tipo = tipoDeClave(clave);
+            if (tipo == null) {
+                continue;
+            }
+            cantidadReglas++;
+            String resto = clave.substring(tipo.name().length());
+            if (resto.isEmpty()) {
+                Arrays.fill(umbralPorCategoria[tipo.ordinal()], entrada.getValue());
+            } else if (resto.startsWith(PREFIJO_CATEGORIA)) {
+                porCategoria.put(clave, entrada.getValue());
+            } else if (resto.startsWith(PREFIJO_PRODUCTO) && resto.length() > PREFIJO_PRODUCTO.length()) {
+                umbralPorProducto.computeIfAbsent(resto.substring(PREFIJO_PRODUCTO.length()), k -> new EnumMap<>(TipoAlerta.class))
+                                 .put(tipo, entrada.getValue());
+            } else {
+                throw new IllegalArgumentException("Clave de regla de alerta inválida: " + clave);
+            }
+        }
+        // Las de categoría se aplican después de las globales, sin importar el orden del mapa
+        for (Map.Entry<String, Integer> entrada : porCategoria.entrySet()) {
+            TipoAlerta tipo = tipoDeClave(entrada.getKey());
+            String nombre = entrada.getKey().substring(tipo.name().length() + PREFIJO_CATEGORIA.length());
+            CategoriaProducto categoria;
+            try {
+                categoria = CategoriaProducto.valueOf(nombre);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Categoría desconocida en regla de alerta: " + entrada.getKey());
+            }
+            umbralPorCategoria[tipo.ordinal()][categoria.ordinal()] = entrada.getValue();
+        }
+
+        Regla[][] reglas = new Regla[tipos][categorias];
+        for (int c = 0; c < categorias; c++) {
+            Map<TipoAlerta, Integer> umbralesCategoria = new EnumMap<>(TipoAlerta.class);
+            for (TipoAlerta tipo : TIPOS_PRODUCTO) {
+                umbralesCategoria.put(tipo, umbralPorCategoria[tipo.ordinal()][c]);
+            }
+            Regla[] compiladas = compilarTipos(umbralesCategoria, diasHastaMinimo);
+            for (TipoAlerta tipo : TIPOS_PRODUCTO) {
+                reglas[tipo.ordinal()][c] = compiladas[tipo.ordinal()];
+            }
+        }
+
+        // Un producto con reglas propias hereda de su categoría lo que no redefine; como la
+        // categoría del producto puede cambiar, se compila una fila por cada categoría
+        Map<String, Regla[]> reglasProducto = new HashMap<>();
+        for (Map.Entry<String, Map<TipoAlerta, Integer>> entrada : umbralPorProducto.entrySet()) {
+            Regla[][] filas = new Regla[categorias][];
+            for (int c = 0; c < categorias; c++) {
+                Map<TipoAlerta, Integer> efectivos = new EnumMap<>(TipoAlerta.class);
+                for (TipoAlerta tipo : TIPOS_PRODUCTO) {
+                    efectivos.put(tipo, entrada.getValue().getOrDefault(tipo, umbralPorCategoria[tipo.ordinal()][c]));
+                }
+                filas[c] = compilarTipos(efectivos, diasHastaMinimo);
+            }
+            // Se aplana a [categoría * tipos + tipo] para una sola búsqueda por producto
+            Regla[] plano = new Regla[categorias * tipos];
+            for (int c = 0; c < categorias; c++) {
+                System.arraycopy(filas[c], 0, plano, c * tipos, tipos);
+            }
+            reglasProducto.put(entrada.getKey(), plano);
+        }
+
+        return new MotorReglasAlertas(reglas, reglasProducto, cantidadReglas);
+    }
+
+    /** Indica si la clave es de una regla (aunque esté mal formada). */
+    static boolean esClaveDeRegla(String clave) {
+        return tipoDeClave(clave) != null;
+    }
+
+    boolean cumple(TipoAlerta tipo, Producto producto) {
+        Regla regla = regla(tipo, producto);
+        return regla != null && regla.cumple(producto);
+    }
+
+    /** Tipos de alerta que cumple el producto, en una sola pasada por sus reglas. */
+    EnumSet<TipoAlerta> evaluar(Producto producto) {
+        EnumSet<TipoAlerta> cumplidas = EnumSet.noneOf(TipoAlerta.class);
+        for (TipoAlerta tipo : TIPOS_PRODUCTO) {
+            if (cumple(tipo, producto)) {
+                cumplidas.add(tipo);
+            }
+        }
+        return cumplidas;
+    }
+
+    int getCantidadReglas() {
+        return cantidadReglas;
+    }
+
+    private Regla regla(TipoAlerta tipo, Producto producto) {
+        int categoria = producto.getCategoria() != null
+            ? producto.getCategoria().ordinal()
+            : CategoriaProducto.values().length;
+        if (!porProducto.isEmpty()) {
+            Regla[] propias = porProducto.get(producto.getId());
+            if (propias != null) {
+                return propias[categoria * TipoAlerta.values().length + tipo.ordinal()];
+            }
+        }
+        return porCategoria[tipo.ordinal()][categoria];
+    }
+
+    // Compila las reglas de producto para un juego de umbrales ya resuelto
+    private static Regla[] compilarTipos(Map<TipoAlerta, Integer> umbrales, ToDoubleFunction<Producto> diasHastaMinimo) {
+        Regla[] reglas = new Regla[TipoAlerta.values().length];
+
+        double ratioBajo = umbrales.get(TipoAlerta.STOCK_BAJO) / 100.0;
+        Regla bajo = p -> p.getEstado() != EstadoProducto.DESCONTINUADO && p.calcularRatioStock() <= ratioBajo;
+        reglas[TipoAlerta.STOCK_BAJO.ordinal()] = bajo;
+
+        int unidadesCritico = umbrales.get(TipoAlerta.STOCK_CRITICO);
+        reglas[TipoAlerta.STOCK_CRITICO.ordinal()] = unidadesCritico == UMBRAL_STOCK_CRITICO
+            ? p -> p.getEstado() == EstadoProducto.STOCK_CRITICO
+            : p -> p.getEstado() == EstadoProducto.STOCK_CRITICO
+                || (p.getEstado() != EstadoProducto.DESCONTINUADO && p.getStockActual() <= unidadesCritico);
+
+        // Próximo al mínimo: vigente, todavía no en stock bajo y por debajo de su propio umbral
+        double ratioProximo = umbrales.get(TipoAlerta.STOCK_PROXIMO_MINIMO) / 100.0;
+        reglas[TipoAlerta.STOCK_PROXIMO_MINIMO.ordinal()] = p -> p.getEstado() != EstadoProducto.INACTIVO
+            && p.getEstado() != EstadoProducto.DESCONTINUADO
+            && p.calcularRatioStock() <= ratioProximo
+            && !bajo.cumple(p);
+
+        // Mínimo proyectado: vigente, todavía no en stock bajo y que al ritmo de consumo
+        // actual llega al mínimo dentro del plazo
+        int diasProyectado = umbrales.get(TipoAlerta.STOCK_MINIMO_PROYECTADO);
+        reglas[TipoAlerta.STOCK_MINIMO_PROYECTADO.ordinal()] = p -> p.getEstado() != EstadoProducto.INACTIVO
+            && p.getEstado() != EstadoProducto.DESCONTINUADO
+            && !bajo.cumple(p)
+            && diasHastaMinimo.applyAsDouble(p) <= diasProyectado;
+
+        reglas[TipoAlerta.PRODUCTO_SIN_PROVEEDOR.ordinal()] = SIN_PROVEEDOR;
+        return reglas;
+    }
+
+    private static int umbralPorDefecto(TipoAlerta tipo) {
+        switch (tipo) {
+            case STOCK_BAJO:
+                return UMBRAL_STOCK_BAJO;
+            case STOCK_CRITICO:
+                return UMBRAL_STOCK_CRITICO;
+            case STOCK_PROXIMO_MINIMO:
+                return UMBRAL_STOCK_PROXIMO_MINIMO;
+            case STOCK_MINIMO_PROYECTADO:
+                return UMBRAL_STOCK_MINIMO_PROYECTADO;
+            default:
+                return 0;
+        }
+    }
+
+    // Tipo configurable al que se refiere la clave, o null si no es una clave de regla
+    private static TipoAlerta tipoDeClave(String clave) {
+        for (TipoAlerta tipo : TIPOS_CONFIGURABLES) {
+            String nombre = tipo.name();
+            if (clave.equals(nombre) || clave.startsWith(nombre + ".")) {
+                return tipo;
+            }
+        }
+        return null;
+    }
+}
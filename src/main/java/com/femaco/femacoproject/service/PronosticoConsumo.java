@@ -0,0 +1,148 @@
+package com.femaco.femacoproject.service;
+
+import com.femaco.femacoproject.dao.ConsumoDAO;
+import com.femaco.femacoproject.dao.ProductoDAO;
+import com.femaco.femacoproject.dao.UnidadDeTrabajo;
+import com.femaco.femacoproject.exception.DatabaseException;
+import com.femaco.femacoproject.model.ConsumoProducto;
+import com.femaco.femacoproject.model.Producto;
+import com.femaco.femacoproject.model.PronosticoStock;
+import com.femaco.femacoproject.model.enums.EstadoProducto;
+import com.femaco.femacoproject.util.Logger;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tasa de consumo diario por producto ({@link ConsumoProducto}) y la proyección de días
+ * hasta el mínimo y hasta agotarse. Cada salida actualiza la tasa de su producto dentro
+ * de la misma transacción del movimiento, y las tasas se mantienen en memoria, así que
+ * pronosticar no consulta MOVIMIENTOS. Solo al iniciar por primera vez, o si cambia el
+ * suavizado (se guarda con las tasas), se reconstruyen desde el resumen diario de
+ * movimientos.
+ * <p>
+ * Las tasas se leen con {@link #cargar()}, que puede tardar y debe llamarse una vez en
+ * segundo plano. Hasta que termine, los pronósticos dan sin consumo; las salidas ya
+ * actualizan la base de datos y las que se confirmen durante la carga se releen al final.
+ * <p>
+ * El suavizado se expresa en días N, con factor 2 / (N + 1).
+ */
+public class PronosticoConsumo {
+    private final ConsumoDAO consumoDAO;
+    private final ProductoDAO productoDAO;
+    private final double alfa;
+    private final Map<String, ConsumoProducto> consumos;
+    private final Set<String> salidasDuranteCarga;
+    private volatile boolean cargando;
+    private final Logger logger;
+
+    public PronosticoConsumo(ConsumoDAO consumoDAO, ProductoDAO productoDAO, int diasSuavizado) {
+        if (diasSuavizado < 1) {
+            throw new IllegalArgumentException("Días de suavizado inválidos: " + diasSuavizado);
+        }
+        this.consumoDAO = consumoDAO;
+        this.productoDAO = productoDAO;
+        this.alfa = 2.0 / (diasSuavizado + 1);
+        this.consumos = new ConcurrentHashMap<>();
+        this.salidasDuranteCarga = ConcurrentHashMap.newKeySet();
+        this.cargando = true;
+        this.logger = Logger.getInstance();
+    }
+
+    public void cargar() {
+        long inicio = System.currentTimeMillis();
+        // Una tabla vacía está al día si ya se reconstruyó con este suavizado
+        if (consumoDAO.obtenerAlfa() != alfa) {
+            // Si falla, quedan las tasas anteriores, que siguen siendo válidas con su propio suavizado
+            if (consumoDAO.reconstruir(alfa) < 0) {
+                logger.warning("No se pudo reconstruir el consumo de productos");
+            }
+        }
+        for (ConsumoProducto consumo : consumoDAO.obtenerTodos()) {
+            consumos.put(consumo.getProductoId(), consumo);
+        }
+        cargando = false;
+        // Lo leído pudo no incluir las salidas confirmadas durante la carga
+        for (String productoId : salidasDuranteCarga) {
+            releer(productoId);
+        }
+        salidasDuranteCarga.clear();
+        logger.info("Consumo de productos cargado: " + consumos.size() + " productos en " +
+                    (System.currentTimeMillis() - inicio) + " ms");
+    }
+
+    /**
+     * Suma la salida a la tasa del producto. Se llama dentro de la transacción del
+     * movimiento; la tasa en memoria se actualiza al terminar, con lo que haya quedado
+     * en la base de datos.
+     */
+    public void registrarSalida(String productoId, int cantidad) throws DatabaseException {
+        long hoy = LocalDate.now().toEpochDay();
+        ConsumoProducto nuevo = consumoDAO.obtenerPorProducto(productoId)
+            .map(actual -> actual.registrarSalida(cantidad, hoy))
+            .orElseGet(() -> ConsumoProducto.primeraSalida(productoId, alfa, cantidad, hoy));
+        if (!consumoDAO.guardar(nuevo)) {
+            throw new DatabaseException("No se pudo actualizar el consumo del producto: " + productoId,
+                                      "INSERT INTO CONSUMO_PRODUCTOS", null);
+        }
+        if (!UnidadDeTrabajo.alFinalizar(() -> releer(productoId))) {
+            releer(productoId);
+        }
+    }
+
+    /** Unidades por día que consume el producto; 0 si no tiene salidas. */
+    public double getTasaDiaria(String productoId) {
+        ConsumoProducto consumo = consumos.get(productoId);
+        return consumo != null ? consumo.getTasaDiaria(LocalDate.now().toEpochDay()) : 0;
+    }
+
+    public PronosticoStock pronosticar(Producto producto) {
+        return new PronosticoStock(producto, getTasaDiaria(producto.getId()));
+    }
+
+    /** Días hasta que el producto llegue a su stock mínimo; infinito si no tiene consumo. */
+    public double diasHastaMinimo(Producto producto) {
+        return pronosticar(producto).getDiasHastaMinimo();
+    }
+
+    /**
+     * Productos vigentes con consumo ordenados por días hasta el mínimo y luego hasta
+     * agotarse. Solo recorre los productos con salidas.
+     */
+    public List<PronosticoStock> obtenerProximosAlMinimo(int limite) {
+        long hoy = LocalDate.now().toEpochDay();
+        List<PronosticoStock> pronosticos = new ArrayList<>();
+        for (ConsumoProducto consumo : consumos.values()) {
+            double tasa = consumo.getTasaDiaria(hoy);
+            if (tasa <= 0) {
+                continue;
+            }
+            productoDAO.obtenerPorId(consumo.getProductoId())
+                .filter(p -> p.getEstado() != EstadoProducto.INACTIVO && p.getEstado() != EstadoProducto.DESCONTINUADO)
+                .ifPresent(p -> pronosticos.add(new PronosticoStock(p, tasa)));
+        }
+        pronosticos.sort(Comparator.comparingDouble(PronosticoStock::getDiasHastaMinimo)
+                                   .thenComparingDouble(PronosticoStock::getDiasHastaAgotar)
+                                   .thenComparing(p -> p.getProducto().getId()));
+        return pronosticos.size() > limite ? new ArrayList<>(pronosticos.subList(0, limite)) : pronosticos;
+    }
+
+    // Entre dos transacciones que terminan a la vez gana la versión más nueva. Durante la
+    // carga solo se anota el producto, porque una reconstrucción cambia las versiones
+    private void releer(String productoId) {
+        if (cargando) {
+            salidasDuranteCarga.add(productoId);
+            // Se comprueba después de anotarlo: si la carga termina entre medias, lo relee ella o este hilo
+            if (cargando) {
+                return;
+            }
+        }
+        try {
+            consumoDAO.obtenerPorProducto(productoId).ifPresent(leido ->
+                consumos.merge(productoId, leido, (actual, nuevo) -> nuevo.getVersion() >= actual.getVersion() ? nuevo : actual));
+        } catch (DatabaseException e) {
+            // Queda la tasa anterior hasta la próxima salida del producto
+            logger.error("No se pudo releer el consumo del producto: " + productoId, e);
+        }
+    }
+}
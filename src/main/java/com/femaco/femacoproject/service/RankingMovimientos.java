@@ -0,0 +1,70 @@
+package com.femaco.femacoproject.service;
+
+import com.femaco.femacoproject.dao.MovimientoDAO;
+import com.femaco.femacoproject.model.enums.TipoMovimiento;
+import com.femaco.femacoproject.util.Logger;
+
+import java.util.*;
+
+/**
+ * Ranking de productos por unidades movidas de un tipo de movimiento.
+ * Los totales se cargan con una sola consulta agrupada al crearlo, antes de que se
+ * registre ningún movimiento, y luego se mantienen al día sumando cada uno.
+ */
+public class RankingMovimientos {
+    // Mayor total primero; a igual total, orden por id para que el ranking sea estable
+    private static final Comparator<Map.Entry<String, Integer>> POR_TOTAL_DESC =
+        Map.Entry.<String, Integer>comparingByValue().reversed()
+            .thenComparing(Map.Entry.comparingByKey());
+
+    private final TipoMovimiento tipo;
+    private final Map<String, Integer> totales;
+    private final Logger logger;
+
+    // Una carga perezosa podría leer un movimiento ya confirmado que luego se suma otra vez
+    public RankingMovimientos(MovimientoDAO movimientoDAO, TipoMovimiento tipo) {
+        this.tipo = tipo;
+        this.logger = Logger.getInstance();
+        long inicio = System.currentTimeMillis();
+        this.totales = new HashMap<>(movimientoDAO.obtenerTotalesPorProducto(tipo));
+        logger.info(String.format("Ranking de %s cargado: %d productos en %d ms", tipo,
+                                  totales.size(), System.currentTimeMillis() - inicio));
+    }
+
+    // Suma un movimiento ya confirmado
+    public synchronized void registrar(String productoId, TipoMovimiento tipoMovimiento, int cantidad) {
+        if (tipoMovimiento == tipo) {
+            totales.merge(productoId, cantidad, Integer::sum);
+        }
+    }
+
+    /**
+     * Ids de los productos con mayor total, de mayor a menor.
+     * Usa un montículo acotado a {@code limite} elementos: O(P log N) sin ordenar todo.
+     */
+    public synchronized List<String> obtenerTop(int limite) {
+        if (limite <= 0) {
+            return Collections.emptyList();
+        }
+
+        // Montículo de mínimos: la raíz es el peor del top actual y se descarta primero
+        PriorityQueue<Map.Entry<String, Integer>> monticulo =
+            new PriorityQueue<>(limite + 1, POR_TOTAL_DESC.reversed());
+        for (Map.Entry<String, Integer> entrada : totales.entrySet()) {
+            if (monticulo.size() < limite) {
+                monticulo.offer(entrada);
+            } else if (POR_TOTAL_DESC.compare(entrada, monticulo.peek()) < 0) {
+                monticulo.poll();
+                monticulo.offer(entrada);
+            }
+        }
+
+        List<Map.Entry<String, Integer>> top = new ArrayList<>(monticulo);
+        top.sort(POR_TOTAL_DESC);
+        List<String> ids = new ArrayList<>(top.size());
+        for (Map.Entry<String, Integer> entrada : top) {
+            ids.add(entrada.getKey());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,156 @@
+package com.femaco.femacoproject.service;
+
+import com.femaco.femacoproject.dao.AlertaDAO;
+import com.femaco.femacoproject.model.Alerta;
+import com.femaco.femacoproject.model.enums.TipoAlerta;
+import com.femaco.femacoproject.util.Logger;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Alertas activas en memoria, indexadas por id (tipo y entidad) y agrupadas por tipo, de
+ * modo que registrar, resolver y contar cuestan O(1) y una misma situación no se repite.
+ * Cada alta, cambio o resolución se escribe en ALERTAS. Al crearse se recuperan las
+ * alertas que quedaron activas y se borran las resueltas hace más de los días de
+ * retención; las resueltas no se guardan en memoria.
+ */
+public class RegistroAlertas {
+    private static final long MS_POR_DIA = 24L * 60 * 60 * 1000;
+
+    private final AlertaDAO alertaDAO;
+    private final Logger logger;
+    // Orden de creación, para listar las alertas como se fueron generando
+    private final Map<String, Alerta> activas;
+    private final Map<TipoAlerta, Set<String>> idsPorTipo;
+    // Activas cuya última escritura en ALERTAS falló
+    private final Set<String> sinGuardar;
+    private volatile Consumer<Alerta> oyenteNuevas;
+
+    public RegistroAlertas(AlertaDAO alertaDAO, int diasRetencion) {
+        this.alertaDAO = alertaDAO;
+        this.logger = Logger.getInstance();
+        this.activas = new LinkedHashMap<>();
+        this.idsPorTipo = new EnumMap<>(TipoAlerta.class);
+        for (TipoAlerta tipo : TipoAlerta.values()) {
+            idsPorTipo.put(tipo, new HashSet<>());
+        }
+        this.sinGuardar = new HashSet<>();
+
+        int depuradas = alertaDAO.eliminarResueltasAntesDe(
+            new Date(System.currentTimeMillis() - diasRetencion * MS_POR_DIA));
+        if (depuradas > 0) {
+            logger.info("Alertas resueltas depuradas: " + depuradas);
+        }
+        for (Alerta alerta : alertaDAO.obtenerActivas()) {
+            agregarActiva(alerta);
+        }
+    }
+
+    /**
+     * Recibe cada alerta nueva; se invoca con el registro bloqueado, así que no debe
+     * demorarse (por ejemplo, solo encolar).
+     */
+    public void setOyenteNuevas(Consumer<Alerta> oyenteNuevas) {
+        this.oyenteNuevas = oyenteNuevas;
+    }
+    
+    /**
+     * Registra la alerta o, si ya está activa, actualiza su mensaje.
+     * @return true si la alerta es nueva
+     */
+    public synchronized boolean registrar(TipoAlerta tipo, String entidadId, String mensaje) {
+        Alerta existente = activas.get(Alerta.generarId(tipo, entidadId));
+        if (existente != null) {
+            if (!existente.getMensaje().equals(mensaje)) {
+                existente.setMensaje(mensaje);
+                persistir(existente);
+            } else if (sinGuardar.contains(existente.getId())) {
+                persistir(existente);
+            }
+            return false;
+        }
+
+        Alerta alerta = new Alerta(tipo, entidadId, mensaje);
+        agregarActiva(alerta);
+        persistir(alerta);
+        logger.warning("Alerta registrada: " + alerta);
+        Consumer<Alerta> oyente = oyenteNuevas;
+        if (oyente != null) {
+            oyente.accept(alerta);
+        }
+        return true;
+    }
+
+    public synchronized boolean resolver(String id) {
+        Alerta alerta = activas.remove(id);
+        if (alerta == null) {
+            return false;
+        }
+        idsPorTipo.get(alerta.getTipo()).remove(id);
+        sinGuardar.remove(id);
+        alerta.resolver();
+        if (!alertaDAO.resolver(id, alerta.getFechaResolucion())) {
+            logger.warning("No se pudo guardar la resolución de la alerta " + id);
+        }
+        return true;
+    }
+
+    /**
+     * Deja como activas de un tipo exactamente las indicadas: registra las nuevas,
+     * actualiza las que cambiaron y resuelve las que ya no se cumplen.
+     * @param vigentes id de entidad -> mensaje de cada alerta que se cumple ahora
+     * @return cantidad de alertas nuevas
+     */
+    public synchronized int sincronizar(TipoAlerta tipo, Map<String, String> vigentes) {
+        List<String> superadas = new ArrayList<>();
+        for (String id : idsPorTipo.get(tipo)) {
+            if (!vigentes.containsKey(activas.get(id).getEntidadId())) {
+                superadas.add(id);
+            }
+        }
+        for (String id : superadas) {
+            resolver(id);
+        }
+
+        int nuevas = 0;
+        for (Map.Entry<String, String> vigente : vigentes.entrySet()) {
+            if (registrar(tipo, vigente.getKey(), vigente.getValue())) {
+                nuevas++;
+            }
+        }
+        return nuevas;
+    }
+
+    // Copias hechas bajo el bloqueo: registrar cambia los mensajes de las alertas en memoria
+    public synchronized List<Alerta> obtenerActivas() {
+        List<Alerta> copias = new ArrayList<>(activas.size());
+        for (Alerta alerta : activas.values()) {
+            copias.add(new Alerta(alerta));
+        }
+        return copias;
+    }
+
+    public synchronized int contar(TipoAlerta tipo) {
+        return idsPorTipo.get(tipo).size();
+    }
+
+    public synchronized int contarActivas() {
+        return activas.size();
+    }
+
+    private void agregarActiva(Alerta alerta) {
+        activas.put(alerta.getId(), alerta);
+        idsPorTipo.get(alerta.getTipo()).add(alerta.getId());
+    }
+
+    // Si falla la escritura la alerta sigue activa en memoria; se reintenta la próxima vez
+    // que se registre, aunque no haya cambiado
+    private void persistir(Alerta alerta) {
+        if (alertaDAO.guardar(alerta)) {
+            sinGuardar.remove(alerta.getId());
+        } else {
+            sinGuardar.add(alerta.getId());
+            logger.warning("No se pudo guardar la alerta " + alerta.getId());
+        }
+    }
+}
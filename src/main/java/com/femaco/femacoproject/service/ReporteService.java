@@ -2,12 +2,14 @@ package com.femaco.femacoproject.service;
 
 import com.femaco.femacoproject.model.MovimientoInventario;
 import com.femaco.femacoproject.model.Producto;
+import com.femaco.femacoproject.model.PronosticoStock;
 import com.femaco.femacoproject.model.enums.CategoriaProducto;
 import com.femaco.femacoproject.model.enums.TipoMovimiento;
 
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 public interface ReporteService {
     // ===== REPORTES DE INVENTARIO =====
@@ -21,6 +23,15 @@ public interface ReporteService {
     // Generar reporte de productos con stock crítico
     List<Producto> generarReporteStockCritico();
     
+    // Generar reporte de los productos con menor relación stock/mínimo
+    List<Producto> generarReporteProductosMasCriticos(int limite);
+    
+    // Generar reporte de los productos que antes llegan al mínimo según su consumo diario
+    List<PronosticoStock> generarReportePronosticoAgotamiento(int limite);
+    
+    // Obtener los días hasta el mínimo y hasta agotarse de un producto
+    PronosticoStock obtenerPronosticoStock(Producto producto);
+    
     // Generar reporte de productos por categoría
     Map<CategoriaProducto, List<Producto>> generarReportePorCategoria();
     
@@ -32,6 +43,9 @@ public interface ReporteService {
     // Generar reporte de movimientos por período
     List<MovimientoInventario> generarReporteMovimientos(Date fechaInicio, Date fechaFin);
     
+    // Recorrer los movimientos del período sin cargarlos todos en memoria
+    boolean recorrerReporteMovimientos(Date fechaInicio, Date fechaFin, Consumer<MovimientoInventario> consumidor);
+    
     // Generar reporte de entradas por período
     List<MovimientoInventario> generarReporteEntradas(Date fechaInicio, Date fechaFin);
     
@@ -71,9 +85,15 @@ public interface ReporteService {
     // Exportar reporte a formato CSV
     boolean exportarReporteCSV(List<?> datos, String nombreArchivo);
     
+    // Exportar a CSV los movimientos del período leyéndolos directamente de la base de datos
+    boolean exportarMovimientosCSV(Date fechaInicio, Date fechaFin, String nombreArchivo);
+    
     // Exportar reporte a formato PDF
     boolean exportarReportePDF(List<?> datos, String nombreArchivo, String titulo);
     
     // Generar resumen ejecutivo del inventario
     Map<String, Object> generarResumenEjecutivo();
+    
+    // Recalcular el resumen diario de movimientos desde MOVIMIENTOS (devuelve filas generadas o -1)
+    int reconstruirResumenDiario();
 }
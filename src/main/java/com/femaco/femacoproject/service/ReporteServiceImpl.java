@@ -2,36 +2,66 @@ package com.femaco.femacoproject.service;
 
 import com.femaco.femacoproject.dao.MovimientoDAO;
 import com.femaco.femacoproject.dao.ProductoDAO;
+import com.femaco.femacoproject.dao.ResumenDiarioDAO;
+import com.femaco.femacoproject.dao.ResumenDiarioDAOImpl;
 import com.femaco.femacoproject.model.MovimientoInventario;
 import com.femaco.femacoproject.model.Producto;
+import com.femaco.femacoproject.model.PronosticoStock;
 import com.femaco.femacoproject.model.enums.CategoriaProducto;
 import com.femaco.femacoproject.model.enums.TipoMovimiento;
 import com.femaco.femacoproject.util.Logger;
 import static com.femaco.femacoproject.model.enums.EstadoProducto.*;
 
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public class ReporteServiceImpl implements ReporteService {
+    private static final String CARPETA_REPORTES = "reportes";
+    
     private final ProductoDAO productoDAO;
     private final MovimientoDAO movimientoDAO;
+    private final ResumenDiarioDAO resumenDiarioDAO;
     private final Logger logger;
+    private volatile PronosticoConsumo pronosticoConsumo;
     
     public ReporteServiceImpl(ProductoDAO productoDAO, MovimientoDAO movimientoDAO) {
+        this(productoDAO, movimientoDAO, new ResumenDiarioDAOImpl());
+    }
+    
+    public ReporteServiceImpl(ProductoDAO productoDAO, MovimientoDAO movimientoDAO, 
+                              ResumenDiarioDAO resumenDiarioDAO) {
         this.productoDAO = productoDAO;
         this.movimientoDAO = movimientoDAO;
+        this.resumenDiarioDAO = resumenDiarioDAO;
         this.logger = Logger.getInstance();
     }
     
+    // Sin pronóstico de consumo los reportes de agotamiento salen vacíos
+    public void setPronosticoConsumo(PronosticoConsumo pronosticoConsumo) {
+        this.pronosticoConsumo = pronosticoConsumo;
+    }
+    
     // ===== IMPLEMENTACIÓN REPORTES DE INVENTARIO =====
     
     @Override
     public List<Producto> generarReporteStockActual() {
         logger.info("Generando reporte de stock actual");
-        return productoDAO.obtenerTodos().stream()
-                .filter(p -> p.getEstado() != INACTIVO)
-                .collect(Collectors.toList());
+        List<Producto> productos = new ArrayList<>();
+        productoDAO.recorrerTodos(p -> {
+            if (p.getEstado() != INACTIVO) {
+                productos.add(p);
+            }
+        });
+        return productos;
     }
     
     @Override
@@ -46,6 +76,24 @@ public class ReporteServiceImpl implements ReporteService {
         return productoDAO.obtenerPorEstado(STOCK_CRITICO);
     }
     
+    @Override
+    public List<Producto> generarReporteProductosMasCriticos(int limite) {
+        logger.info("Generando reporte de productos más críticos");
+        return productoDAO.obtenerMasCriticos(limite);
+    }
+    
+    @Override
+    public List<PronosticoStock> generarReportePronosticoAgotamiento(int limite) {
+        logger.info("Generando reporte de pronóstico de agotamiento");
+        // Las tasas de consumo están en memoria: no se consultan los movimientos
+        return pronosticoConsumo != null ? pronosticoConsumo.obtenerProximosAlMinimo(limite) : new ArrayList<>();
+    }
+    
+    @Override
+    public PronosticoStock obtenerPronosticoStock(Producto producto) {
+        return pronosticoConsumo != null ? pronosticoConsumo.pronosticar(producto) : new PronosticoStock(producto, 0);
+    }
+    
     @Override
     public Map<CategoriaProducto, List<Producto>> generarReportePorCategoria() {
         logger.info("Generando reporte por categoría");
@@ -85,28 +133,35 @@ public class ReporteServiceImpl implements ReporteService {
         return movimientoDAO.obtenerPorFecha(fechaInicio, fechaFin);
     }
     
+    @Override
+    public boolean recorrerReporteMovimientos(Date fechaInicio, Date fechaFin, 
+                                              Consumer<MovimientoInventario> consumidor) {
+        logger.info("Recorriendo movimientos desde " + fechaInicio + " hasta " + fechaFin);
+        return movimientoDAO.recorrerPorFecha(fechaInicio, fechaFin, consumidor);
+    }
+    
     @Override
     public List<MovimientoInventario> generarReporteEntradas(Date fechaInicio, Date fechaFin) {
         logger.info("Generando reporte de entradas");
-        return movimientoDAO.obtenerPorTipo(TipoMovimiento.ENTRADA).stream()
-                .filter(m -> !m.getFecha().before(fechaInicio) && !m.getFecha().after(fechaFin))
-                .collect(Collectors.toList());
+        List<MovimientoInventario> entradas = new ArrayList<>();
+        movimientoDAO.recorrerPorTipo(TipoMovimiento.ENTRADA, fechaInicio, fechaFin, entradas::add);
+        return entradas;
     }
     
     @Override
     public List<MovimientoInventario> generarReporteSalidas(Date fechaInicio, Date fechaFin) {
         logger.info("Generando reporte de salidas");
-        return movimientoDAO.obtenerPorTipo(TipoMovimiento.SALIDA).stream()
-                .filter(m -> !m.getFecha().before(fechaInicio) && !m.getFecha().after(fechaFin))
-                .collect(Collectors.toList());
+        List<MovimientoInventario> salidas = new ArrayList<>();
+        movimientoDAO.recorrerPorTipo(TipoMovimiento.SALIDA, fechaInicio, fechaFin, salidas::add);
+        return salidas;
     }
     
     @Override
     public List<MovimientoInventario> generarReporteMovimientosProducto(String productoId, Date fechaInicio, Date fechaFin) {
         logger.info("Generando reporte de movimientos para producto: " + productoId);
-        return movimientoDAO.obtenerPorProducto(productoId).stream()
-                .filter(m -> !m.getFecha().before(fechaInicio) && !m.getFecha().after(fechaFin))
-                .collect(Collectors.toList());
+        List<MovimientoInventario> movimientos = new ArrayList<>();
+        movimientoDAO.recorrerPorProducto(productoId, fechaInicio, fechaFin, movimientos::add);
+        return movimientos;
     }
     
     // ===== IMPLEMENTACIÓN REPORTES ESTADÍSTICOS =====
@@ -114,76 +169,29 @@ public class ReporteServiceImpl implements ReporteService {
     @Override
     public Map<TipoMovimiento, Long> generarEstadisticasMovimientos(Date fechaInicio, Date fechaFin) {
         logger.info("Generando estadísticas de movimientos");
-        List<MovimientoInventario> movimientos = movimientoDAO.obtenerPorFecha(fechaInicio, fechaFin);
+        RangoDias rango = new RangoDias(fechaInicio, fechaFin);
+        Map<TipoMovimiento, Long> estadisticas = new EnumMap<>(TipoMovimiento.class);
         
-        return movimientos.stream()
-                .collect(Collectors.groupingBy(MovimientoInventario::getTipo, Collectors.counting()));
+        if (rango.tieneDiasCompletos()) {
+            estadisticas.putAll(resumenDiarioDAO.contarPorTipo(rango.primerDia, rango.ultimoDia));
+        }
+        for (Date[] tramo : rango.tramosParciales) {
+            movimientoDAO.recorrerPorFecha(tramo[0], tramo[1], 
+                m -> estadisticas.merge(m.getTipo(), 1L, Long::sum));
+        }
+        return estadisticas;
     }
     
     @Override
     public Map<Producto, Integer> generarReporteProductosMasVendidos(Date fechaInicio, Date fechaFin, int limite) {
         logger.info("Generando reporte de productos más vendidos");
-        List<MovimientoInventario> salidas = movimientoDAO.obtenerPorTipo(TipoMovimiento.SALIDA).stream()
-                .filter(m -> !m.getFecha().before(fechaInicio) && !m.getFecha().after(fechaFin))
-                .collect(Collectors.toList());
-        
-        Map<String, Integer> ventasPorProducto = new HashMap<>();
-        for (MovimientoInventario movimiento : salidas) {
-            ventasPorProducto.merge(movimiento.getProductoId(), movimiento.getCantidad(), Integer::sum);
-        }
-        
-        // Convertir a mapa de Producto -> Cantidad
-        Map<Producto, Integer> resultado = new HashMap<>();
-        for (Map.Entry<String, Integer> entry : ventasPorProducto.entrySet()) {
-            productoDAO.obtenerPorId(entry.getKey()).ifPresent(producto -> {
-                resultado.put(producto, entry.getValue());
-            });
-        }
-        
-        return resultado.entrySet().stream()
-                .sorted(Map.Entry.<Producto, Integer>comparingByValue().reversed())
-                .limit(limite)
-                .collect(Collectors.toMap(
-                    Map.Entry::getKey,
-                    Map.Entry::getValue,
-                    (e1, e2) -> e1,
-                    LinkedHashMap::new
-                ));
+        return movimientoDAO.obtenerProductosMasMovidos(TipoMovimiento.SALIDA, fechaInicio, fechaFin, limite);
     }
     
     @Override
     public Map<Producto, Integer> generarReporteProductosMenosMovidos(Date fechaInicio, Date fechaFin, int limite) {
         logger.info("Generando reporte de productos menos movidos");
-        List<MovimientoInventario> movimientos = movimientoDAO.obtenerPorFecha(fechaInicio, fechaFin);
-        
-        Map<String, Integer> movimientosPorProducto = new HashMap<>();
-        for (MovimientoInventario movimiento : movimientos) {
-            movimientosPorProducto.merge(movimiento.getProductoId(), movimiento.getCantidad(), Integer::sum);
-        }
-        
-        // Incluir productos sin movimientos
-        List<Producto> todosProductos = productoDAO.obtenerTodos();
-        for (Producto producto : todosProductos) {
-            movimientosPorProducto.putIfAbsent(producto.getId(), 0);
-        }
-        
-        // Convertir a mapa de Producto -> Cantidad
-        Map<Producto, Integer> resultado = new HashMap<>();
-        for (Map.Entry<String, Integer> entry : movimientosPorProducto.entrySet()) {
-            productoDAO.obtenerPorId(entry.getKey()).ifPresent(producto -> {
-                resultado.put(producto, entry.getValue());
-            });
-        }
-        
-        return resultado.entrySet().stream()
-                .sorted(Map.Entry.comparingByValue())
-                .limit(limite)
-                .collect(Collectors.toMap(
-                    Map.Entry::getKey,
-                    Map.Entry::getValue,
-                    (e1, e2) -> e1,
-                    LinkedHashMap::new
-                ));
+        return movimientoDAO.obtenerProductosMenosMovidos(fechaInicio, fechaFin, limite);
     }
     
     @Override
@@ -212,48 +220,53 @@ public class ReporteServiceImpl implements ReporteService {
     @Override
     public double generarReporteValorTotalInventario() {
         logger.info("Generando reporte de valor total del inventario");
-        return productoDAO.obtenerTodos().stream()
-                .filter(p -> p.getEstado() != INACTIVO)
-                .mapToDouble(Producto::calcularValorTotalStock)
-                .sum();
+        double[] valorTotal = {0};
+        productoDAO.recorrerTodos(p -> {
+            if (p.getEstado() != INACTIVO) {
+                valorTotal[0] += p.calcularValorTotalStock();
+            }
+        });
+        return valorTotal[0];
     }
     
     @Override
     public double generarReporteIngresosVentas(Date fechaInicio, Date fechaFin) {
         logger.info("Generando reporte de ingresos por ventas");
-        List<MovimientoInventario> salidas = movimientoDAO.obtenerPorTipo(TipoMovimiento.SALIDA).stream()
-                .filter(m -> !m.getFecha().before(fechaInicio) && !m.getFecha().after(fechaFin))
-                .collect(Collectors.toList());
-        
-        double ingresos = 0;
-        for (MovimientoInventario movimiento : salidas) {
-            Optional<Producto> productoOpt = productoDAO.obtenerPorId(movimiento.getProductoId());
-            if (productoOpt.isPresent()) {
-                Producto producto = productoOpt.get();
-                ingresos += movimiento.getCantidad() * producto.getPrecio();
-            }
-        }
-        
-        return ingresos;
+        return sumarImporteRango(TipoMovimiento.SALIDA, fechaInicio, fechaFin);
     }
     
     @Override
     public double generarReporteCostosCompras(Date fechaInicio, Date fechaFin) {
         logger.info("Generando reporte de costos por compras");
-        List<MovimientoInventario> entradas = movimientoDAO.obtenerPorTipo(TipoMovimiento.ENTRADA).stream()
-                .filter(m -> !m.getFecha().before(fechaInicio) && !m.getFecha().after(fechaFin))
-                .collect(Collectors.toList());
+        return sumarImporteRango(TipoMovimiento.ENTRADA, fechaInicio, fechaFin);
+    }
+    
+    // Los días completos se leen del resumen diario y solo los extremos parciales de MOVIMIENTOS
+    private double sumarImporteRango(TipoMovimiento tipo, Date fechaInicio, Date fechaFin) {
+        RangoDias rango = new RangoDias(fechaInicio, fechaFin);
+        double total = 0;
         
-        double costos = 0;
-        for (MovimientoInventario movimiento : entradas) {
-            Optional<Producto> productoOpt = productoDAO.obtenerPorId(movimiento.getProductoId());
-            if (productoOpt.isPresent()) {
-                Producto producto = productoOpt.get();
-                costos += movimiento.getCantidad() * producto.getPrecio();
-            }
+        if (rango.tieneDiasCompletos()) {
+            total += resumenDiarioDAO.sumarImporte(tipo, rango.primerDia, rango.ultimoDia);
         }
-        
-        return costos;
+        for (Date[] tramo : rango.tramosParciales) {
+            total += sumarImporte(tipo, tramo[0], tramo[1]);
+        }
+        return total;
+    }
+    
+    // Suma cantidad * precio de los movimientos del tipo; el precio se busca una vez por producto
+    private double sumarImporte(TipoMovimiento tipo, Date fechaInicio, Date fechaFin) {
+        Map<String, Double> precios = new HashMap<>();
+        double[] total = {0};
+        movimientoDAO.recorrerPorTipo(tipo, fechaInicio, fechaFin, movimiento -> {
+            Double precio = precios.computeIfAbsent(movimiento.getProductoId(),
+                id -> productoDAO.obtenerPorId(id).map(Producto::getPrecio).orElse(null));
+            if (precio != null) {
+                total[0] += movimiento.getCantidad() * precio;
+            }
+        });
+        return total[0];
     }
     
     // ===== IMPLEMENTACIÓN EXPORTACIÓN DE REPORTES =====
@@ -262,59 +275,99 @@ public class ReporteServiceImpl implements ReporteService {
     public boolean exportarReporteCSV(List<?> datos, String nombreArchivo) {
         logger.info("Exportando reporte a CSV: " + nombreArchivo);
         try {
-            // Crear directorio de reportes si no existe
-            String rutaCarpeta = "reportes";
-            java.nio.file.Path carpeta = java.nio.file.Paths.get(rutaCarpeta);
-            if (!java.nio.file.Files.exists(carpeta)) {
-                java.nio.file.Files.createDirectories(carpeta);
+            if (datos == null || datos.isEmpty()) {
+                logger.warning("No hay datos para exportar");
+                return false;
             }
-
-            // Crear archivo CSV
-            String rutaCompleta = rutaCarpeta + "/" + nombreArchivo;
-            java.io.File archivo = new java.io.File(rutaCompleta);
-
-            try (java.io.FileWriter fileWriter = new java.io.FileWriter(archivo);
-                 java.io.BufferedWriter bufferedWriter = new java.io.BufferedWriter(fileWriter)) {
-
-                if (datos == null || datos.isEmpty()) {
-                    logger.warning("No hay datos para exportar");
-                    return false;
-                }
-
+            
+            Path rutaCompleta = crearArchivoReporte(nombreArchivo);
+            try (BufferedWriter bufferedWriter = Files.newBufferedWriter(rutaCompleta)) {
                 // Escribir datos en formato CSV
                 for (Object fila : datos) {
                     if (fila instanceof java.util.Vector) {
-                        java.util.Vector<?> vector = (java.util.Vector<?>) fila;
-                        StringBuilder linea = new StringBuilder();
-                        for (int i = 0; i < vector.size(); i++) {
-                            Object valor = vector.get(i);
-                            String valorStr = valor != null ? valor.toString() : "";
-                            
-                            // Escapar comillas y valores con comas
-                            if (valorStr.contains(",") || valorStr.contains("\"") || valorStr.contains("\n")) {
-                                valorStr = "\"" + valorStr.replace("\"", "\"\"") + "\"";
-                            }
-                            
-                            linea.append(valorStr);
-                            if (i < vector.size() - 1) {
-                                linea.append(",");
-                            }
-                        }
-                        bufferedWriter.write(linea.toString());
-                        bufferedWriter.newLine();
+                        escribirLineaCSV(bufferedWriter, (java.util.Vector<?>) fila);
                     }
                 }
-
-                logger.info("Reporte exportado exitosamente a: " + rutaCompleta);
-                return true;
             }
 
+            logger.info("Reporte exportado exitosamente a: " + rutaCompleta);
+            return true;
+
         } catch (Exception e) {
             logger.error("Error al exportar reporte CSV: " + nombreArchivo, e);
             return false;
         }
     }
     
+    @Override
+    public boolean exportarMovimientosCSV(Date fechaInicio, Date fechaFin, String nombreArchivo) {
+        logger.info("Exportando movimientos a CSV: " + nombreArchivo);
+        try {
+            Path rutaCompleta = crearArchivoReporte(nombreArchivo);
+            SimpleDateFormat formatoFecha = new SimpleDateFormat("dd/MM/yyyy HH:mm");
+            boolean completo;
+            
+            // Cada fila se escribe al leerla: la memoria usada no depende del tamaño del período
+            try (BufferedWriter bufferedWriter = Files.newBufferedWriter(rutaCompleta)) {
+                escribirLineaCSV(bufferedWriter, 
+                    List.of("Fecha", "Producto", "Tipo", "Cantidad", "Motivo", "Usuario", "Referencia"));
+                
+                completo = movimientoDAO.recorrerPorFecha(fechaInicio, fechaFin, movimiento -> {
+                    try {
+                        escribirLineaCSV(bufferedWriter, Arrays.asList(
+                            formatoFecha.format(movimiento.getFecha()),
+                            movimiento.getProductoId(),
+                            movimiento.getTipo().getDescripcion(),
+                            movimiento.getCantidad(),
+                            movimiento.getMotivo(),
+                            movimiento.getUsuarioId(),
+                            movimiento.getReferencia()));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            
+            if (completo) {
+                logger.info("Movimientos exportados exitosamente a: " + rutaCompleta);
+            }
+            return completo;
+            
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("Error al exportar movimientos CSV: " + nombreArchivo, e);
+            return false;
+        }
+    }
+    
+    private Path crearArchivoReporte(String nombreArchivo) throws IOException {
+        // Crear directorio de reportes si no existe
+        Path carpeta = Paths.get(CARPETA_REPORTES);
+        if (!Files.exists(carpeta)) {
+            Files.createDirectories(carpeta);
+        }
+        return carpeta.resolve(nombreArchivo);
+    }
+    
+    private void escribirLineaCSV(BufferedWriter writer, List<?> valores) throws IOException {
+        StringBuilder linea = new StringBuilder();
+        for (int i = 0; i < valores.size(); i++) {
+            Object valor = valores.get(i);
+            String valorStr = valor != null ? valor.toString() : "";
+            
+            // Escapar comillas y valores con comas
+            if (valorStr.contains(",") || valorStr.contains("\"") || valorStr.contains("\n")) {
+                valorStr = "\"" + valorStr.replace("\"", "\"\"") + "\"";
+            }
+            
+            linea.append(valorStr);
+            if (i < valores.size() - 1) {
+                linea.append(",");
+            }
+        }
+        writer.write(linea.toString());
+        writer.newLine();
+    }
+    
     @Override
     public boolean exportarReportePDF(List<?> datos, String nombreArchivo, String titulo) {
         logger.info("Exportando reporte a PDF: " + nombreArchivo);
@@ -339,6 +392,12 @@ public class ReporteServiceImpl implements ReporteService {
         resumen.put("valorTotalInventario", generarReporteValorTotalInventario());
         resumen.put("productosStockBajo", productoDAO.obtenerStockBajo().size());
         resumen.put("productosStockCritico", productoDAO.obtenerPorEstado(STOCK_CRITICO).size());
+        resumen.put("productosMasCriticos", productoDAO.obtenerMasCriticos(5).stream()
+                .map(Producto::getNombre)
+                .collect(Collectors.joining(", ")));
+        resumen.put("productosProximosAgotarse", generarReportePronosticoAgotamiento(5).stream()
+                .map(p -> p.getProducto().getNombre())
+                .collect(Collectors.joining(", ")));
         
         // Movimientos del mes
         Calendar cal = Calendar.getInstance();
@@ -346,13 +405,72 @@ public class ReporteServiceImpl implements ReporteService {
         Date fechaInicio = cal.getTime();
         Date fechaFin = new Date();
         
-        List<MovimientoInventario> movimientosMes = movimientoDAO.obtenerPorFecha(fechaInicio, fechaFin);
-        resumen.put("totalMovimientosMes", movimientosMes.size());
-        resumen.put("entradasMes", movimientosMes.stream()
-            .filter(m -> m.getTipo() == TipoMovimiento.ENTRADA).count());
-        resumen.put("salidasMes", movimientosMes.stream()
-            .filter(m -> m.getTipo() == TipoMovimiento.SALIDA).count());
+        Map<TipoMovimiento, Long> movimientosMes = generarEstadisticasMovimientos(fechaInicio, fechaFin);
+        resumen.put("totalMovimientosMes", movimientosMes.values().stream().mapToLong(Long::longValue).sum());
+        resumen.put("entradasMes", movimientosMes.getOrDefault(TipoMovimiento.ENTRADA, 0L));
+        resumen.put("salidasMes", movimientosMes.getOrDefault(TipoMovimiento.SALIDA, 0L));
         
         return resumen;
     }
+    
+    @Override
+    public int reconstruirResumenDiario() {
+        logger.info("Reconstruyendo resumen diario de movimientos");
+        return resumenDiarioDAO.reconstruir();
+    }
+    
+    /**
+     * Divide un rango de fechas (ambos extremos incluidos) en los días completos que contiene,
+     * que se consultan en el resumen diario, y los tramos parciales al inicio y al final,
+     * que se consultan en MOVIMIENTOS.
+     */
+    private static class RangoDias {
+        private Date primerDia;
+        private Date ultimoDia;
+        private final List<Date[]> tramosParciales = new ArrayList<>(2);
+        
+        RangoDias(Date fechaInicio, Date fechaFin) {
+            Date inicioCompleto = inicioDelDia(fechaInicio);
+            if (inicioCompleto.before(fechaInicio)) {
+                inicioCompleto = sumarDias(inicioCompleto, 1);
+            }
+            // Un fin a las 23:59:59.999 cierra su día; cualquier otro deja ese día parcial
+            Date finCompleto = inicioDelDia(new Date(fechaFin.getTime() + 1));
+            
+            if (!inicioCompleto.before(finCompleto)) {
+                tramosParciales.add(new Date[] { fechaInicio, fechaFin });
+                return;
+            }
+            
+            primerDia = inicioCompleto;
+            ultimoDia = sumarDias(finCompleto, -1);
+            if (fechaInicio.before(inicioCompleto)) {
+                tramosParciales.add(new Date[] { fechaInicio, new Date(inicioCompleto.getTime() - 1) });
+            }
+            if (!finCompleto.after(fechaFin)) {
+                tramosParciales.add(new Date[] { finCompleto, fechaFin });
+            }
+        }
+        
+        boolean tieneDiasCompletos() {
+            return primerDia != null;
+        }
+        
+        private static Date inicioDelDia(Date fecha) {
+            Calendar cal = Calendar.getInstance();
+            cal.setTime(fecha);
+            cal.set(Calendar.HOUR_OF_DAY, 0);
+            cal.set(Calendar.MINUTE, 0);
+            cal.set(Calendar.SECOND, 0);
+            cal.set(Calendar.MILLISECOND, 0);
+            return cal.getTime();
+        }
+        
+        private static Date sumarDias(Date fecha, int dias) {
+            Calendar cal = Calendar.getInstance();
+            cal.setTime(fecha);
+            cal.add(Calendar.DAY_OF_MONTH, dias);
+            return cal.getTime();
+        }
+    }
 }
@@ -0,0 +1,102 @@
+package com.femaco.femacoproject.service.notificacion;
+
+import com.femaco.femacoproject.model.Alerta;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Agrega cada resumen como una línea JSON al final del archivo (formato JSON Lines), para
+ * que otras herramientas lo lean sin depender de la base de datos.
+ */
+public class CanalArchivoJson implements CanalNotificacion {
+    private final Path archivo;
+
+    public CanalArchivoJson(Path archivo) {
+        this.archivo = archivo;
+    }
+
+    @Override
+    public String getNombre() {
+        return "archivo";
+    }
+
+    @Override
+    public void enviar(ResumenAlertas resumen) throws IOException {
+        SimpleDateFormat iso = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssXXX");
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"desde\":").append(texto(fecha(iso, resumen.getDesde())))
+            .append(",\"hasta\":").append(texto(fecha(iso, resumen.getHasta())))
+            .append(",\"total\":").append(resumen.getTotal())
+            .append(",\"omitidas\":").append(resumen.getOmitidas())
+            .append(",\"alertas\":[");
+        boolean primera = true;
+        for (Alerta alerta : resumen.getAlertas()) {
+            if (!primera) {
+                json.append(',');
+            }
+            primera = false;
+            json.append("{\"id\":").append(texto(alerta.getId()))
+                .append(",\"tipo\":").append(texto(alerta.getTipo().name()))
+                .append(",\"entidad\":").append(texto(alerta.getEntidadId()))
+                .append(",\"mensaje\":").append(texto(alerta.getMensaje()))
+                .append(",\"fecha\":").append(texto(fecha(iso, alerta.getFechaActualizacion())))
+                .append('}');
+        }
+        json.append("]}");
+
+        Path directorio = archivo.toAbsolutePath().getParent();
+        if (directorio != null) {
+            Files.createDirectories(directorio);
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(json.toString());
+            writer.newLine();
+        }
+    }
+
+    private static String fecha(SimpleDateFormat formato, Date fecha) {
+        return fecha != null ? formato.format(fecha) : null;
+    }
+
+    // Cadena JSON entre comillas, o null
+    private static String texto(String valor) {
+        if (valor == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(valor.length() + 2).append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
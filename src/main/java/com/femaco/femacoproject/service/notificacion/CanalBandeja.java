@@ -0,0 +1,62 @@
+package com.femaco.femacoproject.service.notificacion;
+
+import com.femaco.femacoproject.util.Logger;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import javax.swing.SwingUtilities;
+
+/**
+ * Muestra el resumen como globo en la bandeja del sistema. El ícono se agrega la primera
+ * vez que hay algo que mostrar y todo el trabajo de AWT se encola en el EDT sin esperarlo.
+ */
+public class CanalBandeja implements CanalNotificacion {
+    private TrayIcon icono;
+
+    /** La bandeja no existe en entornos sin escritorio o en algunos gestores de ventanas. */
+    public static boolean estaDisponible() {
+        return !GraphicsEnvironment.isHeadless() && SystemTray.isSupported();
+    }
+
+    @Override
+    public String getNombre() {
+        return "bandeja";
+    }
+
+    @Override
+    public void enviar(ResumenAlertas resumen) throws IOException {
+        if (!estaDisponible()) {
+            throw new IOException("La bandeja del sistema no está disponible");
+        }
+        String titulo = resumen.getAsunto();
+        String texto = resumen.getTextoBreve();
+        SwingUtilities.invokeLater(() -> mostrar(titulo, texto));
+    }
+
+    // Se ejecuta en el EDT
+    private void mostrar(String titulo, String texto) {
+        try {
+            if (icono == null) {
+                icono = new TrayIcon(crearImagen(), "FEMACO Inventario");
+                icono.setImageAutoSize(true);
+                SystemTray.getSystemTray().add(icono);
+            }
+            icono.displayMessage(titulo, texto, TrayIcon.MessageType.WARNING);
+        } catch (AWTException e) {
+            Logger.getInstance().error("No se pudo mostrar la alerta en la bandeja", e);
+        }
+    }
+
+    // Cuadrado azul FEMACO con un signo de admiración
+    private static Image crearImagen() {
+        BufferedImage imagen = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = imagen.createGraphics();
+        g.setColor(new Color(0, 102, 204));
+        g.fillRoundRect(0, 0, 16, 16, 4, 4);
+        g.setColor(Color.WHITE);
+        g.fillRect(7, 3, 2, 7);
+        g.fillRect(7, 11, 2, 2);
+        g.dispose();
+        return imagen;
+    }
+}
@@ -0,0 +1,16 @@
+package com.femaco.femacoproject.service.notificacion;
+
+import java.io.IOException;
+
+/**
+ * Destino de los resúmenes de alertas (correo, archivo, bandeja del sistema...).
+ * Lo invoca solo el hilo del {@link DespachadorNotificaciones}, así que puede bloquear;
+ * si falla debe lanzar la excepción para que el despachador reintente más tarde.
+ */
+public interface CanalNotificacion {
+
+    // Nombre corto para el log y la configuración
+    String getNombre();
+
+    void enviar(ResumenAlertas resumen) throws IOException;
+}
@@ -0,0 +1,126 @@
+package com.femaco.femacoproject.service.notificacion;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.*;
+
+/**
+ * Envía el resumen por correo hablando SMTP directamente sobre un socket, sin
+ * autenticación ni TLS: pensado para un servidor de correo local o de pruebas, que es
+ * el que reenvía al exterior. Cualquier respuesta inesperada del servidor se informa
+ * como IOException para que el despachador reintente.
+ */
+public class CanalSmtp implements CanalNotificacion {
+    private final String host;
+    private final int puerto;
+    private final String remitente;
+    private final List<String> destinatarios;
+    private final int timeoutMs;
+
+    public CanalSmtp(String host, int puerto, String remitente, List<String> destinatarios, int timeoutMs) {
+        if (destinatarios.isEmpty()) {
+            throw new IllegalArgumentException("El canal SMTP necesita al menos un destinatario");
+        }
+        this.host = host;
+        this.puerto = puerto;
+        this.remitente = remitente;
+        this.destinatarios = new ArrayList<>(destinatarios);
+        this.timeoutMs = timeoutMs;
+    }
+
+    @Override
+    public String getNombre() {
+        return "smtp";
+    }
+
+    @Override
+    public void enviar(ResumenAlertas resumen) throws IOException {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(host, puerto), timeoutMs);
+            socket.setSoTimeout(timeoutMs);
+            BufferedReader entrada = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            Writer salida = new BufferedWriter(
+                new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+
+            esperar(entrada, 220);
+            comando(salida, entrada, "HELO " + nombreLocal(), 250);
+            comando(salida, entrada, "MAIL FROM:<" + remitente + ">", 250);
+            for (String destinatario : destinatarios) {
+                comando(salida, entrada, "RCPT TO:<" + destinatario + ">", 250, 251);
+            }
+            comando(salida, entrada, "DATA", 354);
+            escribirMensaje(salida, resumen);
+            comando(salida, entrada, ".", 250);
+            comando(salida, entrada, "QUIT", 221);
+        }
+    }
+
+    private void escribirMensaje(Writer salida, ResumenAlertas resumen) throws IOException {
+        SimpleDateFormat rfc822 = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss Z", Locale.US);
+        linea(salida, "Date: " + rfc822.format(new Date()));
+        linea(salida, "From: <" + remitente + ">");
+        StringJoiner para = new StringJoiner(", ");
+        for (String destinatario : destinatarios) {
+            para.add("<" + destinatario + ">");
+        }
+        linea(salida, "To: " + para);
+        linea(salida, "Subject: =?UTF-8?B?" + Base64.getEncoder().encodeToString(
+            resumen.getAsunto().getBytes(StandardCharsets.UTF_8)) + "?=");
+        linea(salida, "MIME-Version: 1.0");
+        linea(salida, "Content-Type: text/plain; charset=UTF-8");
+        linea(salida, "Content-Transfer-Encoding: 8bit");
+        linea(salida, "");
+        for (String texto : resumen.getTexto().split("\r?\n", -1)) {
+            // Una línea que empieza con punto se duplica para no cortar el mensaje (RFC 5321)
+            linea(salida, texto.startsWith(".") ? "." + texto : texto);
+        }
+    }
+
+    private static void comando(Writer salida, BufferedReader entrada, String comando, int... esperados)
+            throws IOException {
+        linea(salida, comando);
+        salida.flush();
+        esperar(entrada, esperados);
+    }
+
+    private static void linea(Writer salida, String texto) throws IOException {
+        salida.write(texto);
+        salida.write("\r\n");
+    }
+
+    // Lee la respuesta completa (las multilínea terminan con "NNN ") y verifica el código
+    private static void esperar(BufferedReader entrada, int... esperados) throws IOException {
+        String respuesta;
+        do {
+            respuesta = entrada.readLine();
+            if (respuesta == null) {
+                throw new EOFException("El servidor SMTP cerró la conexión");
+            }
+        } while (respuesta.length() > 3 && respuesta.charAt(3) == '-');
+
+        int codigo;
+        try {
+            codigo = Integer.parseInt(respuesta.substring(0, Math.min(3, respuesta.length())));
+        } catch (NumberFormatException e) {
+            throw new IOException("Respuesta SMTP inválida: " + respuesta);
+        }
+        for (int esperado : esperados) {
+            if (codigo == esperado) {
+                return;
+            }
+        }
+        throw new IOException("Respuesta SMTP inesperada: " + respuesta);
+    }
+
+    private static String nombreLocal() {
+        try {
+            return java.net.InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            return "localhost";
+        }
+    }
+}
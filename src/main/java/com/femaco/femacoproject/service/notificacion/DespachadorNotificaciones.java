@@ -0,0 +1,251 @@
+package com.femaco.femacoproject.service.notificacion;
+
+import com.femaco.femacoproject.model.Alerta;
+import com.femaco.femacoproject.util.BufferAnillo;
+import com.femaco.femacoproject.util.Configuracion;
+import com.femaco.femacoproject.util.Logger;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Envía las alertas nuevas a los canales configurados desde un hilo propio, de modo que
+ * quien las genera (el EDT o el registro de un movimiento) solo paga un encolado sin
+ * bloqueo en un {@link BufferAnillo}.
+ * <p>
+ * Las alertas que llegan durante una ventana de tiempo se agrupan en un solo resumen.
+ * Cada canal tiene su propio límite de envíos ({@link LimitadorTasa}) y sus reintentos
+ * con espera exponencial; mientras un canal no puede enviar, los resúmenes siguientes se
+ * suman a su pendiente en lugar de acumular avisos. Si la cola se llena, las alertas que
+ * no entran se cuentan como omitidas en el próximo resumen.
+ */
+public class DespachadorNotificaciones {
+    private static final int CAPACIDAD_COLA = 4096;
+    private static final long TICK_MS = 1000;
+    private static final long ESPERA_BASE_MS = 5000;
+    private static final long ESPERA_MAXIMA_MS = 10 * 60 * 1000;
+    private static final long MS_POR_HORA = 60 * 60 * 1000;
+
+    private final List<EstadoCanal> canales;
+    private final long ventanaMs;
+    private final int maxIntentos;
+    private final BufferAnillo<Alerta> entrantes;
+    private final AtomicLong omitidas;
+    private final ScheduledExecutorService ejecutor;
+    private final Logger logger;
+
+    // Ventana en curso; solo las toca el hilo del despachador
+    private final Map<String, Alerta> ventana;
+    private long inicioVentana;
+
+    public DespachadorNotificaciones(List<CanalNotificacion> canales, long ventanaMs,
+                                     int maxEnviosPorHora, int maxIntentos) {
+        if (ventanaMs <= 0 || maxIntentos <= 0) {
+            throw new IllegalArgumentException("Ventana o cantidad de intentos inválida");
+        }
+        long ahora = System.currentTimeMillis();
+        this.canales = new ArrayList<>();
+        for (CanalNotificacion canal : canales) {
+            this.canales.add(new EstadoCanal(canal, new LimitadorTasa(maxEnviosPorHora, MS_POR_HORA, ahora)));
+        }
+        this.ventanaMs = ventanaMs;
+        this.maxIntentos = maxIntentos;
+        this.entrantes = new BufferAnillo<>(CAPACIDAD_COLA);
+        this.omitidas = new AtomicLong();
+        this.ejecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "despachador-notificaciones");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        this.logger = Logger.getInstance();
+        this.ventana = new LinkedHashMap<>();
+        this.inicioVentana = ahora;
+    }
+
+    /** Arma el despachador con los canales habilitados en config.properties. */
+    public static DespachadorNotificaciones desdeConfiguracion() {
+        Configuracion config = Configuracion.getInstance();
+        List<CanalNotificacion> canales = new ArrayList<>();
+
+        String archivo = config.getNotificacionesArchivo();
+        if (!archivo.isEmpty()) {
+            canales.add(new CanalArchivoJson(Paths.get(archivo)));
+        }
+        String host = config.getNotificacionesSmtpHost();
+        List<String> destinatarios = config.getNotificacionesSmtpDestinatarios();
+        if (!host.isEmpty() && !destinatarios.isEmpty()) {
+            canales.add(new CanalSmtp(host, config.getNotificacionesSmtpPuerto(),
+                                      config.getNotificacionesSmtpRemitente(), destinatarios,
+                                      config.getNotificacionesSmtpTimeout()));
+        }
+        if (config.isNotificacionesBandeja() && CanalBandeja.estaDisponible()) {
+            canales.add(new CanalBandeja());
+        }
+
+        return new DespachadorNotificaciones(canales,
+                                             TimeUnit.SECONDS.toMillis(config.getNotificacionesVentanaSegundos()),
+                                             config.getNotificacionesMaxPorHora(),
+                                             config.getNotificacionesReintentos());
+    }
+
+    public void iniciar() {
+        ejecutor.scheduleWithFixedDelay(this::procesar, TICK_MS, TICK_MS, TimeUnit.MILLISECONDS);
+        logger.info("Despachador de notificaciones iniciado con " + canales.size() + " canales");
+    }
+
+    /**
+     * Encola una alerta para el próximo resumen. Nunca bloquea; puede llamarse desde
+     * cualquier hilo.
+     */
+    public void notificar(Alerta alerta) {
+        if (canales.isEmpty()) {
+            return;
+        }
+        if (!entrantes.ofrecer(ResumenAlertas.copiar(alerta))) {
+            omitidas.incrementAndGet();
+        }
+    }
+
+    /**
+     * Envía ya un resumen con las alertas que entregue {@code alertas}, sin esperar a que
+     * cierre la ventana. Las alertas se piden, y el resumen se arma y se envía, en el hilo
+     * del despachador; quien llama solo encola la tarea. El proveedor debe devolver copias
+     * tomadas bajo el bloqueo de su registro.
+     */
+    public void enviarResumen(Supplier<? extends Collection<Alerta>> alertas) {
+        if (canales.isEmpty()) {
+            return;
+        }
+        try {
+            ejecutor.execute(() -> {
+                Collection<Alerta> activas = alertas.get();
+                if (activas.isEmpty()) {
+                    return;
+                }
+                Date ahora = new Date();
+                agregarPendiente(new ResumenAlertas(activas, ahora, ahora, 0));
+                enviarPendientes(System.currentTimeMillis());
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warning("Despachador detenido; no se envió el resumen de alertas");
+        }
+    }
+
+    /**
+     * Cierra la ventana en curso, hace un último intento por canal y detiene el hilo.
+     */
+    public void detener(long esperaMs) {
+        try {
+            ejecutor.submit(() -> {
+                cerrarVentana(System.currentTimeMillis());
+                enviarPendientes(Long.MAX_VALUE);
+            });
+            ejecutor.shutdown();
+            if (!ejecutor.awaitTermination(esperaMs, TimeUnit.MILLISECONDS)) {
+                ejecutor.shutdownNow();
+                logger.warning("Despachador de notificaciones detenido con envíos pendientes");
+            }
+        } catch (RejectedExecutionException e) {
+            // Ya estaba detenido
+        } catch (InterruptedException e) {
+            ejecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ===== HILO DEL DESPACHADOR =====
+
+    private void procesar() {
+        // Cualquier excepción cancelaría la tarea periódica; se registra y se sigue
+        try {
+            long ahora = System.currentTimeMillis();
+            entrantes.drenar(alerta -> ventana.put(alerta.getId(), alerta), CAPACIDAD_COLA);
+            if (ahora - inicioVentana >= ventanaMs) {
+                cerrarVentana(ahora);
+            }
+            enviarPendientes(ahora);
+        } catch (RuntimeException e) {
+            logger.error("Error en el despachador de notificaciones", e);
+        }
+    }
+
+    private void cerrarVentana(long ahora) {
+        entrantes.drenar(alerta -> ventana.put(alerta.getId(), alerta), CAPACIDAD_COLA);
+        long sinEncolar = omitidas.getAndSet(0);
+        if (!ventana.isEmpty() || sinEncolar > 0) {
+            agregarPendiente(new ResumenAlertas(ventana.values(), new Date(inicioVentana), new Date(ahora), sinEncolar));
+            ventana.clear();
+        }
+        inicioVentana = ahora;
+    }
+
+    private void agregarPendiente(ResumenAlertas resumen) {
+        for (EstadoCanal estado : canales) {
+            estado.pendiente = estado.pendiente == null ? resumen : estado.pendiente.combinar(resumen);
+        }
+    }
+
+    // ahora = Long.MAX_VALUE fuerza un intento sin respetar esperas (al cerrar)
+    private void enviarPendientes(long ahora) {
+        boolean forzar = ahora == Long.MAX_VALUE;
+        long reloj = forzar ? System.currentTimeMillis() : ahora;
+        for (EstadoCanal estado : canales) {
+            if (estado.pendiente == null || (!forzar && reloj < estado.proximoIntento)) {
+                continue;
+            }
+            // Solo los envíos exitosos cuentan para el límite; los fallidos esperan su reintento
+            long disponible = estado.limitador.disponibleEn(reloj);
+            if (!forzar && disponible > reloj) {
+                estado.proximoIntento = disponible;
+                continue;
+            }
+            enviar(estado, reloj);
+        }
+    }
+
+    private void enviar(EstadoCanal estado, long ahora) {
+        ResumenAlertas resumen = estado.pendiente;
+        String nombre = estado.canal.getNombre();
+        try {
+            estado.canal.enviar(resumen);
+            estado.limitador.consumir(ahora);
+            estado.pendiente = null;
+            estado.intentos = 0;
+            logger.info(String.format("Notificación enviada por %s: %d alertas", nombre, resumen.getTotal()));
+        } catch (Exception e) {
+            estado.intentos++;
+            if (estado.intentos >= maxIntentos) {
+                logger.error(String.format("Se descarta la notificación por %s tras %d intentos (%d alertas)",
+                                           nombre, estado.intentos, resumen.getTotal()), e);
+                estado.pendiente = null;
+                estado.intentos = 0;
+            } else {
+                long espera = esperaReintento(estado.intentos);
+                estado.proximoIntento = ahora + espera;
+                logger.warning(String.format("Falló la notificación por %s (intento %d): %s; se reintenta en %d s",
+                                             nombre, estado.intentos, e.getMessage(), espera / 1000));
+            }
+        }
+    }
+
+    // Exponencial con un 20% de variación, para que los canales no reintenten a la vez
+    private static long esperaReintento(int intentos) {
+        long espera = Math.min(ESPERA_MAXIMA_MS, ESPERA_BASE_MS << Math.min(intentos - 1, 20));
+        return espera + ThreadLocalRandom.current().nextLong(espera / 5 + 1);
+    }
+
+    private static class EstadoCanal {
+        final CanalNotificacion canal;
+        final LimitadorTasa limitador;
+        ResumenAlertas pendiente;
+        int intentos;
+        long proximoIntento;
+
+        EstadoCanal(CanalNotificacion canal, LimitadorTasa limitador) {
+            this.canal = canal;
+            this.limitador = limitador;
+        }
+    }
+}
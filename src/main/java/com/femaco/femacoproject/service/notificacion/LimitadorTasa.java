@@ -0,0 +1,42 @@
+package com.femaco.femacoproject.service.notificacion;
+
+/**
+ * Cubeta de fichas: permite hasta {@code capacidad} envíos seguidos y recupera una ficha
+ * cada {@code periodoMs / capacidad} milisegundos. No es segura entre hilos; la usa solo
+ * el hilo del despachador.
+ */
+class LimitadorTasa {
+    private final int capacidad;
+    private final double msPorFicha;
+    private double fichas;
+    private long ultimaRecarga;
+
+    LimitadorTasa(int capacidad, long periodoMs, long ahora) {
+        if (capacidad <= 0 || periodoMs <= 0) {
+            throw new IllegalArgumentException("Límite de envíos inválido: " + capacidad + " cada " + periodoMs + " ms");
+        }
+        this.capacidad = capacidad;
+        this.msPorFicha = (double) periodoMs / capacidad;
+        this.fichas = capacidad;
+        this.ultimaRecarga = ahora;
+    }
+
+    /** Momento en que habrá una ficha disponible; {@code ahora} si ya la hay. */
+    long disponibleEn(long ahora) {
+        recargar(ahora);
+        return fichas >= 1 ? ahora : ahora + (long) Math.ceil((1 - fichas) * msPorFicha);
+    }
+
+    /** Descuenta un envío hecho; se llama solo tras un envío exitoso. */
+    void consumir(long ahora) {
+        recargar(ahora);
+        fichas--;
+    }
+
+    private void recargar(long ahora) {
+        if (ahora > ultimaRecarga) {
+            fichas = Math.min(capacidad, fichas + (ahora - ultimaRecarga) / msPorFicha);
+            ultimaRecarga = ahora;
+        }
+    }
+}
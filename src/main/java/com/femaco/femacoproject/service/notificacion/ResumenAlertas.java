@@ -0,0 +1,121 @@
+package com.femaco.femacoproject.service.notificacion;
+
+import com.femaco.femacoproject.model.Alerta;
+import com.femaco.femacoproject.model.enums.TipoAlerta;
+import java.text.SimpleDateFormat;
+import java.util.*;
+
+/**
+ * Alertas agrupadas en un solo aviso. Guarda copias de las alertas, así que no cambia
+ * aunque el registro siga actualizándolas; si una misma alerta aparece dos veces queda
+ * la versión más reciente. {@code omitidas} cuenta las que no llegaron al resumen
+ * porque la cola del despachador estaba llena.
+ */
+public class ResumenAlertas {
+    // Alertas detalladas en el texto; el resto solo suma en los totales
+    private static final int MAX_DETALLE = 50;
+
+    private final Map<String, Alerta> alertas;
+    private final Date desde;
+    private final Date hasta;
+    private final long omitidas;
+
+    public ResumenAlertas(Collection<Alerta> alertas, Date desde, Date hasta, long omitidas) {
+        this.alertas = new LinkedHashMap<>();
+        for (Alerta alerta : alertas) {
+            this.alertas.put(alerta.getId(), copiar(alerta));
+        }
+        this.desde = desde;
+        this.hasta = hasta;
+        this.omitidas = omitidas;
+    }
+
+    private ResumenAlertas(Map<String, Alerta> alertas, Date desde, Date hasta, long omitidas) {
+        this.alertas = alertas;
+        this.desde = desde;
+        this.hasta = hasta;
+        this.omitidas = omitidas;
+    }
+
+    /** Une este resumen con uno posterior, para no mandar dos avisos seguidos. */
+    public ResumenAlertas combinar(ResumenAlertas posterior) {
+        Map<String, Alerta> union = new LinkedHashMap<>(alertas);
+        union.putAll(posterior.alertas);
+        return new ResumenAlertas(union,
+                                  desde.before(posterior.desde) ? desde : posterior.desde,
+                                  hasta.after(posterior.hasta) ? hasta : posterior.hasta,
+                                  omitidas + posterior.omitidas);
+    }
+
+    public List<Alerta> getAlertas() {
+        return Collections.unmodifiableList(new ArrayList<>(alertas.values()));
+    }
+
+    public Date getDesde() {
+        return desde;
+    }
+
+    public Date getHasta() {
+        return hasta;
+    }
+
+    public long getOmitidas() {
+        return omitidas;
+    }
+
+    public long getTotal() {
+        return alertas.size() + omitidas;
+    }
+
+    public Map<TipoAlerta, Integer> contarPorTipo() {
+        Map<TipoAlerta, Integer> conteo = new EnumMap<>(TipoAlerta.class);
+        for (Alerta alerta : alertas.values()) {
+            conteo.merge(alerta.getTipo(), 1, Integer::sum);
+        }
+        return conteo;
+    }
+
+    public String getAsunto() {
+        return String.format("FEMACO Inventario: %d alerta%s", getTotal(), getTotal() == 1 ? "" : "s");
+    }
+
+    // Una línea por tipo, útil donde no cabe el detalle (bandeja del sistema)
+    public String getTextoBreve() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<TipoAlerta, Integer> entrada : contarPorTipo().entrySet()) {
+            if (sb.length() > 0) {
+                sb.append('\n');
+            }
+            sb.append(entrada.getKey().getDescripcion()).append(": ").append(entrada.getValue());
+        }
+        if (omitidas > 0) {
+            sb.append(sb.length() > 0 ? "\n" : "").append("Otras: ").append(omitidas);
+        }
+        return sb.toString();
+    }
+
+    public String getTexto() {
+        SimpleDateFormat formato = new SimpleDateFormat("dd/MM/yyyy HH:mm");
+        StringBuilder sb = new StringBuilder();
+        sb.append("Alertas generadas entre ").append(formato.format(desde))
+          .append(" y ").append(formato.format(hasta)).append("\n\n");
+        sb.append(getTextoBreve()).append("\n\n");
+
+        int detalladas = 0;
+        for (Alerta alerta : alertas.values()) {
+            if (detalladas++ == MAX_DETALLE) {
+                sb.append("... y ").append(alertas.size() - MAX_DETALLE).append(" más\n");
+                break;
+            }
+            sb.append("- ").append(alerta.getMensaje()).append('\n');
+        }
+        if (omitidas > 0) {
+            sb.append(omitidas).append(" alertas no se detallan porque llegaron demasiadas a la vez\n");
+        }
+        return sb.toString();
+    }
+
+    static Alerta copiar(Alerta alerta) {
+        return new Alerta(alerta);
+    }
+}
@@ -1,18 +1,24 @@
 package com.femaco.femacoproject.ui;
 
+import com.femaco.femacoproject.dao.AlertaDAOImpl;
+import com.femaco.femacoproject.dao.CacheProductoDAO;
+import com.femaco.femacoproject.dao.ConsumoDAOImpl;
 import com.femaco.femacoproject.dao.MovimientoDAO;
 import com.femaco.femacoproject.dao.MovimientoDAOImpl;
 import com.femaco.femacoproject.dao.ProductoDAO;
 import com.femaco.femacoproject.dao.ProductoDAOImpl;
 import com.femaco.femacoproject.dao.ProveedorDAO;
 import com.femaco.femacoproject.dao.ProveedorDAOImpl;
+import com.femaco.femacoproject.dao.SnapshotCatalogo;
 import com.femaco.femacoproject.dao.UsuarioDAO;
 import com.femaco.femacoproject.dao.UsuarioDAOImpl;
 import com.femaco.femacoproject.model.Usuario;
 import com.femaco.femacoproject.service.AlertaService;
 import com.femaco.femacoproject.service.AutenticacionService;
 import com.femaco.femacoproject.service.GestionInventarioService;
+import com.femaco.femacoproject.service.PronosticoConsumo;
 import com.femaco.femacoproject.service.ReporteService;
+import com.femaco.femacoproject.service.notificacion.DespachadorNotificaciones;
 import com.femaco.femacoproject.ui.components.CustomButton;
 import com.femaco.femacoproject.ui.panels.DashboardPanel;
 import com.femaco.femacoproject.ui.panels.MovimientoPanel;
@@ -20,6 +26,9 @@ import com.femaco.femacoproject.ui.panels.ProductoPanel;
 import com.femaco.femacoproject.ui.panels.ProveedorPanel;
 import com.femaco.femacoproject.ui.panels.ReportePanel;
 import com.femaco.femacoproject.ui.panels.UsuarioPanel;
+import com.femaco.femacoproject.util.Configuracion;
+import com.femaco.femacoproject.util.CronometroArranque;
+import com.femaco.femacoproject.util.Logger;
 
 import javax.swing.*;
 import java.awt.*;
@@ -27,8 +36,14 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.nio.file.Paths;
+import java.util.List;
 
 public class MainFrame extends JFrame {
+    private static final long ESPERA_CIERRE_NOTIFICACIONES_MS = 5000;
+    private static final int INTENTOS_PRECARGA = 3;
+    private static final int ESPERA_REINTENTO_PRECARGA_MS = 30000;
+    
     private Usuario usuarioActual;
     
     // Servicios
@@ -36,9 +51,12 @@ public class MainFrame extends JFrame {
     private GestionInventarioService gestionInventarioService;
     private ReporteService reporteService;
     private AlertaService alertaService;
+    private DespachadorNotificaciones despachadorNotificaciones;
     
     // DAOs
     private ProductoDAO productoDAO;
+    private CacheProductoDAO cacheProductos;
+    private SnapshotCatalogo snapshotCatalogo;
     private MovimientoDAO movimientoDAO;
     private ProveedorDAO proveedorDAO;
     private UsuarioDAO usuarioDAO;
@@ -61,26 +79,48 @@ public class MainFrame extends JFrame {
     public MainFrame() {
         super("Sistema de Gestión de Inventario - FEMACO S.R.L.");
         inicializarServicios();
+        CronometroArranque.marcar("servicios");
         initComponents();
         setupLayout();
         configurarEventos();
+        CronometroArranque.marcar("componentes de la interfaz");
+        iniciarPrecargaCatalogo(1);
+        CronometroArranque.registrarResumen();
         mostrarLogin();
     }
     
     private void inicializarServicios() {
         try {
             // Inicializar DAOs
-            productoDAO = new ProductoDAOImpl();
+            // Catálogo en memoria compartido por todos los servicios
+            cacheProductos = new CacheProductoDAO(new ProductoDAOImpl());
+            productoDAO = cacheProductos;
+            snapshotCatalogo = new SnapshotCatalogo(Paths.get(Configuracion.getInstance().getCacheSnapshotPath()));
             movimientoDAO = new MovimientoDAOImpl();
             proveedorDAO = new ProveedorDAOImpl();
             usuarioDAO = new UsuarioDAOImpl();
             
             // Inicializar servicios
             autenticacionService = new com.femaco.femacoproject.service.AutenticacionServiceImpl(usuarioDAO);
-            gestionInventarioService = new com.femaco.femacoproject.service.GestionInventarioServiceImpl(
-                productoDAO, movimientoDAO, proveedorDAO);
-            reporteService = new com.femaco.femacoproject.service.ReporteServiceImpl(productoDAO, movimientoDAO);
-            alertaService = new com.femaco.femacoproject.service.AlertaServiceImpl(productoDAO, proveedorDAO);
+            com.femaco.femacoproject.service.GestionInventarioServiceImpl inventarioImpl =
+                new com.femaco.femacoproject.service.GestionInventarioServiceImpl(productoDAO, movimientoDAO, proveedorDAO);
+            com.femaco.femacoproject.service.ReporteServiceImpl reporteImpl =
+                new com.femaco.femacoproject.service.ReporteServiceImpl(productoDAO, movimientoDAO);
+            com.femaco.femacoproject.service.AlertaServiceImpl alertaImpl =
+                new com.femaco.femacoproject.service.AlertaServiceImpl(productoDAO, proveedorDAO, new AlertaDAOImpl());
+            // Consumo diario por producto: lo actualizan las salidas y lo leen alertas, dashboard y reportes
+            PronosticoConsumo pronosticoConsumo = new PronosticoConsumo(new ConsumoDAOImpl(), productoDAO,
+                Configuracion.getInstance().getConsumoSuavizadoDias());
+            inventarioImpl.setPronosticoConsumo(pronosticoConsumo);
+            iniciarCargaConsumo(pronosticoConsumo, reporteImpl, alertaImpl);
+            // Las alertas se reevalúan con cada cambio de inventario en lugar de recorrer el catálogo
+            inventarioImpl.agregarObservador(alertaImpl);
+            despachadorNotificaciones = DespachadorNotificaciones.desdeConfiguracion();
+            alertaImpl.setDespachador(despachadorNotificaciones);
+            despachadorNotificaciones.iniciar();
+            gestionInventarioService = inventarioImpl;
+            reporteService = reporteImpl;
+            alertaService = alertaImpl;
             
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this,
@@ -90,6 +130,95 @@ public class MainFrame extends JFrame {
         }
     }
     
+    // Las tasas de consumo (y su reconstrucción, si cambió el suavizado) se leen en segundo plano;
+    // reportes y alertas empiezan a usarlas cuando terminan de cargarse
+    private void iniciarCargaConsumo(PronosticoConsumo pronosticoConsumo,
+                                     com.femaco.femacoproject.service.ReporteServiceImpl reporteImpl,
+                                     com.femaco.femacoproject.service.AlertaServiceImpl alertaImpl) {
+        SwingWorker<Void, Void> carga = new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() {
+                pronosticoConsumo.cargar();
+                return null;
+            }
+            
+            @Override
+            protected void done() {
+                reporteImpl.setPronosticoConsumo(pronosticoConsumo);
+                alertaImpl.setPronosticoConsumo(pronosticoConsumo);
+            }
+        };
+        carga.execute();
+    }
+    
+    // Carga el catálogo en memoria mientras se muestra el login, partiendo de la instantánea
+    // guardada al cerrar; hasta que termine, las consultas de productos van a la base de datos
+    private void iniciarPrecargaCatalogo(int intento) {
+        long inicio = System.currentTimeMillis();
+        lblEstadoSistema.setText("Cargando catálogo...");
+        
+        SwingWorker<Boolean, int[]> precarga = new SwingWorker<Boolean, int[]>() {
+            @Override
+            protected Boolean doInBackground() {
+                return cacheProductos.cargar(snapshotCatalogo,
+                                             (cargados, total) -> publish(new int[] {cargados, total}));
+            }
+            
+            @Override
+            protected void process(List<int[]> avances) {
+                int[] ultimo = avances.get(avances.size() - 1);
+                int porcentaje = ultimo[1] > 0 ? ultimo[0] * 100 / ultimo[1] : 0;
+                lblEstadoSistema.setText(String.format("Cargando catálogo... %d de %d productos (%d%%)",
+                                                       ultimo[0], ultimo[1], porcentaje));
+            }
+            
+            @Override
+            protected void done() {
+                boolean exito;
+                try {
+                    exito = get();
+                } catch (Exception e) {
+                    exito = false;
+                }
+                
+                Logger logger = Logger.getInstance();
+                if (exito) {
+                    logger.info(String.format("Precarga del catálogo en segundo plano: %d productos en %d ms " +
+                                              "(lectura %d ms)", cacheProductos.getTamaño(),
+                                              System.currentTimeMillis() - inicio,
+                                              cacheProductos.getTiempoCargaMs()));
+                    lblEstadoSistema.setText("Sistema listo");
+                } else if (intento < INTENTOS_PRECARGA) {
+                    // Se reintenta en segundo plano; mientras tanto las lecturas van a la base de datos
+                    logger.warning("No se completó la precarga del catálogo (intento " + intento + 
+                                   "); se reintenta en " + ESPERA_REINTENTO_PRECARGA_MS / 1000 + " s");
+                    lblEstadoSistema.setText("Sistema listo (catálogo sin precargar)");
+                    Timer reintento = new Timer(ESPERA_REINTENTO_PRECARGA_MS, e -> iniciarPrecargaCatalogo(intento + 1));
+                    reintento.setRepeats(false);
+                    reintento.start();
+                } else {
+                    logger.warning("No se completó la precarga del catálogo; se consultará la base de datos");
+                    lblEstadoSistema.setText("Sistema listo (catálogo sin precargar)");
+                }
+            }
+        };
+        precarga.execute();
+    }
+    
+    // Guarda el catálogo en memoria para que el próximo arranque no tenga que leerlo entero
+    public void guardarSnapshotCatalogo() {
+        if (cacheProductos != null && cacheProductos.guardarSnapshot(snapshotCatalogo)) {
+            Logger.getInstance().info("Instantánea del catálogo guardada en " + snapshotCatalogo.getArchivo());
+        }
+    }
+    
+    // Último intento de enviar las notificaciones pendientes, sin demorar el cierre más de unos segundos
+    public void detenerNotificaciones() {
+        if (despachadorNotificaciones != null) {
+            despachadorNotificaciones.detener(ESPERA_CIERRE_NOTIFICACIONES_MS);
+        }
+    }
+    
     private void initComponents() {
         setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
         setLayout(new BorderLayout());
@@ -314,7 +443,7 @@ public class MainFrame extends JFrame {
         try {
             int totalProductos = gestionInventarioService.obtenerTotalProductos();
             int productosStockBajo = gestionInventarioService.obtenerProductosStockBajo().size();
-            int alertasActivas = alertaService.obtenerAlertasActivas().size();
+            int alertasActivas = alertaService.contarAlertasActivas();
             
             String estado = String.format("Productos: %d | Stock bajo: %d | Alertas: %d | Conectado", 
                 totalProductos, productosStockBajo, alertasActivas);
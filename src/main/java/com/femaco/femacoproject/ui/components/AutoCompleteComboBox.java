@@ -1,18 +1,34 @@
 package com.femaco.femacoproject.ui.components;
 
+import com.femaco.femacoproject.util.IndiceAutocompletado;
+
 import javax.swing.*;
 import javax.swing.plaf.basic.BasicComboBoxEditor;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
+/**
+ * ComboBox editable que sugiere elementos mientras se escribe. Las coincidencias salen
+ * de un IndiceAutocompletado (sin distinguir tildes ni mayúsculas), se calculan cuando
+ * el usuario deja de teclear y se limitan a las más relevantes.
+ */
 public class AutoCompleteComboBox extends JComboBox<String> {
+    private static final int RETARDO_FILTRO_MS = 150;
+    private static final int MAX_SUGERENCIAS = 50;
+    
     private List<String> itemsCompletos;
+    private IndiceAutocompletado indice;
+    private Timer temporizadorFiltro;
+    private int maxSugerencias;
     private boolean filtroActivo;
     
     public AutoCompleteComboBox() {
         super();
+        this.itemsCompletos = new ArrayList<>();
         initComponent();
     }
     
@@ -26,54 +42,90 @@ public class AutoCompleteComboBox extends JComboBox<String> {
         setEditable(true);
         setEditor(new AutoCompleteEditor());
         filtroActivo = false;
+        maxSugerencias = MAX_SUGERENCIAS;
+        
+        indice = new IndiceAutocompletado();
+        for (String item : itemsCompletos) {
+            indice.agregar(item);
+        }
         
         // Configurar el editor
         JTextField textField = (JTextField) getEditor().getEditorComponent();
+        
+        // Se filtra una sola vez cuando se deja de teclear, no en cada pulsación
+        temporizadorFiltro = new Timer(RETARDO_FILTRO_MS, e -> filtrarItems(textField.getText()));
+        temporizadorFiltro.setRepeats(false);
+        
         textField.addKeyListener(new KeyAdapter() {
             @Override
             public void keyReleased(KeyEvent e) {
-                if (e.getKeyCode() == KeyEvent.VK_ENTER) {
-                    return;
+                switch (e.getKeyCode()) {
+                    case KeyEvent.VK_ENTER:
+                    case KeyEvent.VK_UP:
+                    case KeyEvent.VK_DOWN:
+                    case KeyEvent.VK_ESCAPE:
+                        return;
+                    default:
+                        temporizadorFiltro.restart();
                 }
-                
-                String texto = textField.getText();
-                filtrarItems(texto);
             }
         });
     }
     
     private void filtrarItems(String filtro) {
-        if (filtro == null || filtro.isEmpty()) {
+        if (filtro == null || filtro.trim().isEmpty()) {
             restaurarItemsCompletos();
             return;
         }
         
-        List<String> itemsFiltrados = new ArrayList<>();
-        for (String item : itemsCompletos) {
-            if (item.toLowerCase().contains(filtro.toLowerCase())) {
-                itemsFiltrados.add(item);
-            }
-        }
-        
-        actualizarItemsComboBox(itemsFiltrados);
+        actualizarItemsComboBox(indice.buscar(filtro, maxSugerencias), filtro);
         filtroActivo = true;
     }
     
     private void restaurarItemsCompletos() {
         if (filtroActivo) {
-            actualizarItemsComboBox(itemsCompletos);
+            actualizarItemsComboBox(itemsCompletos, getTextoEditor());
             filtroActivo = false;
         }
     }
     
-    private void actualizarItemsComboBox(List<String> items) {
+    // Cambia las opciones sin perder lo que el usuario está escribiendo
+    private void actualizarItemsComboBox(List<String> items, String texto) {
         setModel(new DefaultComboBoxModel<>(items.toArray(new String[0])));
         setSelectedItem(null);
-        setPopupVisible(true);
+        getEditor().setItem(texto);
+        if (isShowing()) {
+            setPopupVisible(!items.isEmpty());
+        }
     }
     
+    private String getTextoEditor() {
+        Object item = getEditor().getItem();
+        return item != null ? item.toString() : "";
+    }
+    
+    /**
+     * Reemplaza los elementos. Solo se indexan los que son nuevos y solo se quitan
+     * del índice los que ya no están.
+     */
     public void setItems(List<String> items) {
-        this.itemsCompletos = new ArrayList<>(items);
+        Set<String> nuevos = new HashSet<>(items);
+        for (String item : itemsCompletos) {
+            if (!nuevos.contains(item)) {
+                indice.eliminar(item);
+            }
+        }
+        for (String item : items) {
+            indice.agregar(item);
+        }
+        this.itemsCompletos = new ArrayList<>(nuevos.size());
+        for (String item : items) {
+            if (nuevos.remove(item)) {
+                itemsCompletos.add(item);
+            }
+        }
+        
+        filtroActivo = true;
         restaurarItemsCompletos();
     }
     
@@ -81,21 +133,46 @@ public class AutoCompleteComboBox extends JComboBox<String> {
         return new ArrayList<>(itemsCompletos);
     }
     
+    public void setMaxSugerencias(int maxSugerencias) {
+        this.maxSugerencias = Math.max(1, maxSugerencias);
+    }
+    
+    @Override
     public void addItem(String item) {
-        if (!itemsCompletos.contains(item)) {
-            itemsCompletos.add(item);
-            restaurarItemsCompletos();
+        if (item == null || !indice.agregar(item)) {
+            return;
+        }
+        itemsCompletos.add(item);
+        if (filtroActivo) {
+            temporizadorFiltro.restart();
+        } else {
+            super.addItem(item);
         }
     }
     
-    public void removeItem(String item) {
+    @Override
+    public void removeItem(Object item) {
+        if (!(item instanceof String) || !indice.eliminar((String) item)) {
+            return;
+        }
         itemsCompletos.remove(item);
-        restaurarItemsCompletos();
+        if (filtroActivo) {
+            temporizadorFiltro.restart();
+        } else {
+            super.removeItem(item);
+        }
+    }
+    
+    @Override
+    public void removeAllItems() {
+        clear();
     }
     
     public void clear() {
         itemsCompletos.clear();
-        restaurarItemsCompletos();
+        indice.limpiar();
+        filtroActivo = false;
+        super.removeAllItems();
     }
     
     // Editor personalizado para el ComboBox
@@ -2,6 +2,7 @@ package com.femaco.femacoproject.ui.panels;
 
 import com.femaco.femacoproject.model.MovimientoInventario;
 import com.femaco.femacoproject.model.Producto;
+import com.femaco.femacoproject.model.PronosticoStock;
 import com.femaco.femacoproject.service.AlertaService;
 import com.femaco.femacoproject.service.GestionInventarioService;
 import com.femaco.femacoproject.service.ReporteService;
@@ -13,6 +14,8 @@ import java.awt.*;
 import java.util.List;
 
 public class DashboardPanel extends JPanel {
+    private static final int MAX_PRODUCTOS_CRITICOS = 10;
+    
     private GestionInventarioService inventarioService;
     private ReporteService reporteService;
     private AlertaService alertaService;
@@ -94,9 +97,9 @@ public class DashboardPanel extends JPanel {
         
         // Panel de productos con stock bajo
         JPanel productosPanel = new JPanel(new BorderLayout());
-        productosPanel.setBorder(BorderFactory.createTitledBorder("Productos con Stock Bajo"));
+        productosPanel.setBorder(BorderFactory.createTitledBorder("Productos más Críticos"));
         
-        String[] columnNames = {"Producto", "Stock Actual", "Stock Mínimo", "Estado"};
+        String[] columnNames = {"Producto", "Stock Actual", "Stock Mínimo", "Días al Mínimo", "Estado"};
         Object[][] data = {};
         productosTable = new JTable(data, columnNames);
         productosTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -156,7 +159,7 @@ public class DashboardPanel extends JPanel {
             List<Producto> productosStockBajo = inventarioService.obtenerProductosStockBajo();
             List<Producto> productosStockCritico = inventarioService.obtenerProductosStockCritico();
             List<MovimientoInventario> movimientosRecientes = inventarioService.obtenerMovimientosRecientes();
-            List<String> alertasActivas = alertaService.obtenerAlertasActivas();
+            int alertasActivas = alertaService.contarAlertasActivas();
             
             // Actualizar panels de métricas
             totalProductosPanel.setValue(totalProductos);
@@ -164,10 +167,10 @@ public class DashboardPanel extends JPanel {
             stockBajoPanel.setValue(productosStockBajo.size());
             stockCriticoPanel.setValue(productosStockCritico.size());
             movimientosMesPanel.setValue(movimientosRecientes.size());
-            alertasPanel.setValue(alertasActivas.size());
+            alertasPanel.setValue(alertasActivas);
             
-            // Actualizar tabla de productos con stock bajo
-            actualizarTablaProductosStockBajo(productosStockBajo);
+            // Actualizar tabla con los productos más cerca de quedarse sin stock
+            actualizarTablaProductosStockBajo(inventarioService.obtenerProductosMasCriticos(MAX_PRODUCTOS_CRITICOS));
             
             // Actualizar tabla de movimientos recientes
             actualizarTablaMovimientosRecientes(movimientosRecientes);
@@ -180,15 +183,17 @@ public class DashboardPanel extends JPanel {
     }
     
     private void actualizarTablaProductosStockBajo(List<Producto> productos) {
-        String[] columnNames = {"Producto", "Stock Actual", "Stock Mínimo", "Estado"};
-        Object[][] data = new Object[productos.size()][4];
+        String[] columnNames = {"Producto", "Stock Actual", "Stock Mínimo", "Días al Mínimo", "Estado"};
+        Object[][] data = new Object[productos.size()][5];
         
         for (int i = 0; i < productos.size(); i++) {
             Producto p = productos.get(i);
             data[i][0] = p.getNombre();
             data[i][1] = p.getStockActual();
             data[i][2] = p.getStockMinimo();
-            data[i][3] = p.getEstado().getDescripcion();
+            // Proyección con el consumo diario del producto, sin consultar movimientos
+            data[i][3] = PronosticoStock.formatearDias(reporteService.obtenerPronosticoStock(p).getDiasHastaMinimo());
+            data[i][4] = p.getEstado().getDescripcion();
         }
         
         productosTable.setModel(new javax.swing.table.DefaultTableModel(data, columnNames));
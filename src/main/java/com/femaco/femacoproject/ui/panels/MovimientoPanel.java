@@ -8,12 +8,15 @@ import com.femaco.femacoproject.model.enums.TipoMovimiento;
 import com.femaco.femacoproject.service.GestionInventarioService;
 import com.femaco.femacoproject.ui.components.CustomButton;
 import com.femaco.femacoproject.ui.components.MovimientoTableModel;
+import com.femaco.femacoproject.util.Pagina;
+import com.femaco.femacoproject.util.Pila;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.List;
 
 public class MovimientoPanel extends JPanel {
+    private static final int TAMAÑO_PAGINA = 100;
+    
     private GestionInventarioService inventarioService;
     private String usuarioActual;
     
@@ -34,11 +37,20 @@ public class MovimientoPanel extends JPanel {
     private CustomButton btnRegistrar;
     private CustomButton btnLimpiar;
     
+    // Paginación del historial: solo se mantiene en memoria la página visible
+    private CustomButton btnPaginaAnterior;
+    private CustomButton btnPaginaSiguiente;
+    private JLabel lblPagina;
+    private Pila<String> tokensAnteriores;
+    private String tokenActual;
+    private String tokenSiguiente;
+    
     private Producto productoSeleccionado;
     
     public MovimientoPanel(GestionInventarioService inventarioService, String usuarioActual) {
         this.inventarioService = inventarioService;
         this.usuarioActual = usuarioActual;
+        this.tokensAnteriores = new Pila<>();
         initComponents();
         setupLayout();
         cargarDatos();
@@ -153,6 +165,15 @@ public class MovimientoPanel extends JPanel {
         JScrollPane scrollPane = new JScrollPane(movimientosTable);
         panel.add(scrollPane, BorderLayout.CENTER);
         
+        JPanel paginacionPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 5));
+        btnPaginaAnterior = CustomButton.createSecondaryButton("< Anterior");
+        btnPaginaSiguiente = CustomButton.createSecondaryButton("Siguiente >");
+        lblPagina = new JLabel();
+        paginacionPanel.add(btnPaginaAnterior);
+        paginacionPanel.add(lblPagina);
+        paginacionPanel.add(btnPaginaSiguiente);
+        panel.add(paginacionPanel, BorderLayout.SOUTH);
+        
         return panel;
     }
     
@@ -164,15 +185,27 @@ public class MovimientoPanel extends JPanel {
         btnBuscarProducto.addActionListener(e -> buscarProducto());
         btnRegistrar.addActionListener(e -> registrarMovimiento());
         btnLimpiar.addActionListener(e -> limpiarFormulario());
+        btnPaginaAnterior.addActionListener(e -> paginaAnterior());
+        btnPaginaSiguiente.addActionListener(e -> paginaSiguiente());
         
         // Enter en campo de producto busca automáticamente
         txtProductoId.addActionListener(e -> buscarProducto());
     }
     
     private void cargarDatos() {
+        // Volver a la primera página (los movimientos más recientes)
+        tokensAnteriores.limpiar();
+        tokenActual = null;
+        cargarPagina();
+    }
+    
+    private void cargarPagina() {
         try {
-            List<MovimientoInventario> movimientos = inventarioService.obtenerMovimientosRecientes();
-            tableModel.setMovimientos(movimientos);
+            Pagina<MovimientoInventario> pagina = 
+                inventarioService.obtenerPaginaMovimientos(tokenActual, TAMAÑO_PAGINA);
+            tableModel.setMovimientos(pagina.getElementos());
+            tokenSiguiente = pagina.getSiguienteToken();
+            actualizarControlesPaginacion();
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this,
                 "Error al cargar movimientos: " + e.getMessage(),
@@ -180,6 +213,27 @@ public class MovimientoPanel extends JPanel {
         }
     }
     
+    private void paginaSiguiente() {
+        if (tokenSiguiente == null) return;
+        
+        tokensAnteriores.push(tokenActual);
+        tokenActual = tokenSiguiente;
+        cargarPagina();
+    }
+    
+    private void paginaAnterior() {
+        if (tokensAnteriores.estaVacia()) return;
+        
+        tokenActual = tokensAnteriores.pop();
+        cargarPagina();
+    }
+    
+    private void actualizarControlesPaginacion() {
+        btnPaginaAnterior.setEnabled(!tokensAnteriores.estaVacia());
+        btnPaginaSiguiente.setEnabled(tokenSiguiente != null);
+        lblPagina.setText("Página " + (tokensAnteriores.tamaño() + 1));
+    }
+    
     private void buscarProducto() {
         String productoId = txtProductoId.getText().trim();
         if (productoId.isEmpty()) {
@@ -12,6 +12,7 @@ import com.femaco.femacoproject.ui.components.ProductoTableModel;
 import javax.swing.*;
 import javax.swing.table.TableRowSorter;
 import java.awt.*;
+import java.util.ArrayList;
 import java.util.List;
 
 public class ProductoPanel extends JPanel {
@@ -31,8 +32,7 @@ public class ProductoPanel extends JPanel {
     private JSpinner spnStockMinimo;
     private JSpinner spnPrecio;
     private JTextField txtUbicacion;
-//    private AutoCompleteComboBox cmbProveedor;
-    private JComboBox<String> cmbProveedor;
+    private AutoCompleteComboBox cmbProveedor;
     
     private CustomButton btnNuevo;
     private CustomButton btnGuardar;
@@ -169,8 +169,7 @@ public class ProductoPanel extends JPanel {
         
         // Proveedor
         panel.add(new JLabel("Proveedor:"));
-//        cmbProveedor = new AutoCompleteComboBox();
-        cmbProveedor = new JComboBox<String>();
+        cmbProveedor = new AutoCompleteComboBox();
         panel.add(cmbProveedor);
         
         return panel;
@@ -211,12 +210,13 @@ public class ProductoPanel extends JPanel {
             List<Producto> productos = inventarioService.listarProductos();
             tableModel.setProductos(productos);
             
-            // Cargar proveedores para el combobox
+            // Cargar proveedores para el combobox; solo se reindexan los que cambiaron
             List<Proveedor> proveedores = inventarioService.listarProveedores();
-            cmbProveedor.removeAllItems();
+            List<String> itemsProveedores = new ArrayList<>(proveedores.size());
             for (Proveedor prov : proveedores) {
-                cmbProveedor.addItem(prov.getId() + " - " + prov.getNombre());
+                itemsProveedores.add(prov.getId() + " - " + prov.getNombre());
             }
+            cmbProveedor.setItems(itemsProveedores);
             
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this,
@@ -230,12 +230,16 @@ public class ProductoPanel extends JPanel {
         CategoriaProducto categoria = (CategoriaProducto) cmbCategoriaFiltro.getSelectedItem();
         EstadoProducto estado = (EstadoProducto) cmbEstadoFiltro.getSelectedItem();
         
-        List<Producto> productos = inventarioService.listarProductos();
-        
-        // Aplicar filtros
+        // El filtro más selectivo se resuelve en la base de datos; el resto se aplica sobre ese resultado
+        List<Producto> productos;
         if (!texto.isEmpty()) {
-            productos.removeIf(p -> !p.getNombre().toLowerCase().contains(texto.toLowerCase()) &&
-                                   !p.getId().toLowerCase().contains(texto.toLowerCase()));
+            productos = new ArrayList<>(inventarioService.buscarProductosPorNombre(texto));
+        } else if (categoria != null) {
+            productos = new ArrayList<>(inventarioService.buscarProductosPorCategoria(categoria));
+        } else if (estado != null) {
+            productos = new ArrayList<>(inventarioService.buscarProductosPorEstado(estado));
+        } else {
+            productos = new ArrayList<>(inventarioService.listarProductos());
         }
         
         if (categoria != null) {
@@ -277,7 +281,15 @@ public class ProductoPanel extends JPanel {
         txtUbicacion.setText(producto.getUbicacion());
         
         if (producto.getProveedorId() != null) {
-            cmbProveedor.setSelectedItem(producto.getProveedorId());
+            // Se muestra "ID - Nombre" si el proveedor está en la lista
+            String item = producto.getProveedorId();
+            for (String proveedor : cmbProveedor.getItems()) {
+                if (proveedor.startsWith(producto.getProveedorId() + " - ")) {
+                    item = proveedor;
+                    break;
+                }
+            }
+            cmbProveedor.setSelectedItem(item);
         } else {
             cmbProveedor.setSelectedItem(null);
         }
@@ -422,21 +434,37 @@ public class ProductoPanel extends JPanel {
             return false;
         }
         
+        // El proveedor es opcional, pero si se escribió algo tiene que existir
+        if (!textoProveedor().isEmpty() && obtenerIdProveedorSeleccionado() == null) {
+            JOptionPane.showMessageDialog(this, "El proveedor \"" + textoProveedor() + 
+                "\" no existe. Elija uno de la lista o deje el campo vacío", "Error", JOptionPane.ERROR_MESSAGE);
+            cmbProveedor.requestFocus();
+            return false;
+        }
+        
         return true;
     }
     
+    // El combo es editable: solo vale un elemento de la lista o el id de uno de ellos
     private String obtenerIdProveedorSeleccionado() {
-        Object selected = cmbProveedor.getSelectedItem();
-        if (selected != null) {
-            String texto = selected.toString();
-            if (texto.contains(" - ")) {
-                return texto.split(" - ")[0];
+        String texto = textoProveedor();
+        if (texto.isEmpty()) {
+            return null;
+        }
+        for (String item : cmbProveedor.getItems()) {
+            String id = item.split(" - ")[0];
+            if (item.equals(texto) || id.equals(texto)) {
+                return id;
             }
-            return texto;
         }
         return null;
     }
     
+    private String textoProveedor() {
+        Object selected = cmbProveedor.getSelectedItem();
+        return selected != null ? selected.toString().trim() : "";
+    }
+    
     private String generarIdProducto(String nombre) {
         String base = nombre.substring(0, Math.min(3, nombre.length())).toUpperCase();
         String timestamp = String.valueOf(System.currentTimeMillis());
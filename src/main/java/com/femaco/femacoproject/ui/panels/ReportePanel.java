@@ -1,7 +1,7 @@
 package com.femaco.femacoproject.ui.panels;
 
-import com.femaco.femacoproject.model.MovimientoInventario;
 import com.femaco.femacoproject.model.Producto;
+import com.femaco.femacoproject.model.PronosticoStock;
 import com.femaco.femacoproject.model.enums.CategoriaProducto;
 import com.femaco.femacoproject.model.enums.TipoMovimiento;
 import com.femaco.femacoproject.service.GestionInventarioService;
@@ -18,6 +18,8 @@ import java.util.List;
 import java.util.Map;
 
 public class ReportePanel extends JPanel {
+    private static final int MAX_PRONOSTICO_AGOTAMIENTO = 50;
+
     private ReporteService reporteService;
     private GestionInventarioService inventarioService;
 
@@ -75,6 +77,7 @@ public class ReportePanel extends JPanel {
                 "Stock Actual",
                 "Stock Bajo Mínimo",
                 "Stock Crítico",
+                "Pronóstico de Agotamiento",
                 "Movimientos por Período",
                 "Productos Más Vendidos",
                 "Valor de Inventario por Categoría",
@@ -186,6 +189,9 @@ public class ReportePanel extends JPanel {
                 case "Stock Crítico":
                     generarReporteStockCritico();
                     break;
+                case "Pronóstico de Agotamiento":
+                    generarReportePronosticoAgotamiento();
+                    break;
                 case "Movimientos por Período":
                     generarReporteMovimientos();
                     break;
@@ -318,6 +324,45 @@ public class ReportePanel extends JPanel {
                 productos.size(), stockCero, stockMenor));
     }
 
+    private void generarReportePronosticoAgotamiento() {
+        List<PronosticoStock> pronosticos = reporteService.generarReportePronosticoAgotamiento(MAX_PRONOSTICO_AGOTAMIENTO);
+
+        String[] columnNames = { "ID", "Nombre", "Stock Actual", "Stock Mínimo", "Consumo Diario", "Días al Mínimo", "Días al Agotamiento" };
+        tableModel.setColumnIdentifiers(columnNames);
+        tableModel.setRowCount(0);
+
+        int enMinimo = 0;
+        int enUnaSemana = 0;
+
+        for (PronosticoStock pronostico : pronosticos) {
+            double diasMinimo = pronostico.getDiasHastaMinimo();
+            if (diasMinimo == 0) {
+                enMinimo++;
+            } else if (diasMinimo <= 7) {
+                enUnaSemana++;
+            }
+
+            Object[] row = {
+                    pronostico.getProducto().getId(),
+                    pronostico.getProducto().getNombre(),
+                    pronostico.getStockActual(),
+                    pronostico.getStockMinimo(),
+                    String.format("%.2f", pronostico.getTasaDiaria()),
+                    PronosticoStock.formatearDias(diasMinimo),
+                    PronosticoStock.formatearDias(pronostico.getDiasHastaAgotar())
+            };
+            tableModel.addRow(row);
+        }
+
+        txtResumen.setText(String.format(
+                "PRONÓSTICO DE AGOTAMIENTO\n" +
+                        "Productos con Consumo Mostrados: %d\n" +
+                        "Ya en el Stock Mínimo: %d\n" +
+                        "Llegan al Mínimo en 7 Días o Menos: %d\n" +
+                        "El consumo diario es una media móvil de las salidas de cada producto.",
+                pronosticos.size(), enMinimo, enUnaSemana));
+    }
+
     private void generarReporteMovimientos() {
         if (!validarFechas())
             return;
@@ -325,21 +370,21 @@ public class ReportePanel extends JPanel {
         Date fechaInicio = dateInicio.getDate();
         Date fechaFin = dateFin.getDate();
 
-        List<MovimientoInventario> movimientos = reporteService.generarReporteMovimientos(fechaInicio, fechaFin);
-
         String[] columnNames = { "Fecha", "Producto", "Tipo", "Cantidad", "Motivo", "Usuario" };
         tableModel.setColumnIdentifiers(columnNames);
         tableModel.setRowCount(0);
 
         SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy HH:mm");
-        int totalEntradas = 0;
-        int totalSalidas = 0;
+        // [0] movimientos, [1] unidades de entrada, [2] unidades de salida
+        int[] totales = new int[3];
 
-        for (MovimientoInventario movimiento : movimientos) {
+        // Las filas van directo del ResultSet a la tabla, sin lista intermedia
+        reporteService.recorrerReporteMovimientos(fechaInicio, fechaFin, movimiento -> {
+            totales[0]++;
             if (movimiento.getTipo() == TipoMovimiento.ENTRADA) {
-                totalEntradas += movimiento.getCantidad();
+                totales[1] += movimiento.getCantidad();
             } else {
-                totalSalidas += movimiento.getCantidad();
+                totales[2] += movimiento.getCantidad();
             }
 
             Object[] row = {
@@ -351,8 +396,10 @@ public class ReportePanel extends JPanel {
                     movimiento.getUsuarioId()
             };
             tableModel.addRow(row);
-        }
+        });
 
+        int totalEntradas = totales[1];
+        int totalSalidas = totales[2];
         txtResumen.setText(String.format(
                 "REPORTE DE MOVIMIENTOS\n" +
                         "Período: %s a %s\n" +
@@ -362,7 +409,7 @@ public class ReportePanel extends JPanel {
                         "Balance Neto: %+d unidades",
                 new SimpleDateFormat("dd/MM/yyyy").format(fechaInicio),
                 new SimpleDateFormat("dd/MM/yyyy").format(fechaFin),
-                movimientos.size(), totalEntradas, totalSalidas, totalEntradas - totalSalidas));
+                totales[0], totalEntradas, totalSalidas, totalEntradas - totalSalidas));
     }
 
     private void generarReporteProductosMasVendidos() {
@@ -479,8 +526,14 @@ public class ReportePanel extends JPanel {
 
         try {
             String nombreArchivo = "reporte_" + new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date()) + ".csv";
-            boolean exito = reporteService.exportarReporteCSV(
-                    java.util.Arrays.asList(tableModel.getDataVector().toArray()), nombreArchivo);
+            boolean exito;
+            if ("Movimientos por Período".equals(cmbTipoReporte.getSelectedItem()) && validarFechas()) {
+                // Se vuelve a leer de la base de datos fila por fila en lugar de copiar la tabla
+                exito = reporteService.exportarMovimientosCSV(dateInicio.getDate(), dateFin.getDate(), nombreArchivo);
+            } else {
+                exito = reporteService.exportarReporteCSV(
+                        java.util.Arrays.asList(tableModel.getDataVector().toArray()), nombreArchivo);
+            }
 
             if (exito) {
                 String rutaCompleta = System.getProperty("user.dir") + java.io.File.separator + "reportes" + java.io.File.separator + nombreArchivo;
@@ -0,0 +1,503 @@
+package com.femaco.femacoproject.util;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Árbol rojo-negro: árbol binario de búsqueda que se mantiene balanceado,
+ * con altura máxima 2·log2(n + 1) aunque los datos lleguen ordenados.
+ * Todas las operaciones son iterativas (sin riesgo de StackOverflowError) y
+ * un dato con la misma clave que uno existente lo reemplaza en su nodo, sin
+ * eliminar e insertar de nuevo.
+ */
+public class ArbolRojoNegro<T extends Comparable<T>> implements Iterable<T> {
+    private static final boolean ROJO = false;
+    private static final boolean NEGRO = true;
+
+    private NodoRojoNegro<T> raiz;
+    private int tamaño;
+    private int modificaciones;
+
+    public ArbolRojoNegro() {
+        this.raiz = null;
+        this.tamaño = 0;
+        this.modificaciones = 0;
+    }
+
+    // Insertar elemento; si ya existe uno con la misma clave se reemplaza y se devuelve el anterior
+    public T insertar(T dato) {
+        Objects.requireNonNull(dato, "El árbol no admite elementos nulos");
+
+        NodoRojoNegro<T> padre = null;
+        NodoRojoNegro<T> actual = raiz;
+        int comparacion = 0;
+        while (actual != null) {
+            padre = actual;
+            comparacion = dato.compareTo(actual.dato);
+            if (comparacion < 0) {
+                actual = actual.izquierdo;
+            } else if (comparacion > 0) {
+                actual = actual.derecho;
+            } else {
+                T anterior = actual.dato;
+                actual.dato = dato;
+                return anterior;
+            }
+        }
+
+        NodoRojoNegro<T> nuevo = new NodoRojoNegro<>(dato, padre);
+        if (padre == null) {
+            raiz = nuevo;
+        } else if (comparacion < 0) {
+            padre.izquierdo = nuevo;
+        } else {
+            padre.derecho = nuevo;
+        }
+        corregirInsercion(nuevo);
+        tamaño++;
+        modificaciones++;
+        return null;
+    }
+
+    // Reemplaza el elemento con la misma clave en su nodo; no hace nada si no existe
+    public boolean actualizar(T datoActualizado) {
+        NodoRojoNegro<T> nodo = buscarNodo(datoActualizado);
+        if (nodo == null) {
+            return false;
+        }
+        nodo.dato = datoActualizado;
+        return true;
+    }
+
+    // Buscar elemento con la misma clave
+    public T buscar(T clave) {
+        NodoRojoNegro<T> nodo = buscarNodo(clave);
+        return nodo != null ? nodo.dato : null;
+    }
+
+    public boolean contiene(T clave) {
+        return buscarNodo(clave) != null;
+    }
+
+    // Eliminar elemento
+    public boolean eliminar(T clave) {
+        NodoRojoNegro<T> nodo = buscarNodo(clave);
+        if (nodo == null) {
+            return false;
+        }
+        eliminarNodo(nodo);
+        return true;
+    }
+
+    // ===== CONSULTAS ORDENADAS =====
+
+    public T primero() {
+        return raiz != null ? minimo(raiz).dato : null;
+    }
+
+    public T ultimo() {
+        return raiz != null ? maximo(raiz).dato : null;
+    }
+
+    // Mayor elemento menor o igual a la clave
+    public T piso(T clave) {
+        NodoRojoNegro<T> nodo = nodoPiso(clave);
+        return nodo != null ? nodo.dato : null;
+    }
+
+    // Menor elemento mayor o igual a la clave
+    public T techo(T clave) {
+        NodoRojoNegro<T> nodo = nodoTecho(clave);
+        return nodo != null ? nodo.dato : null;
+    }
+
+    // Elementos entre desde y hasta (ambos incluidos), en orden
+    public List<T> rango(T desde, T hasta) {
+        List<T> resultado = new ArrayList<>();
+        if (desde.compareTo(hasta) > 0) {
+            return resultado;
+        }
+        for (NodoRojoNegro<T> nodo = nodoTecho(desde);
+             nodo != null && nodo.dato.compareTo(hasta) <= 0;
+             nodo = sucesor(nodo)) {
+            resultado.add(nodo.dato);
+        }
+        return resultado;
+    }
+
+    public List<T> inOrder() {
+        List<T> resultado = new ArrayList<>(tamaño);
+        for (T dato : this) {
+            resultado.add(dato);
+        }
+        return resultado;
+    }
+
+    // Recorrido en orden ascendente; falla si el árbol cambia de estructura durante el recorrido
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private NodoRojoNegro<T> siguiente = raiz != null ? minimo(raiz) : null;
+            private final int modificacionesEsperadas = modificaciones;
+
+            @Override
+            public boolean hasNext() {
+                return siguiente != null;
+            }
+
+            @Override
+            public T next() {
+                if (siguiente == null) {
+                    throw new NoSuchElementException();
+                }
+                if (modificaciones != modificacionesEsperadas) {
+                    throw new ConcurrentModificationException();
+                }
+                T dato = siguiente.dato;
+                siguiente = sucesor(siguiente);
+                return dato;
+            }
+        };
+    }
+
+    // ===== MÉTODOS DE UTILIDAD =====
+
+    public int tamaño() {
+        return tamaño;
+    }
+
+    public boolean estaVacio() {
+        return raiz == null;
+    }
+
+    // Altura del árbol, calculada por niveles sin recursión
+    public int altura() {
+        if (raiz == null) {
+            return 0;
+        }
+        int altura = 0;
+        List<NodoRojoNegro<T>> nivel = new ArrayList<>();
+        nivel.add(raiz);
+        while (!nivel.isEmpty()) {
+            altura++;
+            List<NodoRojoNegro<T>> siguienteNivel = new ArrayList<>(nivel.size() * 2);
+            for (NodoRojoNegro<T> nodo : nivel) {
+                if (nodo.izquierdo != null) siguienteNivel.add(nodo.izquierdo);
+                if (nodo.derecho != null) siguienteNivel.add(nodo.derecho);
+            }
+            nivel = siguienteNivel;
+        }
+        return altura;
+    }
+
+    public void limpiar() {
+        raiz = null;
+        tamaño = 0;
+        modificaciones++;
+    }
+
+    @Override
+    public String toString() {
+        return inOrder().toString();
+    }
+
+    // ===== OPERACIONES INTERNAS =====
+
+    private NodoRojoNegro<T> buscarNodo(T clave) {
+        NodoRojoNegro<T> actual = raiz;
+        while (actual != null) {
+            int comparacion = clave.compareTo(actual.dato);
+            if (comparacion < 0) {
+                actual = actual.izquierdo;
+            } else if (comparacion > 0) {
+                actual = actual.derecho;
+            } else {
+                return actual;
+            }
+        }
+        return null;
+    }
+
+    private NodoRojoNegro<T> nodoPiso(T clave) {
+        NodoRojoNegro<T> actual = raiz;
+        NodoRojoNegro<T> candidato = null;
+        while (actual != null) {
+            int comparacion = clave.compareTo(actual.dato);
+            if (comparacion < 0) {
+                actual = actual.izquierdo;
+            } else if (comparacion > 0) {
+                candidato = actual;
+                actual = actual.derecho;
+            } else {
+                return actual;
+            }
+        }
+        return candidato;
+    }
+
+    private NodoRojoNegro<T> nodoTecho(T clave) {
+        NodoRojoNegro<T> actual = raiz;
+        NodoRojoNegro<T> candidato = null;
+        while (actual != null) {
+            int comparacion = clave.compareTo(actual.dato);
+            if (comparacion < 0) {
+                candidato = actual;
+                actual = actual.izquierdo;
+            } else if (comparacion > 0) {
+                actual = actual.derecho;
+            } else {
+                return actual;
+            }
+        }
+        return candidato;
+    }
+
+    private static <T> NodoRojoNegro<T> minimo(NodoRojoNegro<T> nodo) {
+        while (nodo.izquierdo != null) {
+            nodo = nodo.izquierdo;
+        }
+        return nodo;
+    }
+
+    private static <T> NodoRojoNegro<T> maximo(NodoRojoNegro<T> nodo) {
+        while (nodo.derecho != null) {
+            nodo = nodo.derecho;
+        }
+        return nodo;
+    }
+
+    private static <T> NodoRojoNegro<T> sucesor(NodoRojoNegro<T> nodo) {
+        if (nodo.derecho != null) {
+            return minimo(nodo.derecho);
+        }
+        NodoRojoNegro<T> padre = nodo.padre;
+        while (padre != null && nodo == padre.derecho) {
+            nodo = padre;
+            padre = padre.padre;
+        }
+        return padre;
+    }
+
+    private void eliminarNodo(NodoRojoNegro<T> nodo) {
+        tamaño--;
+        modificaciones++;
+
+        // Con dos hijos se copia el sucesor y se elimina el nodo del sucesor, que tiene a lo sumo un hijo
+        if (nodo.izquierdo != null && nodo.derecho != null) {
+            NodoRojoNegro<T> siguiente = sucesor(nodo);
+            nodo.dato = siguiente.dato;
+            nodo = siguiente;
+        }
+
+        NodoRojoNegro<T> reemplazo = nodo.izquierdo != null ? nodo.izquierdo : nodo.derecho;
+        if (reemplazo != null) {
+            reemplazo.padre = nodo.padre;
+            if (nodo.padre == null) {
+                raiz = reemplazo;
+            } else if (nodo == nodo.padre.izquierdo) {
+                nodo.padre.izquierdo = reemplazo;
+            } else {
+                nodo.padre.derecho = reemplazo;
+            }
+            nodo.izquierdo = nodo.derecho = nodo.padre = null;
+            if (nodo.color == NEGRO) {
+                corregirEliminacion(reemplazo);
+            }
+        } else if (nodo.padre == null) {
+            raiz = null;
+        } else {
+            // Hoja: se corrige usando el propio nodo como hoja fantasma y luego se desengancha
+            if (nodo.color == NEGRO) {
+                corregirEliminacion(nodo);
+            }
+            if (nodo.padre != null) {
+                if (nodo == nodo.padre.izquierdo) {
+                    nodo.padre.izquierdo = null;
+                } else if (nodo == nodo.padre.derecho) {
+                    nodo.padre.derecho = null;
+                }
+                nodo.padre = null;
+            }
+        }
+    }
+
+    private void corregirInsercion(NodoRojoNegro<T> x) {
+        x.color = ROJO;
+        while (x != null && x != raiz && x.padre.color == ROJO) {
+            NodoRojoNegro<T> padre = padreDe(x);
+            NodoRojoNegro<T> abuelo = padreDe(padre);
+            if (padre == izquierdoDe(abuelo)) {
+                NodoRojoNegro<T> tio = derechoDe(abuelo);
+                if (colorDe(tio) == ROJO) {
+                    asignarColor(padre, NEGRO);
+                    asignarColor(tio, NEGRO);
+                    asignarColor(abuelo, ROJO);
+                    x = abuelo;
+                } else {
+                    if (x == derechoDe(padre)) {
+                        x = padre;
+                        rotarIzquierda(x);
+                    }
+                    asignarColor(padreDe(x), NEGRO);
+                    asignarColor(padreDe(padreDe(x)), ROJO);
+                    rotarDerecha(padreDe(padreDe(x)));
+                }
+            } else {
+                NodoRojoNegro<T> tio = izquierdoDe(abuelo);
+                if (colorDe(tio) == ROJO) {
+                    asignarColor(padre, NEGRO);
+                    asignarColor(tio, NEGRO);
+                    asignarColor(abuelo, ROJO);
+                    x = abuelo;
+                } else {
+                    if (x == izquierdoDe(padre)) {
+                        x = padre;
+                        rotarDerecha(x);
+                    }
+                    asignarColor(padreDe(x), NEGRO);
+                    asignarColor(padreDe(padreDe(x)), ROJO);
+                    rotarIzquierda(padreDe(padreDe(x)));
+                }
+            }
+        }
+        raiz.color = NEGRO;
+    }
+
+    private void corregirEliminacion(NodoRojoNegro<T> x) {
+        while (x != raiz && colorDe(x) == NEGRO) {
+            if (x == izquierdoDe(padreDe(x))) {
+                NodoRojoNegro<T> hermano = derechoDe(padreDe(x));
+                if (colorDe(hermano) == ROJO) {
+                    asignarColor(hermano, NEGRO);
+                    asignarColor(padreDe(x), ROJO);
+                    rotarIzquierda(padreDe(x));
+                    hermano = derechoDe(padreDe(x));
+                }
+                if (colorDe(izquierdoDe(hermano)) == NEGRO && colorDe(derechoDe(hermano)) == NEGRO) {
+                    asignarColor(hermano, ROJO);
+                    x = padreDe(x);
+                } else {
+                    if (colorDe(derechoDe(hermano)) == NEGRO) {
+                        asignarColor(izquierdoDe(hermano), NEGRO);
+                        asignarColor(hermano, ROJO);
+                        rotarDerecha(hermano);
+                        hermano = derechoDe(padreDe(x));
+                    }
+                    asignarColor(hermano, colorDe(padreDe(x)));
+                    asignarColor(padreDe(x), NEGRO);
+                    asignarColor(derechoDe(hermano), NEGRO);
+                    rotarIzquierda(padreDe(x));
+                    x = raiz;
+                }
+            } else {
+                NodoRojoNegro<T> hermano = izquierdoDe(padreDe(x));
+                if (colorDe(hermano) == ROJO) {
+                    asignarColor(hermano, NEGRO);
+                    asignarColor(padreDe(x), ROJO);
+                    rotarDerecha(padreDe(x));
+                    hermano = izquierdoDe(padreDe(x));
+                }
+                if (colorDe(derechoDe(hermano)) == NEGRO && colorDe(izquierdoDe(hermano)) == NEGRO) {
+                    asignarColor(hermano, ROJO);
+                    x = padreDe(x);
+                } else {
+                    if (colorDe(izquierdoDe(hermano)) == NEGRO) {
+                        asignarColor(derechoDe(hermano), NEGRO);
+                        asignarColor(hermano, ROJO);
+                        rotarIzquierda(hermano);
+                        hermano = izquierdoDe(padreDe(x));
+                    }
+                    asignarColor(hermano, colorDe(padreDe(x)));
+                    asignarColor(padreDe(x), NEGRO);
+                    asignarColor(izquierdoDe(hermano), NEGRO);
+                    rotarDerecha(padreDe(x));
+                    x = raiz;
+                }
+            }
+        }
+        asignarColor(x, NEGRO);
+    }
+
+    private void rotarIzquierda(NodoRojoNegro<T> nodo) {
+        if (nodo == null) {
+            return;
+        }
+        NodoRojoNegro<T> derecho = nodo.derecho;
+        nodo.derecho = derecho.izquierdo;
+        if (derecho.izquierdo != null) {
+            derecho.izquierdo.padre = nodo;
+        }
+        derecho.padre = nodo.padre;
+        if (nodo.padre == null) {
+            raiz = derecho;
+        } else if (nodo.padre.izquierdo == nodo) {
+            nodo.padre.izquierdo = derecho;
+        } else {
+            nodo.padre.derecho = derecho;
+        }
+        derecho.izquierdo = nodo;
+        nodo.padre = derecho;
+    }
+
+    private void rotarDerecha(NodoRojoNegro<T> nodo) {
+        if (nodo == null) {
+            return;
+        }
+        NodoRojoNegro<T> izquierdo = nodo.izquierdo;
+        nodo.izquierdo = izquierdo.derecho;
+        if (izquierdo.derecho != null) {
+            izquierdo.derecho.padre = nodo;
+        }
+        izquierdo.padre = nodo.padre;
+        if (nodo.padre == null) {
+            raiz = izquierdo;
+        } else if (nodo.padre.derecho == nodo) {
+            nodo.padre.derecho = izquierdo;
+        } else {
+            nodo.padre.izquierdo = izquierdo;
+        }
+        izquierdo.derecho = nodo;
+        nodo.padre = izquierdo;
+    }
+
+    // Accesores tolerantes a null: los nodos ausentes cuentan como hojas negras
+    private static <T> boolean colorDe(NodoRojoNegro<T> nodo) {
+        return nodo == null ? NEGRO : nodo.color;
+    }
+
+    private static <T> NodoRojoNegro<T> padreDe(NodoRojoNegro<T> nodo) {
+        return nodo == null ? null : nodo.padre;
+    }
+
+    private static <T> void asignarColor(NodoRojoNegro<T> nodo, boolean color) {
+        if (nodo != null) {
+            nodo.color = color;
+        }
+    }
+
+    private static <T> NodoRojoNegro<T> izquierdoDe(NodoRojoNegro<T> nodo) {
+        return nodo == null ? null : nodo.izquierdo;
+    }
+
+    private static <T> NodoRojoNegro<T> derechoDe(NodoRojoNegro<T> nodo) {
+        return nodo == null ? null : nodo.derecho;
+    }
+
+    private static class NodoRojoNegro<T> {
+        T dato;
+        NodoRojoNegro<T> izquierdo;
+        NodoRojoNegro<T> derecho;
+        NodoRojoNegro<T> padre;
+        boolean color;
+
+        NodoRojoNegro(T dato, NodoRojoNegro<T> padre) {
+            this.dato = dato;
+            this.padre = padre;
+            this.color = NEGRO;
+        }
+    }
+}
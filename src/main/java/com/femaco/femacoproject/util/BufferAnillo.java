@@ -0,0 +1,261 @@
+package com.femaco.femacoproject.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Cola acotada sin bloqueos para pasar trabajo entre hilos: varios productores y un
+ * único consumidor (MPSC). A diferencia de {@link Cola}, no reserva un nodo por
+ * elemento: los elementos viven en un arreglo circular de tamaño fijo.
+ * <p>
+ * Cada casilla lleva un número de secuencia que indica de quién es el turno. Un
+ * productor reserva una posición con un CAS sobre el contador de escritura, guarda el
+ * elemento y publica la casilla avanzando su secuencia; el consumidor lee en orden y la
+ * devuelve sumándole la capacidad. Si la cola está llena, {@link #ofrecer(Object)}
+ * devuelve false para que el productor decida (descartar, reintentar o esperar).
+ * <p>
+ * Solo un hilo puede consumir a la vez ({@link #sondear()}, {@link #drenar} y
+ * {@link #tomar()}); los productores pueden ser tantos como se quiera.
+ */
+public class BufferAnillo<T> {
+    private static final int CAPACIDAD_MAXIMA = 1 << 30;
+
+    /** Cómo espera un hilo cuando la cola está vacía (consumidor) o llena (productor). */
+    public enum EstrategiaEspera {
+        /** Menor latencia; ocupa un núcleo mientras espera. */
+        GIRAR {
+            @Override
+            void esperar(int intento) {
+                Thread.onSpinWait();
+            }
+        },
+        /** Cede el procesador a otros hilos entre intentos. */
+        CEDER {
+            @Override
+            void esperar(int intento) {
+                if (intento < 100) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+        },
+        /** Gira poco y luego duerme; apropiada para trabajo en segundo plano sin urgencia. */
+        ESTACIONAR {
+            @Override
+            void esperar(int intento) {
+                if (intento < 100) {
+                    Thread.onSpinWait();
+                } else if (intento < 200) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(MAX_ESTACIONAMIENTO_NANOS);
+                }
+            }
+        };
+
+        // Cota del sueño: los productores despiertan al consumidor, pero no a otros productores
+        private static final long MAX_ESTACIONAMIENTO_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+        abstract void esperar(int intento);
+    }
+
+    private final int mascara;
+    private final AtomicReferenceArray<T> elementos;
+    // Secuencia de cada casilla: igual a la posición si está libre, posición + 1 si tiene dato
+    private final AtomicLongArray secuencias;
+    private final EstrategiaEspera estrategia;
+
+    // Siguiente posición a reservar por los productores
+    private final AtomicLong escritura;
+    // Siguiente posición a leer; solo la modifica el consumidor
+    private volatile long lectura;
+    private volatile Thread consumidorEsperando;
+    private final AtomicLong rechazados;
+
+    public BufferAnillo(int capacidad) {
+        this(capacidad, EstrategiaEspera.ESTACIONAR);
+    }
+
+    /**
+     * @param capacidad número de elementos; se redondea a la siguiente potencia de dos
+     */
+    public BufferAnillo(int capacidad, EstrategiaEspera estrategia) {
+        if (capacidad <= 0 || capacidad > CAPACIDAD_MAXIMA) {
+            throw new IllegalArgumentException("Capacidad inválida: " + capacidad);
+        }
+        if (estrategia == null) {
+            throw new IllegalArgumentException("La estrategia de espera es requerida");
+        }
+        int tamaño = Integer.highestOneBit(capacidad);
+        if (tamaño < capacidad) {
+            tamaño <<= 1;
+        }
+        this.mascara = tamaño - 1;
+        this.elementos = new AtomicReferenceArray<>(tamaño);
+        this.secuencias = new AtomicLongArray(tamaño);
+        for (int i = 0; i < tamaño; i++) {
+            secuencias.set(i, i);
+        }
+        this.estrategia = estrategia;
+        this.escritura = new AtomicLong();
+        this.rechazados = new AtomicLong();
+    }
+
+    // ===== PRODUCTORES =====
+
+    /**
+     * Intenta encolar sin esperar.
+     * @return false si la cola está llena; es la señal para que el productor frene
+     */
+    public boolean ofrecer(T elemento) {
+        if (elemento == null) {
+            throw new IllegalArgumentException("No se admiten elementos nulos");
+        }
+        while (true) {
+            long posicion = escritura.get();
+            int indice = (int) posicion & mascara;
+            long diferencia = secuencias.get(indice) - posicion;
+            if (diferencia == 0) {
+                if (escritura.compareAndSet(posicion, posicion + 1)) {
+                    elementos.lazySet(indice, elemento);
+                    // Publica la casilla: el consumidor no la lee hasta ver la nueva secuencia
+                    secuencias.set(indice, posicion + 1);
+                    despertarConsumidor();
+                    return true;
+                }
+            } else if (diferencia < 0) {
+                // El consumidor todavía no liberó esta casilla de la vuelta anterior
+                rechazados.incrementAndGet();
+                return false;
+            }
+            // diferencia > 0: otro productor ganó la posición; se reintenta con la siguiente
+        }
+    }
+
+    /** Encola esperando, según la estrategia, a que haya espacio. */
+    public void encolar(T elemento) throws InterruptedException {
+        int intento = 0;
+        while (!ofrecer(elemento)) {
+            esperar(intento++);
+        }
+    }
+
+    // ===== CONSUMIDOR =====
+
+    /** Desencola sin esperar; null si la cola está vacía. */
+    public T sondear() {
+        long posicion = lectura;
+        int indice = (int) posicion & mascara;
+        if (secuencias.get(indice) != posicion + 1) {
+            return null;
+        }
+        T elemento = elementos.get(indice);
+        elementos.lazySet(indice, null);
+        // Devuelve la casilla a los productores para la próxima vuelta
+        secuencias.set(indice, posicion + mascara + 1);
+        lectura = posicion + 1;
+        return elemento;
+    }
+
+    /** Desencola esperando, según la estrategia, a que llegue un elemento. */
+    public T tomar() throws InterruptedException {
+        T elemento = sondear();
+        if (elemento != null) {
+            return elemento;
+        }
+        consumidorEsperando = Thread.currentThread();
+        try {
+            int intento = 0;
+            while ((elemento = sondear()) == null) {
+                esperar(intento++);
+            }
+            return elemento;
+        } finally {
+            consumidorEsperando = null;
+        }
+    }
+
+    /**
+     * Entrega al consumidor hasta {@code maximo} elementos disponibles, sin esperar.
+     * @return cuántos elementos se entregaron
+     */
+    public int drenar(Consumer<? super T> consumidor, int maximo) {
+        long posicion = lectura;
+        int entregados = 0;
+        while (entregados < maximo) {
+            int indice = (int) posicion & mascara;
+            if (secuencias.get(indice) != posicion + 1) {
+                break;
+            }
+            T elemento = elementos.get(indice);
+            elementos.lazySet(indice, null);
+            secuencias.set(indice, posicion + mascara + 1);
+            posicion++;
+            lectura = posicion;
+            entregados++;
+            consumidor.accept(elemento);
+        }
+        return entregados;
+    }
+
+    /**
+     * Espera a que haya al menos un elemento y entrega el lote disponible, hasta
+     * {@code maximo}. Pensado para bucles de consumo que procesan por lotes.
+     */
+    public int drenarEsperando(Consumer<? super T> consumidor, int maximo) throws InterruptedException {
+        T primero = tomar();
+        consumidor.accept(primero);
+        return 1 + drenar(consumidor, maximo - 1);
+    }
+
+    // ===== ESTADO =====
+
+    public int capacidad() {
+        return mascara + 1;
+    }
+
+    /** Elementos encolados; aproximado mientras haya productores activos. */
+    public int tamaño() {
+        long diferencia = escritura.get() - lectura;
+        return (int) Math.max(0, Math.min(diferencia, capacidad()));
+    }
+
+    public boolean estaVacia() {
+        return tamaño() == 0;
+    }
+
+    /** Fracción ocupada entre 0 y 1, para que los productores frenen antes de llenarla. */
+    public double ocupacion() {
+        return (double) tamaño() / capacidad();
+    }
+
+    /** Veces que {@link #ofrecer(Object)} encontró la cola llena. */
+    public long getRechazados() {
+        return rechazados.get();
+    }
+
+    private void esperar(int intento) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        estrategia.esperar(intento);
+    }
+
+    private void despertarConsumidor() {
+        Thread consumidor = consumidorEsperando;
+        if (consumidor != null) {
+            LockSupport.unpark(consumidor);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BufferAnillo[tamaño=%d, capacidad=%d, rechazados=%d, estrategia=%s]",
+                           tamaño(), capacidad(), getRechazados(), estrategia);
+    }
+}
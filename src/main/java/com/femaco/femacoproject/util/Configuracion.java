@@ -1,6 +1,10 @@
 package com.femaco.femacoproject.util;
 
 import java.io.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -8,6 +12,7 @@ import java.util.logging.Logger;
 public class Configuracion {
     private static final Logger logger = Logger.getLogger(Configuracion.class.getName());
     private static final String CONFIG_FILE = "config.properties";
+    private static final String PREFIJO_UMBRAL_ALERTA = "alertas.umbral.";
     private static Configuracion instance;
     private Properties properties;
     
@@ -39,10 +44,28 @@ public class Configuracion {
         try (OutputStream output = new FileOutputStream(CONFIG_FILE)) {
             // Configuración por defecto
             properties.setProperty("database.url", "jdbc:sqlite:inventario_femaco.db");
+            properties.setProperty("database.pool.size", "4");
+            properties.setProperty("database.pool.timeout", "5000"); // milisegundos
+            properties.setProperty("database.statement.cache.size", "64");
+            properties.setProperty("database.fetch.size", "500");
             properties.setProperty("backup.path", "backups/");
+            properties.setProperty("cache.snapshot.path", "cache/catalogo.snapshot");
             properties.setProperty("backup.auto", "true");
             properties.setProperty("backup.interval", "7"); // días
             properties.setProperty("stock.alerta.dias", "3");
+            properties.setProperty("alertas.retencion.dias", "30");
+            properties.setProperty("consumo.suavizado.dias", "14"); // media móvil de las salidas
+            properties.setProperty(PREFIJO_UMBRAL_ALERTA + "STOCK_PROXIMO_MINIMO", "150"); // % del mínimo
+            properties.setProperty("notificaciones.ventana.segundos", "300");
+            properties.setProperty("notificaciones.max.por.hora", "12"); // por canal
+            properties.setProperty("notificaciones.reintentos", "5");
+            properties.setProperty("notificaciones.archivo.path", "logs/alertas.jsonl"); // vacío para desactivar
+            properties.setProperty("notificaciones.bandeja", "true");
+            properties.setProperty("notificaciones.smtp.host", ""); // vacío para desactivar
+            properties.setProperty("notificaciones.smtp.port", "25");
+            properties.setProperty("notificaciones.smtp.remitente", "inventario@femaco.local");
+            properties.setProperty("notificaciones.smtp.destinatarios", ""); // separados por coma
+            properties.setProperty("notificaciones.smtp.timeout", "10000"); // milisegundos
             properties.setProperty("ui.theme", "system");
             properties.setProperty("reporte.max.items", "1000");
             properties.setProperty("session.timeout", "30"); // minutos
@@ -59,10 +82,30 @@ public class Configuracion {
         return properties.getProperty("database.url", "jdbc:sqlite:inventario_femaco.db");
     }
     
+    public int getDatabasePoolSize() {
+        return Integer.parseInt(properties.getProperty("database.pool.size", "4"));
+    }
+    
+    public long getDatabasePoolTimeout() {
+        return Long.parseLong(properties.getProperty("database.pool.timeout", "5000"));
+    }
+    
+    public int getStatementCacheSize() {
+        return Integer.parseInt(properties.getProperty("database.statement.cache.size", "64"));
+    }
+    
+    public int getDatabaseFetchSize() {
+        return Integer.parseInt(properties.getProperty("database.fetch.size", "500"));
+    }
+    
     public String getBackupPath() {
         return properties.getProperty("backup.path", "backups/");
     }
     
+    public String getCacheSnapshotPath() {
+        return properties.getProperty("cache.snapshot.path", "cache/catalogo.snapshot");
+    }
+    
     public boolean isAutoBackupEnabled() {
         return Boolean.parseBoolean(properties.getProperty("backup.auto", "true"));
     }
@@ -75,6 +118,85 @@ public class Configuracion {
         return Integer.parseInt(properties.getProperty("stock.alerta.dias", "3"));
     }
     
+    public int getAlertasRetencionDias() {
+        return Integer.parseInt(properties.getProperty("alertas.retencion.dias", "30"));
+    }
+    
+    // Días de la media móvil del consumo: cuanto más, más lenta en reaccionar
+    public int getConsumoSuavizadoDias() {
+        return Integer.parseInt(properties.getProperty("consumo.suavizado.dias", "14"));
+    }
+    
+    /**
+     * Umbrales de alerta declarados como alertas.umbral.&lt;clave&gt;=&lt;valor&gt;, por ejemplo
+     * alertas.umbral.STOCK_BAJO.categoria.MATERIALES_CONSTRUCCION=120. Los valores no numéricos se ignoran.
+     */
+    public Map<String, Integer> getUmbralesAlertas() {
+        Map<String, Integer> umbrales = new HashMap<>();
+        for (String clave : properties.stringPropertyNames()) {
+            if (!clave.startsWith(PREFIJO_UMBRAL_ALERTA)) {
+                continue;
+            }
+            try {
+                umbrales.put(clave.substring(PREFIJO_UMBRAL_ALERTA.length()),
+                             Integer.parseInt(properties.getProperty(clave).trim()));
+            } catch (NumberFormatException e) {
+                logger.warning("Umbral de alerta inválido: " + clave + "=" + properties.getProperty(clave));
+            }
+        }
+        return umbrales;
+    }
+    
+    public void setUmbralAlerta(String clave, int umbral) {
+        setProperty(PREFIJO_UMBRAL_ALERTA + clave, String.valueOf(umbral));
+    }
+    
+    public int getNotificacionesVentanaSegundos() {
+        return Integer.parseInt(properties.getProperty("notificaciones.ventana.segundos", "300"));
+    }
+    
+    public int getNotificacionesMaxPorHora() {
+        return Integer.parseInt(properties.getProperty("notificaciones.max.por.hora", "12"));
+    }
+    
+    public int getNotificacionesReintentos() {
+        return Integer.parseInt(properties.getProperty("notificaciones.reintentos", "5"));
+    }
+    
+    public String getNotificacionesArchivo() {
+        return properties.getProperty("notificaciones.archivo.path", "logs/alertas.jsonl").trim();
+    }
+    
+    public boolean isNotificacionesBandeja() {
+        return Boolean.parseBoolean(properties.getProperty("notificaciones.bandeja", "true"));
+    }
+    
+    public String getNotificacionesSmtpHost() {
+        return properties.getProperty("notificaciones.smtp.host", "").trim();
+    }
+    
+    public int getNotificacionesSmtpPuerto() {
+        return Integer.parseInt(properties.getProperty("notificaciones.smtp.port", "25"));
+    }
+    
+    public String getNotificacionesSmtpRemitente() {
+        return properties.getProperty("notificaciones.smtp.remitente", "inventario@femaco.local").trim();
+    }
+    
+    public List<String> getNotificacionesSmtpDestinatarios() {
+        List<String> destinatarios = new ArrayList<>();
+        for (String destinatario : properties.getProperty("notificaciones.smtp.destinatarios", "").split(",")) {
+            if (!destinatario.trim().isEmpty()) {
+                destinatarios.add(destinatario.trim());
+            }
+        }
+        return destinatarios;
+    }
+    
+    public int getNotificacionesSmtpTimeout() {
+        return Integer.parseInt(properties.getProperty("notificaciones.smtp.timeout", "10000"));
+    }
+    
     public String getUITheme() {
         return properties.getProperty("ui.theme", "system");
     }
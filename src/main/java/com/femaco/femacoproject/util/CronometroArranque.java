@@ -0,0 +1,57 @@
+package com.femaco.femacoproject.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Mide las fases del arranque de la aplicación. Cada llamada a {@link #marcar(String)}
+ * registra el tiempo transcurrido desde la marca anterior; el resumen se escribe en el
+ * log para ver en qué se va el tiempo hasta que aparece el login.
+ */
+public final class CronometroArranque {
+    private static final Map<String, Long> fases = new LinkedHashMap<>();
+    private static long inicio;
+    private static long ultimaMarca;
+
+    private CronometroArranque() {
+    }
+
+    /** Empieza a medir; lo transcurrido desde que arrancó la JVM se registra como primera fase. */
+    public static synchronized void iniciar() {
+        fases.clear();
+        inicio = System.nanoTime();
+        ultimaMarca = inicio;
+        fases.put("arranque de la JVM", ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    public static synchronized void marcar(String fase) {
+        long ahora = System.nanoTime();
+        if (inicio == 0) {
+            inicio = ahora;
+            ultimaMarca = ahora;
+        }
+        fases.merge(fase, (ahora - ultimaMarca) / 1_000_000, Long::sum);
+        ultimaMarca = ahora;
+    }
+
+    /** Milisegundos desde {@link #iniciar()}. */
+    public static synchronized long transcurridoMs() {
+        return inicio == 0 ? 0 : (System.nanoTime() - inicio) / 1_000_000;
+    }
+
+    public static synchronized String resumen() {
+        StringBuilder sb = new StringBuilder("Tiempos de arranque:");
+        long total = 0;
+        for (Map.Entry<String, Long> fase : fases.entrySet()) {
+            sb.append(String.format("%n  %-35s %6d ms", fase.getKey(), fase.getValue()));
+            total += fase.getValue();
+        }
+        sb.append(String.format("%n  %-35s %6d ms", "TOTAL", total));
+        return sb.toString();
+    }
+
+    public static void registrarResumen() {
+        Logger.getInstance().info(resumen());
+    }
+}
@@ -0,0 +1,216 @@
+package com.femaco.femacoproject.util;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Índice de texto para autocompletado. Cada elemento se normaliza (sin tildes y en
+ * minúsculas) y se indexa por sus trigramas y por el prefijo de cada palabra:
+ * <ul>
+ *   <li>consultas de tres o más caracteres: se intersecan las listas de los trigramas
+ *       de la consulta y solo se verifican los candidatos resultantes;</li>
+ *   <li>consultas de uno o dos caracteres: se buscan las palabras que empiezan así.</li>
+ * </ul>
+ * Las altas y bajas actualizan el índice sin reconstruirlo. No es seguro entre hilos;
+ * está pensado para usarse desde el hilo de eventos de Swing.
+ */
+public class IndiceAutocompletado {
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Elemento original -> texto normalizado
+    private final Map<String, String> normalizados;
+    private final Map<String, Set<String>> porTrigrama;
+    // Palabra normalizada -> elementos que la contienen; ordenado para buscar por prefijo
+    private final NavigableMap<String, Set<String>> porPalabra;
+
+    public IndiceAutocompletado() {
+        this.normalizados = new HashMap<>();
+        this.porTrigrama = new HashMap<>();
+        this.porPalabra = new TreeMap<>();
+    }
+
+    /** Quita tildes y diéresis y pasa a minúsculas: "Martillo Ñandú" -> "martillo nandu". */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String descompuesto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        return MARCAS_DIACRITICAS.matcher(descompuesto).replaceAll("").toLowerCase(Locale.ROOT).trim();
+    }
+
+    public boolean agregar(String elemento) {
+        if (elemento == null || normalizados.containsKey(elemento)) {
+            return false;
+        }
+        String normalizado = normalizar(elemento);
+        normalizados.put(elemento, normalizado);
+        for (String trigrama : trigramas(normalizado)) {
+            porTrigrama.computeIfAbsent(trigrama, k -> new HashSet<>()).add(elemento);
+        }
+        for (String palabra : palabras(normalizado)) {
+            porPalabra.computeIfAbsent(palabra, k -> new HashSet<>()).add(elemento);
+        }
+        return true;
+    }
+
+    public boolean eliminar(String elemento) {
+        String normalizado = normalizados.remove(elemento);
+        if (normalizado == null) {
+            return false;
+        }
+        for (String trigrama : trigramas(normalizado)) {
+            quitarDe(porTrigrama, trigrama, elemento);
+        }
+        for (String palabra : palabras(normalizado)) {
+            quitarDe(porPalabra, palabra, elemento);
+        }
+        return true;
+    }
+
+    public boolean contiene(String elemento) {
+        return normalizados.containsKey(elemento);
+    }
+
+    public int tamaño() {
+        return normalizados.size();
+    }
+
+    public void limpiar() {
+        normalizados.clear();
+        porTrigrama.clear();
+        porPalabra.clear();
+    }
+
+    /**
+     * Elementos que contienen la consulta (o, si es muy corta, alguna palabra que empieza
+     * por ella), como mucho {@code limite}. Primero los que empiezan por la consulta, luego
+     * los que tienen una palabra que empieza por ella y al final el resto, cada grupo en
+     * orden alfabético.
+     */
+    public List<String> buscar(String consulta, int limite) {
+        String normalizada = normalizar(consulta);
+        if (normalizada.isEmpty() || limite <= 0) {
+            return Collections.emptyList();
+        }
+
+        Collection<String> candidatos = normalizada.length() < 3
+            ? candidatosPorPrefijo(normalizada)
+            : candidatosPorTrigramas(normalizada);
+
+        // Montículo acotado: la raíz es la peor sugerencia retenida y se descarta primero
+        PriorityQueue<Coincidencia> mejores = new PriorityQueue<>(Math.min(limite, candidatos.size()) + 1,
+                                                                  Collections.reverseOrder());
+        for (String candidato : candidatos) {
+            int relevancia = relevancia(normalizados.get(candidato), normalizada);
+            if (relevancia < 0) {
+                continue;
+            }
+            Coincidencia coincidencia = new Coincidencia(candidato, relevancia);
+            if (mejores.size() < limite) {
+                mejores.offer(coincidencia);
+            } else if (coincidencia.compareTo(mejores.peek()) < 0) {
+                mejores.poll();
+                mejores.offer(coincidencia);
+            }
+        }
+
+        List<Coincidencia> ordenadas = new ArrayList<>(mejores);
+        Collections.sort(ordenadas);
+        List<String> resultado = new ArrayList<>(ordenadas.size());
+        for (Coincidencia coincidencia : ordenadas) {
+            resultado.add(coincidencia.elemento);
+        }
+        return resultado;
+    }
+
+    private Collection<String> candidatosPorPrefijo(String prefijo) {
+        Set<String> candidatos = new HashSet<>();
+        for (Set<String> elementos : porPalabra.subMap(prefijo, true, prefijo + Character.MAX_VALUE, false).values()) {
+            candidatos.addAll(elementos);
+        }
+        return candidatos;
+    }
+
+    private Collection<String> candidatosPorTrigramas(String consulta) {
+        // Se parte de la lista más corta para que la intersección sea lo más barata posible
+        List<Set<String>> listas = new ArrayList<>();
+        for (String trigrama : trigramas(consulta)) {
+            Set<String> lista = porTrigrama.get(trigrama);
+            if (lista == null) {
+                return Collections.emptyList();
+            }
+            listas.add(lista);
+        }
+        listas.sort(Comparator.comparingInt(Set::size));
+
+        Set<String> candidatos = new HashSet<>(listas.get(0));
+        for (int i = 1; i < listas.size() && !candidatos.isEmpty(); i++) {
+            candidatos.retainAll(listas.get(i));
+        }
+        return candidatos;
+    }
+
+    // 0: empieza por la consulta, 1: alguna palabra empieza por ella, 2: la contiene, -1: no la contiene
+    private static int relevancia(String texto, String consulta) {
+        int posicion = texto.indexOf(consulta);
+        if (posicion < 0) {
+            return -1;
+        }
+        if (posicion == 0) {
+            return 0;
+        }
+        while (posicion > 0) {
+            if (!Character.isLetterOrDigit(texto.charAt(posicion - 1))) {
+                return 1;
+            }
+            posicion = texto.indexOf(consulta, posicion + 1);
+        }
+        return 2;
+    }
+
+    private static Set<String> trigramas(String texto) {
+        Set<String> trigramas = new HashSet<>();
+        for (int i = 0; i + 3 <= texto.length(); i++) {
+            trigramas.add(texto.substring(i, i + 3));
+        }
+        return trigramas;
+    }
+
+    private static Set<String> palabras(String texto) {
+        Set<String> palabras = new HashSet<>();
+        for (String palabra : SEPARADORES.split(texto)) {
+            if (!palabra.isEmpty()) {
+                palabras.add(palabra);
+            }
+        }
+        return palabras;
+    }
+
+    private static final class Coincidencia implements Comparable<Coincidencia> {
+        private final String elemento;
+        private final int relevancia;
+
+        Coincidencia(String elemento, int relevancia) {
+            this.elemento = elemento;
+            this.relevancia = relevancia;
+        }
+
+        @Override
+        public int compareTo(Coincidencia otra) {
+            int comparacion = Integer.compare(relevancia, otra.relevancia);
+            return comparacion != 0 ? comparacion : String.CASE_INSENSITIVE_ORDER.compare(elemento, otra.elemento);
+        }
+    }
+
+    private static void quitarDe(Map<String, Set<String>> indice, String clave, String elemento) {
+        Set<String> elementos = indice.get(clave);
+        if (elementos != null) {
+            elementos.remove(elemento);
+            if (elementos.isEmpty()) {
+                indice.remove(clave);
+            }
+        }
+    }
+}
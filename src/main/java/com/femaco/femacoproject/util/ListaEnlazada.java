@@ -1,89 +1,129 @@
 package com.femaco.femacoproject.util;
 
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+/**
+ * Lista de elementos guardados en bloques contiguos de 64 posiciones en lugar de un
+ * nodo por elemento. Todos los bloques están llenos salvo el último, de modo que:
+ * <ul>
+ *   <li>agregar al final es O(1): se escribe en el bloque de cola o se abre uno nuevo;</li>
+ *   <li>obtener por índice es O(1): bloque = índice / tamaño de bloque;</li>
+ *   <li>eliminar y agregar al inicio desplazan los elementos siguientes bloque a bloque.</li>
+ * </ul>
+ * Su {@link Spliterator} conoce el tamaño exacto de cada mitad y corta por límites de
+ * bloque, así que {@code stream().parallel()} reparte el trabajo de forma pareja.
+ * No es segura entre hilos; los iteradores fallan con ConcurrentModificationException
+ * si la lista cambia mientras se recorre.
+ */
 public class ListaEnlazada<T> implements Iterable<T> {
-    private Nodo<T> cabeza;
+    private static final int BITS_BLOQUE = 6;
+    private static final int TAMAÑO_BLOQUE = 1 << BITS_BLOQUE;
+    private static final int MASCARA_BLOQUE = TAMAÑO_BLOQUE - 1;
+    private static final int BLOQUES_INICIALES = 4;
+
+    // Directorio de bloques; solo los primeros ceil(tamaño / TAMAÑO_BLOQUE) están reservados
+    private Object[][] bloques;
     private int tamaño;
-    
+    private int modificaciones;
+
     public ListaEnlazada() {
-        this.cabeza = null;
+        this.bloques = new Object[BLOQUES_INICIALES][];
         this.tamaño = 0;
     }
-    
+
     // Agregar al final
     public void agregar(T dato) {
-        Nodo<T> nuevoNodo = new Nodo<>(dato);
-        
-        if (cabeza == null) {
-            cabeza = nuevoNodo;
-        } else {
-            Nodo<T> actual = cabeza;
-            while (actual.siguiente != null) {
-                actual = actual.siguiente;
-            }
-            actual.siguiente = nuevoNodo;
-        }
+        Object[] cola = reservarPosicion(tamaño);
+        cola[tamaño & MASCARA_BLOQUE] = dato;
         tamaño++;
+        modificaciones++;
     }
-    
-    // Agregar al inicio
+
+    // Agregar al inicio: desplaza todos los elementos una posición
     public void agregarAlInicio(T dato) {
-        Nodo<T> nuevoNodo = new Nodo<>(dato, cabeza);
-        cabeza = nuevoNodo;
+        reservarPosicion(tamaño);
+        for (int b = tamaño >>> BITS_BLOQUE; b > 0; b--) {
+            Object[] bloque = bloques[b];
+            System.arraycopy(bloque, 0, bloque, 1, MASCARA_BLOQUE);
+            bloque[0] = bloques[b - 1][MASCARA_BLOQUE];
+        }
+        System.arraycopy(bloques[0], 0, bloques[0], 1, MASCARA_BLOQUE);
+        bloques[0][0] = dato;
         tamaño++;
+        modificaciones++;
     }
-    
+
     // Eliminar por dato
     public boolean eliminar(T dato) {
-        if (cabeza == null) return false;
-        
-        if (cabeza.dato.equals(dato)) {
-            cabeza = cabeza.siguiente;
-            tamaño--;
-            return true;
+        int indice = indiceDe(dato);
+        if (indice < 0) {
+            return false;
         }
-        
-        Nodo<T> actual = cabeza;
-        while (actual.siguiente != null && !actual.siguiente.dato.equals(dato)) {
-            actual = actual.siguiente;
+        eliminarEn(indice);
+        return true;
+    }
+
+    // Eliminar por índice, devolviendo el elemento quitado
+    public T eliminarEn(int indice) {
+        verificarIndice(indice);
+        T eliminado = obtener(indice);
+
+        // Corre una posición a la izquierda todo lo que sigue, bloque a bloque
+        int ultimo = (tamaño - 1) >>> BITS_BLOQUE;
+        int posicion = indice & MASCARA_BLOQUE;
+        for (int b = indice >>> BITS_BLOQUE; b <= ultimo; b++) {
+            Object[] bloque = bloques[b];
+            System.arraycopy(bloque, posicion + 1, bloque, posicion, MASCARA_BLOQUE - posicion);
+            bloque[MASCARA_BLOQUE] = b < ultimo ? bloques[b + 1][0] : null;
+            posicion = 0;
         }
-        
-        if (actual.siguiente != null) {
-            actual.siguiente = actual.siguiente.siguiente;
-            tamaño--;
-            return true;
+
+        tamaño--;
+        modificaciones++;
+        // Liberar el bloque de cola si quedó vacío
+        if ((tamaño & MASCARA_BLOQUE) == 0) {
+            bloques[tamaño >>> BITS_BLOQUE] = null;
         }
-        return false;
+        return eliminado;
     }
-    
+
     // Buscar dato
     public boolean contiene(T dato) {
-        Nodo<T> actual = cabeza;
-        while (actual != null) {
-            if (actual.dato.equals(dato)) {
-                return true;
+        return indiceDe(dato) >= 0;
+    }
+
+    // Posición de la primera aparición del dato, o -1
+    public int indiceDe(T dato) {
+        int restantes = tamaño;
+        for (int b = 0; restantes > 0; b++) {
+            Object[] bloque = bloques[b];
+            int limite = Math.min(restantes, TAMAÑO_BLOQUE);
+            for (int i = 0; i < limite; i++) {
+                if (Objects.equals(bloque[i], dato)) {
+                    return (b << BITS_BLOQUE) + i;
+                }
             }
-            actual = actual.siguiente;
+            restantes -= limite;
         }
-        return false;
+        return -1;
     }
-    
+
     // Obtener por índice
+    @SuppressWarnings("unchecked")
     public T obtener(int indice) {
-        if (indice < 0 || indice >= tamaño) {
-            throw new IndexOutOfBoundsException("Índice fuera de rango: " + indice);
-        }
-        
-        Nodo<T> actual = cabeza;
-        for (int i = 0; i < indice; i++) {
-            actual = actual.siguiente;
-        }
-        return actual.dato;
+        verificarIndice(indice);
+        return (T) bloques[indice >>> BITS_BLOQUE][indice & MASCARA_BLOQUE];
     }
-    
+
     // Filtrar lista
     public ListaEnlazada<T> filtrar(Predicate<T> predicado) {
         ListaEnlazada<T> resultado = new ListaEnlazada<>();
@@ -94,7 +134,7 @@ public class ListaEnlazada<T> implements Iterable<T> {
         }
         return resultado;
     }
-    
+
     // Convertir a array
     @SuppressWarnings("unchecked")
     public T[] toArray(T[] arreglo) {
@@ -102,74 +142,170 @@ public class ListaEnlazada<T> implements Iterable<T> {
             arreglo = (T[]) java.lang.reflect.Array.newInstance(
                 arreglo.getClass().getComponentType(), tamaño);
         }
-        
-        int i = 0;
-        for (T elemento : this) {
-            arreglo[i++] = elemento;
+
+        int copiados = 0;
+        for (int b = 0; copiados < tamaño; b++) {
+            int cantidad = Math.min(tamaño - copiados, TAMAÑO_BLOQUE);
+            System.arraycopy(bloques[b], 0, arreglo, copiados, cantidad);
+            copiados += cantidad;
         }
-        
+
         if (arreglo.length > tamaño) {
             arreglo[tamaño] = null;
         }
-        
+
         return arreglo;
     }
-    
+
     // Métodos de utilidad
     public int tamaño() {
         return tamaño;
     }
-    
+
     public boolean estaVacia() {
-        return cabeza == null;
+        return tamaño == 0;
     }
-    
+
     public void limpiar() {
-        cabeza = null;
+        bloques = new Object[BLOQUES_INICIALES][];
         tamaño = 0;
+        modificaciones++;
     }
-    
+
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
     @Override
     public Iterator<T> iterator() {
-        return new IteradorListaEnlazada(cabeza);
+        return new IteradorListaEnlazada();
     }
-    
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return new DivisorBloques(0, tamaño, modificaciones);
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder("[");
-        Nodo<T> actual = cabeza;
-        while (actual != null) {
-            sb.append(actual.dato);
-            if (actual.siguiente != null) {
+        for (int i = 0; i < tamaño; i++) {
+            if (i > 0) {
                 sb.append(", ");
             }
-            actual = actual.siguiente;
+            sb.append(obtener(i));
         }
         sb.append("]");
         return sb.toString();
     }
-    
+
+    // Devuelve el bloque donde irá la posición indicada, creándolo si hace falta
+    private Object[] reservarPosicion(int posicion) {
+        int b = posicion >>> BITS_BLOQUE;
+        if (b == bloques.length) {
+            bloques = Arrays.copyOf(bloques, bloques.length * 2);
+        }
+        if (bloques[b] == null) {
+            bloques[b] = new Object[TAMAÑO_BLOQUE];
+        }
+        return bloques[b];
+    }
+
+    private void verificarIndice(int indice) {
+        if (indice < 0 || indice >= tamaño) {
+            throw new IndexOutOfBoundsException("Índice fuera de rango: " + indice);
+        }
+    }
+
     // Clase interna Iterador
     private class IteradorListaEnlazada implements Iterator<T> {
-        private Nodo<T> actual;
-        
-        public IteradorListaEnlazada(Nodo<T> cabeza) {
-            this.actual = cabeza;
-        }
-        
+        private int siguiente;
+        private final int modificacionesEsperadas = modificaciones;
+
         @Override
         public boolean hasNext() {
-            return actual != null;
+            return siguiente < tamaño;
         }
-        
+
         @Override
         public T next() {
+            if (modificaciones != modificacionesEsperadas) {
+                throw new ConcurrentModificationException();
+            }
             if (!hasNext()) {
                 throw new NoSuchElementException();
             }
-            T dato = actual.dato;
-            actual = actual.siguiente;
-            return dato;
+            return obtener(siguiente++);
+        }
+    }
+
+    // Recorre el rango [indice, fin) y se parte por la mitad, alineada a un bloque si se puede
+    private class DivisorBloques implements Spliterator<T> {
+        private int indice;
+        private final int fin;
+        private final int modificacionesEsperadas;
+
+        DivisorBloques(int indice, int fin, int modificacionesEsperadas) {
+            this.indice = indice;
+            this.fin = fin;
+            this.modificacionesEsperadas = modificacionesEsperadas;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int mitad = (indice + fin) >>> 1;
+            int alineada = mitad & ~MASCARA_BLOQUE;
+            if (alineada > indice) {
+                mitad = alineada;
+            }
+            if (mitad <= indice || mitad >= fin) {
+                return null;
+            }
+            DivisorBloques prefijo = new DivisorBloques(indice, mitad, modificacionesEsperadas);
+            indice = mitad;
+            return prefijo;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> accion) {
+            verificarSinCambios();
+            if (indice >= fin) {
+                return false;
+            }
+            accion.accept(obtener(indice++));
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super T> accion) {
+            verificarSinCambios();
+            // Recorre cada bloque como un arreglo, sin calcular la posición de cada elemento
+            while (indice < fin) {
+                Object[] bloque = bloques[indice >>> BITS_BLOQUE];
+                int limite = Math.min(fin - (indice & ~MASCARA_BLOQUE), TAMAÑO_BLOQUE);
+                for (int i = indice & MASCARA_BLOQUE; i < limite; i++) {
+                    accion.accept((T) bloque[i]);
+                }
+                indice = (indice & ~MASCARA_BLOQUE) + limite;
+            }
+            verificarSinCambios();
+        }
+
+        @Override
+        public long estimateSize() {
+            return fin - indice;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+
+        private void verificarSinCambios() {
+            if (modificaciones != modificacionesEsperadas) {
+                throw new ConcurrentModificationException();
+            }
         }
     }
 }
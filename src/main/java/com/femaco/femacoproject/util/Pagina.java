@@ -0,0 +1,47 @@
+package com.femaco.femacoproject.util;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Página de resultados de una consulta paginada por cursor.
+ * El token de continuación es opaco; es null cuando no hay más páginas.
+ */
+public class Pagina<T> {
+    private final List<T> elementos;
+    private final String siguienteToken;
+
+    public Pagina(List<T> elementos, String siguienteToken) {
+        this.elementos = Collections.unmodifiableList(elementos);
+        this.siguienteToken = siguienteToken;
+    }
+
+    public static <T> Pagina<T> vacia() {
+        return new Pagina<>(Collections.emptyList(), null);
+    }
+
+    public List<T> getElementos() {
+        return elementos;
+    }
+
+    public String getSiguienteToken() {
+        return siguienteToken;
+    }
+
+    public boolean hayMas() {
+        return siguienteToken != null;
+    }
+
+    public int tamaño() {
+        return elementos.size();
+    }
+
+    public boolean estaVacia() {
+        return elementos.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "Pagina{elementos=" + elementos.size() + ", hayMas=" + hayMas() + "}";
+    }
+}